@@ -0,0 +1,16 @@
+package fr.mrqsdf.vastai4j.client;
+
+/**
+ * Callback notified by {@link VastAIClient} after every attempt of every request, e.g. to record latency
+ * histograms or to log retry storms. Listeners run on the thread that completed the attempt and must
+ * return quickly.
+ */
+@FunctionalInterface
+public interface AttemptListener {
+
+    /**
+     * Called once an attempt has completed, successfully or not.
+     * @param attempt the timing and outcome of the attempt.
+     */
+    void onAttempt(RequestAttempt attempt);
+}
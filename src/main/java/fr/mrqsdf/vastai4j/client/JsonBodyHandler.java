@@ -0,0 +1,166 @@
+package fr.mrqsdf.vastai4j.client;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+import fr.mrqsdf.vastai4j.http.VastAIException;
+import fr.mrqsdf.vastai4j.http.VastAIHttpException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Body handler that decodes a Vast.ai response straight from the network stream.
+ * <p>
+ * Successful responses are exposed as an {@link InputStream} fed into Gson, so the raw text is never
+ * buffered as a whole {@link String}: peak memory tracks the decoded objects only. Error responses
+ * (HTTP status 400 and above) are small and are still read as a string to build the
+ * {@link VastAIHttpException}.
+ * </p>
+ * <p>
+ * Following the {@link HttpResponse.BodySubscribers#mapping} contract for stream-based bodies, the
+ * handler returns a {@link Supplier}: decoding happens when {@link Supplier#get()} is called, which
+ * must be done from a thread that is allowed to block.
+ * </p>
+ * <p>
+ * The non-blocking path uses {@link #buffered()} instead: the HttpClient collects the body as bytes
+ * without parking any thread, and the supplier decodes from memory.
+ * </p>
+ *
+ * @param <T> the decoded type.
+ */
+final class JsonBodyHandler<T> implements HttpResponse.BodyHandler<Supplier<T>> {
+
+    private final Function<InputStream, T> decoder;
+
+    /**
+     * @param gson the Gson instance used for decoding.
+     * @param type the target type, {@code String.class} for the raw body or {@code null} to discard it.
+     */
+    JsonBodyHandler(Gson gson, Type type) {
+        this.decoder = in -> decode(gson, type, in);
+    }
+
+    private JsonBodyHandler(Function<InputStream, T> decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Create a handler that decodes the body with an explicit reader, for payloads whose shape cannot be
+     * described by a single {@link Type}. An empty body decodes to {@code null}.
+     * @param gson the Gson instance whose reader settings are applied.
+     * @param decoder the decoder reading the whole document (e.g. {@code adapter::read}).
+     * @param <T> the decoded type.
+     * @return the handler.
+     */
+    static <T> JsonBodyHandler<T> ofReader(Gson gson, ResponseReader<T> decoder) {
+        return new JsonBodyHandler<>(in -> {
+            try (JsonReader reader = gson.newJsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                try {
+                    reader.peek();
+                } catch (EOFException empty) {
+                    return null;
+                }
+                return decoder.read(reader);
+            } catch (IOException e) {
+                throw new VastAIException("Failed to read Vast.ai response", e);
+            }
+        });
+    }
+
+    /**
+     * Create a handler that hands the open body over as a {@link JsonReader}. The caller owns the reader
+     * and must close it, which releases the underlying connection even if the body was not fully read.
+     * @param gson the Gson instance whose reader settings are applied.
+     * @return the handler.
+     */
+    static JsonBodyHandler<JsonReader> ofJsonReader(Gson gson) {
+        return new JsonBodyHandler<>(in -> gson.newJsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<Supplier<T>> apply(HttpResponse.ResponseInfo info) {
+        if (info.statusCode() >= 400) {
+            return failure(info);
+        }
+        return HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofInputStream(),
+                in -> () -> decoder.apply(in));
+    }
+
+    /**
+     * Variant of this handler for {@link java.net.http.HttpClient#sendAsync}: the body is read into a byte
+     * array as it arrives, so the supplier never blocks on the socket and may run on any thread.
+     * @return the buffering handler.
+     */
+    HttpResponse.BodyHandler<Supplier<T>> buffered() {
+        return info -> {
+            if (info.statusCode() >= 400) {
+                return failure(info);
+            }
+            return HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(),
+                    bytes -> () -> decoder.apply(new ByteArrayInputStream(bytes)));
+        };
+    }
+
+    private static <T> HttpResponse.BodySubscriber<Supplier<T>> failure(HttpResponse.ResponseInfo info) {
+        int status = info.statusCode();
+        Duration retryAfter = info.headers().firstValue("Retry-After").map(JsonBodyHandler::parseRetryAfter).orElse(null);
+        return HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                body -> () -> {
+                    throw new VastAIHttpException(status, body, retryAfter);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T decode(Gson gson, Type type, InputStream in) {
+        try (InputStream body = in) {
+            if (type == null) {
+                // Drain so the connection can be reused.
+                body.transferTo(OutputStream.nullOutputStream());
+                return null;
+            }
+            if (type == String.class) {
+                return (T) new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            return gson.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), type);
+        } catch (IOException | JsonIOException e) {
+            throw new VastAIException("Failed to read Vast.ai response", e);
+        }
+    }
+
+    /**
+     * Parse a {@code Retry-After} value, either delta-seconds or an HTTP-date.
+     * @return the delay (never negative), or null if the value is malformed.
+     */
+    static Duration parseRetryAfter(String value) {
+        String v = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(v)));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Instant at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration d = Duration.between(Instant.now(), at);
+                return d.isNegative() ? Duration.ZERO : d;
+            } catch (DateTimeParseException malformed) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package fr.mrqsdf.vastai4j.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Size-bounded {@link ResponseCache} with per-endpoint TTLs and least-recently-used eviction.
+ * <p>
+ * Only paths covered by a {@link Builder#ttl rule} are cached; when several prefixes match, the longest
+ * one wins. An entry is fresh during its TTL, then stale (served while a background refresh runs) during
+ * the stale-while-revalidate window, then dropped.
+ * </p>
+ * <pre>{@code
+ * ResponseCache cache = LruResponseCache.builder()
+ *         .ttl("/users/current/", Duration.ofSeconds(10), Duration.ofSeconds(50))
+ *         .ttl("/instances/", Duration.ofSeconds(2), Duration.ofSeconds(8))
+ *         .maxEntries(512)
+ *         .build();
+ * }</pre>
+ */
+public final class LruResponseCache implements ResponseCache {
+
+    private final List<Rule> rules;
+    private final int maxEntries;
+    private final LinkedHashMap<RequestKey, Stored> entries;
+
+    private long generation;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private LruResponseCache(Builder builder) {
+        List<Rule> list = new ArrayList<>(builder.rules.values());
+        list.sort(Comparator.comparingInt((Rule r) -> r.prefix.length()).reversed());
+        this.rules = List.copyOf(list);
+        this.maxEntries = builder.maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RequestKey, Stored> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a new builder with no TTL rule and a bound of 1024 entries.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean isCacheable(RequestKey key) {
+        return ruleFor(key.path()) != null;
+    }
+
+    @Override
+    public synchronized Entry get(RequestKey key) {
+        Stored stored = entries.get(key);
+        long now = System.nanoTime();
+        if (stored == null || now - stored.staleUntil >= 0) {
+            if (stored != null) entries.remove(key);
+            misses++;
+            return null;
+        }
+        boolean fresh = now - stored.freshUntil < 0;
+        if (fresh) hits++;
+        else staleHits++;
+        return new Entry(stored.value, fresh);
+    }
+
+    @Override
+    public void put(RequestKey key, Object value, long generation) {
+        Rule rule = ruleFor(key.path());
+        if (rule == null || value == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        Stored stored = new Stored(value, now + rule.fresh.toNanos(), now + rule.fresh.toNanos() + rule.stale.toNanos());
+        synchronized (this) {
+            if (generation != this.generation) {
+                return; // a write went through while this response was in flight
+            }
+            entries.put(key, stored);
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String pathPrefix) {
+        generation++;
+        for (Iterator<RequestKey> it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().path().startsWith(pathPrefix)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized long generation() {
+        return generation;
+    }
+
+    @Override
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, staleHits, misses, evictions, invalidations, entries.size());
+    }
+
+    /**
+     * Drop every entry.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private Rule ruleFor(String path) {
+        for (Rule rule : rules) {
+            if (path.startsWith(rule.prefix)) return rule;
+        }
+        return null;
+    }
+
+    private record Rule(String prefix, Duration fresh, Duration stale) {
+    }
+
+    private record Stored(Object value, long freshUntil, long staleUntil) {
+    }
+
+    /**
+     * Builder class for constructing LruResponseCache instances.
+     */
+    public static final class Builder {
+        private final Map<String, Rule> rules = new LinkedHashMap<>();
+        private int maxEntries = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Caches the reads whose path starts with {@code pathPrefix}.
+         * @param pathPrefix the path prefix (e.g. {@code /instances/})
+         * @param ttl how long an entry is served without contacting the API
+         * @param staleWhileRevalidate how long after the TTL an entry is still served while being refreshed
+         * @return the builder instance
+         */
+        public Builder ttl(String pathPrefix, Duration ttl, Duration staleWhileRevalidate) {
+            Objects.requireNonNull(pathPrefix, "pathPrefix");
+            String prefix = pathPrefix.startsWith("/") ? pathPrefix : "/" + pathPrefix;
+            rules.put(prefix, new Rule(prefix, requirePositive(ttl, "ttl"),
+                    requireNonNegative(staleWhileRevalidate, "staleWhileRevalidate")));
+            return this;
+        }
+
+        /**
+         * Caches the reads whose path starts with {@code pathPrefix}, without stale-while-revalidate.
+         * @param pathPrefix the path prefix (e.g. {@code /users/current/})
+         * @param ttl how long an entry is served without contacting the API
+         * @return the builder instance
+         */
+        public Builder ttl(String pathPrefix, Duration ttl) {
+            return ttl(pathPrefix, ttl, Duration.ZERO);
+        }
+
+        /**
+         * Sets the maximum number of entries; the least recently used one is evicted beyond it.
+         * @param maxEntries the size bound
+         * @return the builder instance
+         */
+        public Builder maxEntries(int maxEntries) {
+            if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Builds the LruResponseCache instance.
+         * @return the constructed LruResponseCache
+         */
+        public LruResponseCache build() {
+            return new LruResponseCache(this);
+        }
+
+        private static Duration requirePositive(Duration d, String name) {
+            Objects.requireNonNull(d, name);
+            if (d.isNegative() || d.isZero()) throw new IllegalArgumentException(name + " must be positive");
+            return d;
+        }
+
+        private static Duration requireNonNegative(Duration d, String name) {
+            Objects.requireNonNull(d, name);
+            if (d.isNegative()) throw new IllegalArgumentException(name + " must not be negative");
+            return d;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package fr.mrqsdf.vastai4j.client;
+
+/**
+ * {@link ResponseCache} storing nothing, returned by {@link ResponseCache#none()}.
+ */
+final class NoResponseCache implements ResponseCache {
+
+    static final NoResponseCache INSTANCE = new NoResponseCache();
+
+    private static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private NoResponseCache() {
+    }
+
+    @Override
+    public boolean isCacheable(RequestKey key) {
+        return false;
+    }
+
+    @Override
+    public Entry get(RequestKey key) {
+        return null;
+    }
+
+    @Override
+    public void put(RequestKey key, Object value, long generation) {
+    }
+
+    @Override
+    public void invalidate(String pathPrefix) {
+    }
+
+    @Override
+    public long generation() {
+        return 0;
+    }
+
+    @Override
+    public CacheStats stats() {
+        return EMPTY;
+    }
+}
@@ -0,0 +1,378 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.RequestPriority;
+import fr.mrqsdf.vastai4j.http.VastAIException;
+import fr.mrqsdf.vastai4j.http.VastAIRequest;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side token-bucket rate limiter applied by {@link VastAIClient} before every attempt.
+ * <p>
+ * Requests are grouped into endpoint families by path prefix (e.g. {@code /instances/}, {@code /bundles/},
+ * {@code /asks/}, {@code /users/current/}); each family owns a bucket refilled at a steady rate and holding
+ * at most {@code burst} tokens, so all the monitors, pollers and workers sharing one API key stay under the
+ * server limits instead of bursting into {@code 429} responses. Paths matching no family use the default
+ * bucket, which is unlimited unless {@link Builder#defaultRate} is set.
+ * </p>
+ * <p>
+ * A caller takes a token immediately while the bucket has one and nobody is waiting. Otherwise it waits in
+ * one FIFO lane per {@link RequestPriority}, and every refilled token goes to the head of the highest
+ * non-empty lane: a {@code destroy} issued while hundreds of background polls wait for {@code /instances/}
+ * tokens is the next request to get one. {@link #acquireAsync} parks no thread, the bucket completes the
+ * waiter's future when its token is refilled. A cancelled or interrupted wait leaves its lane without taking
+ * a token, and a caller whose estimated wait exceeds {@link Builder#maxWait} fails immediately instead of
+ * queueing.
+ * </p>
+ */
+public final class RateLimiter {
+
+    private static final RateLimiter UNLIMITED = builder().build();
+
+    private final List<Bucket> families;
+    private final Bucket defaultBucket;
+    private final long maxWaitNanos;
+
+    private RateLimiter(Builder builder) {
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        List<Bucket> list = new ArrayList<>();
+        builder.families.forEach((prefix, rate) -> list.add(new Bucket(prefix, rate)));
+        // Longest prefix first so "/instances/reboot/" can be configured apart from "/instances/".
+        list.sort(Comparator.comparingInt((Bucket b) -> b.family.length()).reversed());
+        this.families = List.copyOf(list);
+        this.defaultBucket = new Bucket("*", builder.defaultRate);
+    }
+
+    /**
+     * Limiter that never delays a request (default of {@link VastAIClient}).
+     * @return the unlimited limiter.
+     */
+    public static RateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Creates a new builder with no family configured.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Take a token for the request, blocking the calling thread until it is available.
+     * @param request the request about to be sent; its {@link VastAIRequest#getPriority() priority} selects the lane.
+     * @throws InterruptedException if the thread is interrupted while waiting; no token is held in that case.
+     * @throws VastAIException if the token would not be available within {@link Builder#maxWait}.
+     */
+    public void acquire(VastAIRequest request) throws InterruptedException {
+        CompletableFuture<Void> permit = acquireAsync(request);
+        Bucket bucket = bucketFor(request.getPath());
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                bucket.refund(); // the token was handed over concurrently, give it back
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof VastAIException v) throw v;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Take a token for the request without blocking.
+     * @param request the request about to be sent; its {@link VastAIRequest#getPriority() priority} selects the lane.
+     * @return a future completed once the token is granted (already completed if no wait is needed), or
+     * failed with a {@link VastAIException} if the token would not be available within {@link Builder#maxWait}.
+     * Cancelling a pending future withdraws it from its lane.
+     */
+    public CompletableFuture<Void> acquireAsync(VastAIRequest request) {
+        return bucketFor(request.getPath()).acquire(request.getPriority(), maxWaitNanos);
+    }
+
+    /**
+     * Metrics of every bucket, configured families first and the default bucket ({@code "*"}) last.
+     * @return an immutable snapshot keyed by family prefix.
+     */
+    public Map<String, Stats> stats() {
+        Map<String, Stats> out = new LinkedHashMap<>();
+        for (Bucket bucket : families) out.put(bucket.family, bucket.stats());
+        out.put(defaultBucket.family, defaultBucket.stats());
+        return Collections.unmodifiableMap(out);
+    }
+
+    private Bucket bucketFor(String path) {
+        for (Bucket bucket : families) {
+            if (path.startsWith(bucket.family)) return bucket;
+        }
+        return defaultBucket;
+    }
+
+    /**
+     * Steady rate of a bucket.
+     *
+     * @param permitsPerSecond the refill rate.
+     * @param burst            the capacity of the bucket, i.e. the number of requests allowed back to back.
+     */
+    public record Rate(double permitsPerSecond, int burst) {
+
+        public Rate {
+            if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond must be > 0");
+            if (burst < 1) throw new IllegalArgumentException("burst must be >= 1");
+        }
+    }
+
+    /**
+     * Snapshot of the activity of a bucket.
+     *
+     * @param family     the path prefix of the family ({@code "*"} for the default bucket).
+     * @param acquired   the number of tokens handed out.
+     * @param delayed    the number of acquisitions that had to wait.
+     * @param queueDepth the number of callers currently waiting for their token.
+     * @param totalWait  the cumulated waiting time.
+     * @param maxWait    the longest single wait.
+     */
+    public record Stats(String family, long acquired, long delayed, int queueDepth, Duration totalWait, Duration maxWait) {
+
+        /**
+         * @return the average wait per acquisition, zero if nothing was acquired.
+         */
+        public Duration averageWait() {
+            return acquired == 0 ? Duration.ZERO : totalWait.dividedBy(acquired);
+        }
+    }
+
+    private static final class Bucket {
+        private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+        private static final RequestPriority[] LANES = RequestPriority.values();
+
+        private final String family;
+        private final Rate rate;
+        private final double nanosPerPermit;
+        private final Map<RequestPriority, ArrayDeque<Waiter>> lanes = new EnumMap<>(RequestPriority.class);
+
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private int waiting;
+        private boolean refillScheduled;
+
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong delayed = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private Bucket(String family, Rate rate) {
+            this.family = family;
+            this.rate = rate;
+            this.nanosPerPermit = rate == null ? 0 : 1e9 / rate.permitsPerSecond();
+            this.tokens = rate == null ? 0 : rate.burst();
+            for (RequestPriority priority : LANES) lanes.put(priority, new ArrayDeque<>());
+        }
+
+        /**
+         * Take a token at once if one is free and nobody waits, otherwise queue in the lane of {@code priority}.
+         * The wait is estimated from the waiters of the same or a higher lane: a caller that would wait more
+         * than {@code limitNanos} fails without queueing.
+         */
+        private CompletableFuture<Void> acquire(RequestPriority priority, long limitNanos) {
+            if (rate == null) {
+                acquired.incrementAndGet();
+                return GRANTED;
+            }
+            Waiter waiter;
+            synchronized (this) {
+                refill();
+                if (waiting == 0 && tokens >= 1) {
+                    tokens -= 1;
+                    acquired.incrementAndGet();
+                    return GRANTED;
+                }
+                int ahead = 0;
+                for (RequestPriority lane : LANES) {
+                    if (lane.compareTo(priority) > 0) break;
+                    ahead += lanes.get(lane).size();
+                }
+                long wait = (long) Math.ceil((ahead + 1 - tokens) * nanosPerPermit);
+                if (wait > limitNanos) {
+                    return CompletableFuture.failedFuture(new VastAIException("Rate limit of " + family
+                            + " would delay the request by " + Duration.ofNanos(wait) + " (max " + Duration.ofNanos(limitNanos) + ")"));
+                }
+                waiter = new Waiter(priority, System.nanoTime());
+                lanes.get(priority).addLast(waiter);
+                waiting++;
+                scheduleRefill();
+            }
+            waiter.future.whenComplete((ignored, error) -> {
+                if (waiter.future.isCancelled()) withdraw(waiter);
+            });
+            return waiter.future;
+        }
+
+        /**
+         * Hand the refilled tokens to the oldest waiters of the highest non-empty lanes.
+         */
+        private void grant() {
+            while (true) {
+                Waiter next = null;
+                synchronized (this) {
+                    refillScheduled = false;
+                    refill();
+                    if (tokens >= 1) {
+                        for (RequestPriority priority : LANES) {
+                            next = lanes.get(priority).pollFirst();
+                            if (next != null) break;
+                        }
+                    }
+                    if (next == null) {
+                        if (waiting > 0) scheduleRefill();
+                        return;
+                    }
+                    waiting--;
+                    tokens -= 1;
+                }
+                if (next.future.complete(null)) {
+                    long waited = System.nanoTime() - next.enqueuedAt;
+                    acquired.incrementAndGet();
+                    delayed.incrementAndGet();
+                    totalWaitNanos.addAndGet(waited);
+                    maxWaitNanos.accumulateAndGet(waited, Math::max);
+                } else {
+                    synchronized (this) {
+                        tokens = Math.min(rate.burst(), tokens + 1); // cancelled in the meantime: offer it to the next waiter
+                    }
+                }
+            }
+        }
+
+        /** Wake {@link #grant()} when the next token is refilled; at most one wake-up is pending. */
+        private void scheduleRefill() {
+            if (refillScheduled) {
+                return;
+            }
+            refillScheduled = true;
+            long delay = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerPermit);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(this::grant);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(rate.burst(), tokens + (now - lastRefill) / nanosPerPermit);
+            lastRefill = now;
+        }
+
+        /**
+         * Give back a token whose waiter was abandoned after the grant.
+         */
+        private void refund() {
+            acquired.decrementAndGet();
+            synchronized (this) {
+                tokens = Math.min(rate.burst(), tokens + 1);
+            }
+        }
+
+        private synchronized void withdraw(Waiter waiter) {
+            if (lanes.get(waiter.priority).remove(waiter)) waiting--;
+        }
+
+        private Stats stats() {
+            int queued;
+            synchronized (this) {
+                queued = waiting;
+            }
+            return new Stats(family, acquired.get(), delayed.get(), queued,
+                    Duration.ofNanos(totalWaitNanos.get()), Duration.ofNanos(maxWaitNanos.get()));
+        }
+    }
+
+    private record Waiter(RequestPriority priority, long enqueuedAt, CompletableFuture<Void> future) {
+        private Waiter(RequestPriority priority, long enqueuedAt) {
+            this(priority, enqueuedAt, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Builder class for constructing RateLimiter instances.
+     */
+    public static final class Builder {
+        private final Map<String, Rate> families = new LinkedHashMap<>();
+        private Rate defaultRate;
+        private Duration maxWait = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Limits the endpoint family whose paths start with {@code pathPrefix}.
+         * @param pathPrefix the path prefix (e.g. {@code /instances/})
+         * @param permitsPerSecond the steady number of requests per second
+         * @param burst the number of requests allowed back to back after an idle period
+         * @return the builder instance
+         */
+        public Builder family(String pathPrefix, double permitsPerSecond, int burst) {
+            Objects.requireNonNull(pathPrefix, "pathPrefix");
+            families.put(pathPrefix.startsWith("/") ? pathPrefix : "/" + pathPrefix, new Rate(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Limits every request whose path matches no configured family (unlimited by default).
+         * @param permitsPerSecond the steady number of requests per second
+         * @param burst the number of requests allowed back to back after an idle period
+         * @return the builder instance
+         */
+        public Builder defaultRate(double permitsPerSecond, int burst) {
+            this.defaultRate = new Rate(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * Sets the longest a caller may wait for a token (one minute by default). A request that would wait
+         * longer fails immediately with a {@link VastAIException} instead of reserving budget that far ahead.
+         * @param maxWait the maximum wait, positive
+         * @return the builder instance
+         */
+        public Builder maxWait(Duration maxWait) {
+            Objects.requireNonNull(maxWait, "maxWait");
+            if (maxWait.isNegative() || maxWait.isZero()) throw new IllegalArgumentException("maxWait must be > 0");
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Configures the usual Vast.ai endpoint families ({@code /instances/}, {@code /bundles/}, {@code /asks/},
+         * {@code /search/asks/}, {@code /users/current/}) with the same rate each.
+         * @param permitsPerSecond the steady number of requests per second of each family
+         * @param burst the burst of each family
+         * @return the builder instance
+         */
+        public Builder standardFamilies(double permitsPerSecond, int burst) {
+            for (String prefix : List.of("/instances/", "/bundles/", "/asks/", "/search/asks/", "/users/current/")) {
+                family(prefix, permitsPerSecond, burst);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the RateLimiter instance.
+         * @return the constructed RateLimiter
+         */
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
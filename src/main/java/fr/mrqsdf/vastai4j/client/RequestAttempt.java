@@ -0,0 +1,41 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.HttpMethod;
+
+import java.time.Duration;
+
+/**
+ * Timing and outcome of a single attempt of a Vast.ai request, published to {@link AttemptListener}s.
+ *
+ * @param method     the HTTP method of the request.
+ * @param path       the request path (e.g. {@code /instances/123/}).
+ * @param attempt    the attempt number, starting at 1.
+ * @param elapsed    the time spent on the attempt, from sending the request to decoding the response.
+ * @param statusCode the HTTP status code, or -1 if no response was received.
+ * @param failure    the failure of the attempt, or null if it succeeded.
+ * @param retryDelay the delay before the next attempt, or null if the request will not be retried.
+ */
+public record RequestAttempt(
+        HttpMethod method,
+        String path,
+        int attempt,
+        Duration elapsed,
+        int statusCode,
+        Throwable failure,
+        Duration retryDelay
+) {
+
+    /**
+     * @return true if the attempt succeeded.
+     */
+    public boolean succeeded() {
+        return failure == null;
+    }
+
+    /**
+     * @return true if the request will be sent again after {@link #retryDelay()}.
+     */
+    public boolean willRetry() {
+        return retryDelay != null;
+    }
+}
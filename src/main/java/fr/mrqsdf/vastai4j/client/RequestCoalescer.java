@@ -0,0 +1,267 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.RequestPriority;
+import fr.mrqsdf.vastai4j.http.VastAIException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical in-flight GET requests, applied by {@link VastAIClient}.
+ * <p>
+ * The first caller of a given request (method, resolved URI, headers and decoded type) becomes the leader
+ * and performs the network call, retries included; callers arriving while it is in flight wait for the
+ * leader's outcome instead of sending their own request, and all of them receive the same decoded object
+ * (or the same exception). Once the call completes the entry is dropped, so a later call goes back to the
+ * network: this is not a cache. A write sent through the client {@link #invalidate(String) detaches} the
+ * in-flight reads of the paths it touches, so a read issued after the write never joins one started before it.
+ * </p>
+ * <p>
+ * A caller only joins a call of its own {@link RequestPriority} lane or of a higher one: a CRITICAL read
+ * never ends up waiting behind a BACKGROUND poll queued in the {@link RequestScheduler}, while background
+ * callers freely share the round trips of more urgent ones.
+ * </p>
+ * <p>
+ * Decoded models are shared between waiters and must be treated as read-only.
+ * </p>
+ */
+public final class RequestCoalescer {
+
+    private static final RequestPriority[] LANES = RequestPriority.values();
+
+    private final boolean enabled;
+    private final Map<Slot, Flight<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong networkCalls = new AtomicLong();
+    private final AtomicLong savedCalls = new AtomicLong();
+
+    private RequestCoalescer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Coalescer sharing identical in-flight GETs (default of {@link VastAIClient}).
+     * @return a new enabled coalescer.
+     */
+    public static RequestCoalescer enabled() {
+        return new RequestCoalescer(true);
+    }
+
+    /**
+     * Coalescer that lets every call go to the network.
+     * @return a new disabled coalescer.
+     */
+    public static RequestCoalescer disabled() {
+        return new RequestCoalescer(false);
+    }
+
+    /**
+     * @return true if identical in-flight GETs are shared.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the number of coalescable calls that went to the network as leaders.
+     */
+    public long getNetworkCalls() {
+        return networkCalls.get();
+    }
+
+    /**
+     * @return the number of calls served by joining an identical call already in flight.
+     */
+    public long getSavedCalls() {
+        return savedCalls.get();
+    }
+
+    /**
+     * @return the number of distinct calls currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Run {@code call} on the calling thread unless an identical call is in flight, in which case its
+     * outcome is awaited and returned instead.
+     */
+    <T> T join(Object key, RequestPriority priority, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        while (true) {
+            Flight<T> leader = enterExisting(key, priority);
+            if (leader != null) {
+                savedCalls.incrementAndGet();
+                return await(leader.shared);
+            }
+            Slot slot = new Slot(key, priority);
+            Flight<T> mine = new Flight<>();
+            if (!register(slot, mine)) {
+                continue;
+            }
+            networkCalls.incrementAndGet();
+            try {
+                T value = call.get();
+                inFlight.remove(slot, mine);
+                mine.shared.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                inFlight.remove(slot, mine);
+                mine.shared.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Start {@code call} unless an identical call is in flight, in which case its outcome is shared.
+     * Every caller receives its own dependent future, so cancelling one (or letting {@code orTimeout} fire on
+     * it) does not affect the others; once every caller has given up, the call itself is cancelled.
+     */
+    <T> CompletableFuture<T> joinAsync(Object key, RequestPriority priority, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        while (true) {
+            Flight<T> leader = enterExisting(key, priority);
+            if (leader != null) {
+                savedCalls.incrementAndGet();
+                return leader.follow();
+            }
+            Slot slot = new Slot(key, priority);
+            Flight<T> mine = new Flight<>();
+            if (!register(slot, mine)) {
+                continue;
+            }
+            networkCalls.incrementAndGet();
+            CompletableFuture<T> follower = mine.follow();
+            CompletableFuture<T> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                inFlight.remove(slot, mine);
+                if (error != null) {
+                    mine.shared.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    mine.shared.complete(value);
+                }
+            });
+            mine.start(started);
+            return follower;
+        }
+    }
+
+    /**
+     * Detach every in-flight call whose path starts with {@code pathPrefix}: its current waiters still receive
+     * its outcome, but later callers start a new call.
+     * @param pathPrefix the path, or path prefix, written to.
+     */
+    void invalidate(String pathPrefix) {
+        if (enabled) {
+            inFlight.keySet().removeIf(slot -> slot.key() instanceof RequestKey key && key.path().startsWith(pathPrefix));
+        }
+    }
+
+    /**
+     * Join the call in flight for {@code key} in the most urgent lane not below {@code priority}.
+     * @return the joined flight, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Flight<T> enterExisting(Object key, RequestPriority priority) {
+        for (RequestPriority lane : LANES) {
+            if (lane.compareTo(priority) > 0) break;
+            Flight<T> flight = (Flight<T>) inFlight.get(new Slot(key, lane));
+            if (flight != null && flight.enter()) return flight;
+        }
+        return null;
+    }
+
+    /**
+     * Register a new leader; on a race, drop an abandoned predecessor and let the caller look again.
+     */
+    private boolean register(Slot slot, Flight<?> mine) {
+        Flight<?> present = inFlight.putIfAbsent(slot, mine);
+        if (present == null) {
+            return true;
+        }
+        if (present.isAbandoned()) {
+            inFlight.remove(slot, present); // being cancelled: a new call is needed
+        }
+        return false;
+    }
+
+    private record Slot(Object key, RequestPriority priority) {
+    }
+
+    /**
+     * A call in flight and the number of callers still waiting for it.
+     */
+    private static final class Flight<T> {
+        private final CompletableFuture<T> shared = new CompletableFuture<>();
+        private CompletableFuture<T> call;
+        private int waiting = 1; // the leader
+        private boolean abandoned;
+
+        private synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        private synchronized boolean enter() {
+            if (abandoned) return false;
+            waiting++;
+            return true;
+        }
+
+        private CompletableFuture<T> follow() {
+            CompletableFuture<T> copy = shared.copy();
+            copy.whenComplete((value, error) -> {
+                if (!shared.isDone()) leave(); // cancelled or timed out before the shared outcome
+            });
+            return copy;
+        }
+
+        private void start(CompletableFuture<T> started) {
+            boolean cancel;
+            synchronized (this) {
+                call = started;
+                cancel = abandoned;
+            }
+            if (cancel) started.cancel(false);
+        }
+
+        private void leave() {
+            CompletableFuture<T> toCancel;
+            synchronized (this) {
+                if (--waiting > 0 || abandoned) return;
+                abandoned = true;
+                toCancel = call;
+            }
+            if (toCancel != null) toCancel.cancel(false);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VastAIException("Vast.ai request interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new VastAIException("Failed to execute Vast.ai request", cause);
+        }
+    }
+}
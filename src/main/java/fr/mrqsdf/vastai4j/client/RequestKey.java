@@ -0,0 +1,19 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.HttpMethod;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Identity of a read request as seen by the {@link RequestCoalescer} and the {@link ResponseCache}: two
+ * requests with equal keys return the same decoded object.
+ *
+ * @param method  the HTTP method (always {@link HttpMethod#GET} for shared reads).
+ * @param path    the request path, used to select TTLs and to match invalidations.
+ * @param uri     the fully resolved URI, query string included.
+ * @param headers the extra headers of the request.
+ * @param decoder the type or adapter used to decode the body.
+ */
+public record RequestKey(HttpMethod method, String path, URI uri, Map<String, String> headers, Object decoder) {
+}
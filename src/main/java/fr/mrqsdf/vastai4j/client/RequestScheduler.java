@@ -0,0 +1,205 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.RequestPriority;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Priority-aware admission control applied by {@link VastAIClient} before every attempt.
+ * <p>
+ * The scheduler bounds the number of attempts in flight. Once the budget is exhausted, new attempts wait
+ * in one FIFO lane per {@link RequestPriority}, and every released slot is handed to the head of the
+ * highest non-empty lane. A {@code destroy} issued while hundreds of background polls are queued is thus
+ * the next request sent. The rate-limiter token is taken before the slot, so waiting for rate budget holds
+ * no slot; a slot covers the exchange and the decoding of the body;
+ * it is released between retries.
+ * </p>
+ * <p>
+ * {@link #unlimited()} (the default) admits everything immediately, without locking.
+ * </p>
+ */
+public final class RequestScheduler {
+
+    private static final CompletableFuture<Void> ADMITTED = CompletableFuture.completedFuture(null);
+    private static final RequestPriority[] LANES = RequestPriority.values();
+
+    private final int maxInFlight;
+    private final boolean unlimited;
+    private final Map<RequestPriority, ArrayDeque<Waiter>> lanes = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Lane> metrics = new EnumMap<>(RequestPriority.class);
+    private int available;
+
+    private RequestScheduler(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.unlimited = maxInFlight == Integer.MAX_VALUE;
+        this.available = maxInFlight;
+        for (RequestPriority priority : LANES) {
+            lanes.put(priority, new ArrayDeque<>());
+            metrics.put(priority, new Lane());
+        }
+    }
+
+    /**
+     * Scheduler that never queues a request (default of {@link VastAIClient}).
+     * @return a new unlimited scheduler.
+     */
+    public static RequestScheduler unlimited() {
+        return new RequestScheduler(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Scheduler allowing at most {@code maxInFlight} attempts at once.
+     * @param maxInFlight the concurrency budget, at least 1.
+     * @return a new scheduler.
+     */
+    public static RequestScheduler withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+        return new RequestScheduler(maxInFlight);
+    }
+
+    /**
+     * @return the concurrency budget ({@link Integer#MAX_VALUE} when unlimited).
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Wait for a slot, blocking the calling thread. Every successful call must be paired with {@link #release()}.
+     * @param priority the lane of the request.
+     * @throws InterruptedException if the thread is interrupted while queued; no slot is held in that case.
+     */
+    public void acquire(RequestPriority priority) throws InterruptedException {
+        CompletableFuture<Void> admission = acquireAsync(priority);
+        if (admission.isDone()) {
+            return;
+        }
+        try {
+            admission.get();
+        } catch (InterruptedException e) {
+            if (!admission.cancel(false)) {
+                release(); // the slot was handed over concurrently, give it back
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Wait for a slot without blocking. Every completed admission must be paired with {@link #release()};
+     * cancelling a pending admission withdraws it from its lane.
+     * @param priority the lane of the request.
+     * @return a future completed once the slot is granted.
+     */
+    public CompletableFuture<Void> acquireAsync(RequestPriority priority) {
+        Lane lane = metrics.get(priority);
+        if (unlimited) {
+            lane.admitted.incrementAndGet();
+            return ADMITTED;
+        }
+        Waiter waiter;
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                lane.admitted.incrementAndGet();
+                return ADMITTED;
+            }
+            waiter = new Waiter(priority, System.nanoTime());
+            lanes.get(priority).addLast(waiter);
+        }
+        waiter.future.whenComplete((ignored, error) -> {
+            if (waiter.future.isCancelled()) withdraw(waiter);
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Give a slot back, handing it to the oldest waiter of the highest non-empty lane.
+     */
+    public void release() {
+        if (unlimited) {
+            return;
+        }
+        while (true) {
+            Waiter next = null;
+            synchronized (this) {
+                for (RequestPriority priority : LANES) {
+                    next = lanes.get(priority).pollFirst();
+                    if (next != null) break;
+                }
+                if (next == null) {
+                    available++;
+                    return;
+                }
+            }
+            if (next.future.complete(null)) {
+                Lane lane = metrics.get(next.priority);
+                long waited = System.nanoTime() - next.enqueuedAt;
+                lane.admitted.incrementAndGet();
+                lane.totalWaitNanos.addAndGet(waited);
+                lane.maxWaitNanos.accumulateAndGet(waited, Math::max);
+                return;
+            }
+            // cancelled in the meantime: offer the slot to the next waiter
+        }
+    }
+
+    /**
+     * @return the number of attempts currently holding a slot (always 0 when unlimited).
+     */
+    public synchronized int inFlight() {
+        return unlimited ? 0 : maxInFlight - available;
+    }
+
+    /**
+     * Metrics of every lane, highest priority first.
+     * @return an immutable snapshot keyed by priority.
+     */
+    public Map<RequestPriority, LaneStats> stats() {
+        Map<RequestPriority, LaneStats> out = new EnumMap<>(RequestPriority.class);
+        synchronized (this) {
+            for (RequestPriority priority : LANES) {
+                Lane lane = metrics.get(priority);
+                out.put(priority, new LaneStats(priority, lane.admitted.get(), lanes.get(priority).size(),
+                        Duration.ofNanos(lane.totalWaitNanos.get()), Duration.ofNanos(lane.maxWaitNanos.get())));
+            }
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    private synchronized void withdraw(Waiter waiter) {
+        lanes.get(waiter.priority).remove(waiter);
+    }
+
+    /**
+     * Snapshot of the activity of a lane.
+     *
+     * @param priority  the lane.
+     * @param admitted  the number of attempts admitted through this lane.
+     * @param queued    the number of attempts currently waiting in this lane.
+     * @param totalWait the cumulated queueing time of the admitted attempts.
+     * @param maxWait   the longest queueing time.
+     */
+    public record LaneStats(RequestPriority priority, long admitted, int queued, Duration totalWait, Duration maxWait) {
+    }
+
+    private record Waiter(RequestPriority priority, long enqueuedAt, CompletableFuture<Void> future) {
+        private Waiter(RequestPriority priority, long enqueuedAt) {
+            this(priority, enqueuedAt, new CompletableFuture<>());
+        }
+    }
+
+    private static final class Lane {
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,93 @@
+package fr.mrqsdf.vastai4j.client;
+
+/**
+ * Pluggable cache of decoded read responses consulted by {@link VastAIClient} before any GET.
+ * <p>
+ * A {@link #get(RequestKey) hit} returns the decoded object directly; a stale hit is still returned but the
+ * client refreshes the entry in the background (stale-while-revalidate). Every write sent through the client
+ * {@link #invalidate(String) invalidates} its own path and the paths declared with
+ * {@link fr.mrqsdf.vastai4j.http.VastAIRequest.Builder#invalidates(String...)}.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe. Cached models are shared between callers and must be treated as
+ * read-only. See {@link LruResponseCache} for the bundled implementation.
+ * </p>
+ */
+public interface ResponseCache {
+
+    /**
+     * Cache that stores nothing (default of {@link VastAIClient}).
+     * @return the disabled cache.
+     */
+    static ResponseCache none() {
+        return NoResponseCache.INSTANCE;
+    }
+
+    /**
+     * @param key the identity of the read.
+     * @return true if responses of this read may be cached.
+     */
+    boolean isCacheable(RequestKey key);
+
+    /**
+     * Look up a cached response.
+     * @param key the identity of the read.
+     * @return the cached entry, or null on a miss (expired entries are misses).
+     */
+    Entry get(RequestKey key);
+
+    /**
+     * Store a decoded response, unless an invalidation happened since {@code generation} was read: the
+     * response may predate the write that caused it.
+     * @param key the identity of the read.
+     * @param value the decoded response.
+     * @param generation the value of {@link #generation()} read before the request was sent.
+     */
+    void put(RequestKey key, Object value, long generation);
+
+    /**
+     * Drop every entry whose path starts with {@code pathPrefix}.
+     * @param pathPrefix the path, or path prefix, written to (e.g. {@code /instances/}).
+     */
+    void invalidate(String pathPrefix);
+
+    /**
+     * @return a counter incremented by every invalidation.
+     */
+    long generation();
+
+    /**
+     * @return a snapshot of the cache metrics.
+     */
+    CacheStats stats();
+
+    /**
+     * Cached response.
+     *
+     * @param value the decoded response.
+     * @param fresh false if the entry is past its TTL but within its stale-while-revalidate window.
+     */
+    record Entry(Object value, boolean fresh) {
+    }
+
+    /**
+     * Snapshot of the activity of a cache.
+     *
+     * @param hits          lookups answered with a fresh entry.
+     * @param staleHits     lookups answered with a stale entry (each one triggering a background refresh).
+     * @param misses        lookups that went to the network.
+     * @param evictions     entries dropped to respect the size bound.
+     * @param invalidations entries dropped because of a write.
+     * @param size          the current number of entries.
+     */
+    record CacheStats(long hits, long staleHits, long misses, long evictions, long invalidations, int size) {
+
+        /**
+         * @return the share of lookups served without waiting for the network, between 0 and 1.
+         */
+        public double hitRatio() {
+            long total = hits + staleHits + misses;
+            return total == 0 ? 0 : (double) (hits + staleHits) / total;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package fr.mrqsdf.vastai4j.client;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Decoder of a whole response document, for callers that consume the body as it is read instead of
+ * building a model (e.g. streaming offers into a merge). Runs on the thread completing the response and
+ * must not keep the reader.
+ *
+ * @param <T> the decoded type.
+ */
+@FunctionalInterface
+public interface ResponseReader<T> {
+
+    /**
+     * Decode the document.
+     * @param reader the reader positioned at the start of a non-empty document.
+     * @return the decoded value.
+     * @throws IOException if the payload cannot be read.
+     */
+    T read(JsonReader reader) throws IOException;
+}
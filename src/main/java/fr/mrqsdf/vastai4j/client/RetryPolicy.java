@@ -0,0 +1,253 @@
+package fr.mrqsdf.vastai4j.client;
+
+import fr.mrqsdf.vastai4j.http.VastAIException;
+import fr.mrqsdf.vastai4j.http.VastAIHttpException;
+import fr.mrqsdf.vastai4j.http.VastAIRequest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable retry policy applied by {@link VastAIClient} to every attempt of a request.
+ * <p>
+ * Failures are classified before being retried:
+ * </p>
+ * <ul>
+ *     <li>{@code 429 Too Many Requests} and connection failures never reached the server, so they are
+ *     retried for any request;</li>
+ *     <li>the transient statuses ({@code 408}, {@code 500}, {@code 502}, {@code 503}, {@code 504} by default)
+ *     and I/O errors raised once the request may have been sent are only retried for idempotent requests
+ *     (see {@link VastAIRequest#isIdempotent()});</li>
+ *     <li>any other status (e.g. {@code 400}, {@code 401}, {@code 404}) is permanent.</li>
+ * </ul>
+ * <p>
+ * The delay before attempt {@code n + 1} honors the server's {@code Retry-After} hint when present (capped
+ * by {@link Builder#maxRetryAfter}); otherwise it follows an exponential curve
+ * {@code min(maxBackoff, initialBackoff * multiplier^(n - 1))} with full jitter, i.e. a uniformly random
+ * delay between zero and that bound, so workers hitting the same 429/5xx storm spread their retries out.
+ * </p>
+ */
+public final class RetryPolicy {
+
+    private static final Set<Integer> DEFAULT_RETRYABLE_STATUSES = Set.of(408, 500, 502, 503, 504);
+    private static final RetryPolicy NONE = builder().maxAttempts(1).build();
+    private static final RetryPolicy DEFAULTS = builder().build();
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final boolean jitter;
+    private final boolean respectRetryAfter;
+    private final Duration maxRetryAfter;
+    private final Set<Integer> retryableStatuses;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.respectRetryAfter = builder.respectRetryAfter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.retryableStatuses = Set.copyOf(builder.retryableStatuses);
+    }
+
+    /**
+     * Default policy: 3 attempts, 500 ms initial backoff doubling up to 30 s, full jitter, and
+     * {@code Retry-After} honored up to 60 s.
+     * @return the default policy.
+     */
+    public static RetryPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Policy that never retries: every failure is thrown after the first attempt.
+     * @return the no-retry policy.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a new builder initialized with the default settings.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the maximum number of attempts, including the first one.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Compute the delay before the next attempt, or {@code null} if the failure must be propagated.
+     * @param request the request that failed.
+     * @param failure the failure of the attempt.
+     * @param attempt the number of the attempt that failed, starting at 1.
+     * @return the delay to wait before retrying, or null to give up.
+     */
+    public Duration retryDelay(VastAIRequest request, Throwable failure, int attempt) {
+        if (attempt >= maxAttempts || !isRetryable(request, failure)) {
+            return null;
+        }
+        if (respectRetryAfter && failure instanceof VastAIHttpException http) {
+            Duration hinted = http.getRetryAfter().orElse(null);
+            if (hinted != null) {
+                return hinted.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : hinted;
+            }
+        }
+        return backoff(attempt);
+    }
+
+    /**
+     * Classify a failure as retryable for the given request, ignoring the attempt budget.
+     * @param request the request that failed.
+     * @param failure the failure of the attempt.
+     * @return true if sending the request again is safe and may succeed.
+     */
+    public boolean isRetryable(VastAIRequest request, Throwable failure) {
+        if (failure instanceof VastAIHttpException http) {
+            int status = http.getStatusCode();
+            if (status == 429) return true;
+            return retryableStatuses.contains(status) && request.isIdempotent();
+        }
+        if (failure instanceof VastAIException && failure.getCause() instanceof IOException io) {
+            if (io instanceof ConnectException || io instanceof HttpConnectTimeoutException) return true;
+            return request.isIdempotent();
+        }
+        return false;
+    }
+
+    private Duration backoff(int attempt) {
+        double bound = initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1);
+        long capped = (long) Math.min(maxBackoff.toMillis(), bound);
+        if (!jitter || capped <= 0) {
+            return Duration.ofMillis(capped);
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped + 1));
+    }
+
+    /**
+     * Builder class for constructing RetryPolicy instances.
+     */
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private double multiplier = 2.0;
+        private boolean jitter = true;
+        private boolean respectRetryAfter = true;
+        private Duration maxRetryAfter = Duration.ofSeconds(60);
+        private Set<Integer> retryableStatuses = DEFAULT_RETRYABLE_STATUSES;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first one (1 disables retries).
+         * @param maxAttempts the attempt budget
+         * @return the builder instance
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the delay before the first retry.
+         * @param initialBackoff the initial backoff
+         * @return the builder instance
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = requireNonNegative(initialBackoff, "initialBackoff");
+            return this;
+        }
+
+        /**
+         * Sets the ceiling of the exponential backoff curve.
+         * @param maxBackoff the maximum backoff
+         * @return the builder instance
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = requireNonNegative(maxBackoff, "maxBackoff");
+            return this;
+        }
+
+        /**
+         * Sets the growth factor of the backoff between consecutive attempts.
+         * @param multiplier the multiplier (at least 1)
+         * @return the builder instance
+         */
+        public Builder multiplier(double multiplier) {
+            if (multiplier < 1.0) throw new IllegalArgumentException("multiplier must be >= 1");
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Enables or disables full jitter on the computed backoff.
+         * @param jitter true to draw the delay uniformly between zero and the backoff bound
+         * @return the builder instance
+         */
+        public Builder jitter(boolean jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Enables or disables the use of the server's {@code Retry-After} header as the retry delay.
+         * @param respectRetryAfter true to honor {@code Retry-After}
+         * @return the builder instance
+         */
+        public Builder respectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+            return this;
+        }
+
+        /**
+         * Caps the delay accepted from a {@code Retry-After} header.
+         * @param maxRetryAfter the longest delay honored
+         * @return the builder instance
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = requireNonNegative(maxRetryAfter, "maxRetryAfter");
+            return this;
+        }
+
+        /**
+         * Replaces the HTTP statuses retried for idempotent requests ({@code 429} is always retried).
+         * @param statuses the transient statuses
+         * @return the builder instance
+         */
+        public Builder retryableStatuses(Set<Integer> statuses) {
+            this.retryableStatuses = Set.copyOf(Objects.requireNonNull(statuses, "statuses"));
+            return this;
+        }
+
+        /**
+         * Builds the RetryPolicy instance.
+         * @return the constructed RetryPolicy
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+
+        private static Duration requireNonNegative(Duration d, String name) {
+            Objects.requireNonNull(d, name);
+            if (d.isNegative()) throw new IllegalArgumentException(name + " must not be negative");
+            return d;
+        }
+    }
+}
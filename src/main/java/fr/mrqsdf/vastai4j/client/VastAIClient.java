@@ -3,13 +3,17 @@ package fr.mrqsdf.vastai4j.client;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import fr.mrqsdf.vastai4j.auth.ApiRights;
 import fr.mrqsdf.vastai4j.auth.EndpointMethods;
 import fr.mrqsdf.vastai4j.gson.ApiRightsAdapter;
 import fr.mrqsdf.vastai4j.gson.EndpointMethodsAdapter;
+import fr.mrqsdf.vastai4j.gson.ModelAdapterFactory;
 import fr.mrqsdf.vastai4j.http.HttpMethod;
 import fr.mrqsdf.vastai4j.http.VastAIException;
+import fr.mrqsdf.vastai4j.http.VastAIHttpException;
 import fr.mrqsdf.vastai4j.http.VastAIRequest;
 import fr.mrqsdf.vastai4j.http.VastAIResponse;
 
@@ -23,12 +27,23 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Core HTTP client for the Vast.ai REST API.
+ * <p>
+ * Every request goes through the client's {@link RetryPolicy}: transient failures are retried with
+ * backoff, and the timing of each attempt is published to the registered {@link AttemptListener}s.
+ * Use {@link #builder(String)} to customize these settings.
+ * </p>
  */
 public class VastAIClient {
 
@@ -39,6 +54,12 @@ public class VastAIClient {
     private final Gson gson;
     private final String apiKey;
     private final URI baseUri;
+    private final RetryPolicy retryPolicy;
+    private final RateLimiter rateLimiter;
+    private final RequestScheduler scheduler;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache responseCache;
+    private final List<AttemptListener> attemptListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Create a new Vast.ai API client with the given API key and default settings.
@@ -65,11 +86,33 @@ public class VastAIClient {
      * @param gson the Gson instance to use for JSON serialization/deserialization.
      */
     public VastAIClient(String apiKey, String baseUrl, HttpClient httpClient, Gson gson) {
-        this.apiKey = Objects.requireNonNull(apiKey, "apiKey");
-        this.baseUri = normalizeBaseUri(Objects.requireNonNull(baseUrl, "baseUrl"));
+        this(builder(apiKey).baseUrl(baseUrl).httpClient(httpClient).gson(gson));
+    }
+
+    /**
+     * Private constructor used by the builder.
+     * @param builder the builder instance
+     */
+    private VastAIClient(Builder builder) {
+        this.apiKey = builder.apiKey;
+        this.baseUri = normalizeBaseUri(builder.baseUrl);
 
-        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
-        this.gson = Objects.requireNonNull(gson, "gson");
+        this.httpClient = builder.httpClient != null ? builder.httpClient : defaultHttpClient();
+        this.gson = builder.gson != null ? builder.gson : defaultGson();
+        this.retryPolicy = builder.retryPolicy;
+        this.rateLimiter = builder.rateLimiter;
+        this.scheduler = builder.scheduler != null ? builder.scheduler : RequestScheduler.unlimited();
+        this.coalescer = builder.coalesceGets ? RequestCoalescer.enabled() : RequestCoalescer.disabled();
+        this.responseCache = builder.responseCache;
+    }
+
+    /**
+     * Creates a new builder for a client authenticated with the given API key.
+     * @param apiKey the API key to use for authentication.
+     * @return a new Builder instance
+     */
+    public static Builder builder(String apiKey) {
+        return new Builder(apiKey);
     }
 
     /**
@@ -96,13 +139,15 @@ public class VastAIClient {
     }
 
     /**
-     * Create a default Gson instance with custom adapters for Vast.ai API models.
+     * Create a default Gson instance with custom adapters for Vast.ai API models, including the
+     * reflection-free streaming adapters of the hot models ({@link ModelAdapterFactory}).
      * @return the default Gson instance.
      */
     public static Gson defaultGson() {
         return new GsonBuilder()
                 .registerTypeAdapter(ApiRights.class, new ApiRightsAdapter())
                 .registerTypeAdapter(EndpointMethods.class, new EndpointMethodsAdapter())
+                .registerTypeAdapterFactory(new ModelAdapterFactory())
                 .serializeNulls()
                 .create();
     }
@@ -115,6 +160,62 @@ public class VastAIClient {
         return gson;
     }
 
+    /**
+     * Get the retry policy applied to every request.
+     * @return the retry policy.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Get the rate limiter applied before every attempt.
+     * @return the rate limiter, exposing per-family wait metrics through {@link RateLimiter#stats()}.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Get the scheduler admitting requests by priority.
+     * @return the scheduler, exposing per-lane queue metrics through {@link RequestScheduler#stats()}.
+     */
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get the single-flight coalescer sharing identical in-flight GETs.
+     * @return the coalescer, exposing the number of saved calls through {@link RequestCoalescer#getSavedCalls()}.
+     */
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Get the cache consulted before every read.
+     * @return the response cache, exposing hit/miss metrics through {@link ResponseCache#stats()}.
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Register a listener notified after every attempt of every request.
+     * @param listener the listener to add.
+     */
+    public void addAttemptListener(AttemptListener listener) {
+        attemptListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Unregister a listener previously added with {@link #addAttemptListener(AttemptListener)}.
+     * @param listener the listener to remove.
+     */
+    public void removeAttemptListener(AttemptListener listener) {
+        attemptListeners.remove(listener);
+    }
+
     /**
      * Get the API key used by this client.
      * @return the API key.
@@ -141,18 +242,32 @@ public class VastAIClient {
      * @param <T> the type of the response.
      * @return the parsed response.
      */
-    @SuppressWarnings("unchecked")
     public <T> T execute(VastAIRequest request, Type responseType) {
-        HttpResponse<String> httpResponse = send(request);
-        if (responseType == null) {
-            return null;
-        }
-        if (responseType == String.class) {
-            return (T) httpResponse.body();
-        }
-        String body = httpResponse.body();
-        //System.out.println("DEBUG: Vast.ai response for " + request.getPath() + ": " + body);
-        return gson.fromJson(body, responseType);
+        return read(request, responseType, new JsonBodyHandler<T>(gson, responseType));
+    }
+
+    /**
+     * Execute a Vast.ai API request and decode the response with an explicit adapter, for payloads whose
+     * shape is only known once the body is read (see {@link fr.mrqsdf.vastai4j.gson.JsonEnvelopes}).
+     * @param request the Vast.ai request to execute.
+     * @param adapter the adapter reading the whole response document.
+     * @param <T> the type of the response.
+     * @return the decoded response, or null for an empty body.
+     */
+    public <T> T execute(VastAIRequest request, TypeAdapter<T> adapter) {
+        return read(request, adapter, JsonBodyHandler.ofReader(gson, adapter::read));
+    }
+
+    /**
+     * Execute a Vast.ai API request and decode the response with a reader callback, for callers that consume
+     * the document as it is read rather than building a model.
+     * @param request the Vast.ai request to execute.
+     * @param decoder the decoder reading the whole response document.
+     * @param <T> the type of the response.
+     * @return the decoded response, or null for an empty body.
+     */
+    public <T> T execute(VastAIRequest request, ResponseReader<T> decoder) {
+        return read(request, decoder, JsonBodyHandler.ofReader(gson, decoder));
     }
 
     /**
@@ -161,8 +276,7 @@ public class VastAIClient {
      * @return the parsed response as a JsonElement.
      */
     public JsonElement executeJson(VastAIRequest request) {
-        HttpResponse<String> httpResponse = send(request);
-        return gson.fromJson(httpResponse.body(), JsonElement.class);
+        return execute(request, JsonElement.class);
     }
 
     /**
@@ -174,24 +288,355 @@ public class VastAIClient {
      * @return the parsed VastAIResponse.
      */
     public <T> VastAIResponse<T> executeWrapped(VastAIRequest request, TypeToken<VastAIResponse<T>> typeToken) {
-        HttpResponse<String> httpResponse = send(request);
-        VastAIResponse<T> response = gson.fromJson(httpResponse.body(), typeToken.getType());
+        return checkSuccess(execute(request, typeToken.getType()));
+    }
+
+    /**
+     * Execute a Vast.ai API request and expose the response body as a {@link JsonReader} positioned at the
+     * start of the document, for callers that decode large payloads element by element.
+     * The caller must close the reader, which releases the connection even if the body was not fully read.
+     * @param request the Vast.ai request to execute.
+     * @return the open JSON reader over the response body.
+     */
+    public JsonReader openJsonReader(VastAIRequest request) {
+        return call(request, JsonBodyHandler.ofJsonReader(gson));
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and parse the response into the specified type.
+     * The returned future completes exceptionally with a {@link VastAIException} when the call fails.
+     * @param request the Vast.ai request to execute.
+     * @param responseType the class of the response type.
+     * @param <T> the type of the response.
+     * @return a future completed with the parsed response.
+     */
+    public <T> CompletableFuture<T> executeAsync(VastAIRequest request, Class<T> responseType) {
+        return executeAsync(request, (Type) responseType);
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and parse the response into the specified type.
+     * The returned future completes exceptionally with a {@link VastAIException} when the call fails.
+     * @param request the Vast.ai request to execute.
+     * @param responseType the type of the response (can be a generic type).
+     * @param <T> the type of the response.
+     * @return a future completed with the parsed response.
+     */
+    public <T> CompletableFuture<T> executeAsync(VastAIRequest request, Type responseType) {
+        return readAsync(request, responseType, new JsonBodyHandler<T>(gson, responseType));
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and decode the response with an explicit adapter.
+     * @param request the Vast.ai request to execute.
+     * @param adapter the adapter reading the whole response document.
+     * @param <T> the type of the response.
+     * @return a future completed with the decoded response, or null for an empty body.
+     */
+    public <T> CompletableFuture<T> executeAsync(VastAIRequest request, TypeAdapter<T> adapter) {
+        return readAsync(request, adapter, JsonBodyHandler.ofReader(gson, adapter::read));
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and decode the response with a reader callback.
+     * @param request the Vast.ai request to execute.
+     * @param decoder the decoder reading the whole response document.
+     * @param <T> the type of the response.
+     * @return a future completed with the decoded response, or null for an empty body.
+     */
+    public <T> CompletableFuture<T> executeAsync(VastAIRequest request, ResponseReader<T> decoder) {
+        return readAsync(request, decoder, JsonBodyHandler.ofReader(gson, decoder));
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and parse the response into a JsonElement.
+     * @param request the Vast.ai request to execute.
+     * @return a future completed with the parsed response as a JsonElement.
+     */
+    public CompletableFuture<JsonElement> executeJsonAsync(VastAIRequest request) {
+        return executeAsync(request, JsonElement.class);
+    }
+
+    /**
+     * Asynchronously execute a Vast.ai API request and parse the response into a VastAIResponse.
+     * The future completes exceptionally when the "success" field of the response is false.
+     * @param request the Vast.ai request to execute.
+     * @param typeToken the type token of the response type.
+     * @param <T> the type of the response data.
+     * @return a future completed with the parsed VastAIResponse.
+     */
+    public <T> CompletableFuture<VastAIResponse<T>> executeWrappedAsync(VastAIRequest request, TypeToken<VastAIResponse<T>> typeToken) {
+        return this.<VastAIResponse<T>>executeAsync(request, typeToken.getType()).thenApply(VastAIClient::checkSuccess);
+    }
+
+    private static <T> VastAIResponse<T> checkSuccess(VastAIResponse<T> response) {
         if (!response.isSuccess()) {
             throw new VastAIException(Optional.ofNullable(response.getError()).orElse("Unknown Vast.ai API error"));
         }
         return response;
     }
 
-    private HttpResponse<String> send(VastAIRequest request) {
+    /**
+     * Serve a request from the response cache when possible, otherwise through the coalescer; writes
+     * invalidate the cache once sent.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T read(VastAIRequest request, Object decoder, JsonBodyHandler<T> bodyHandler) {
+        Objects.requireNonNull(request, "request");
+        RequestKey key = readKey(request, decoder);
+        if (key == null) {
+            try {
+                return call(request, bodyHandler);
+            } finally {
+                invalidateAfterWrite(request);
+            }
+        }
+        if (!responseCache.isCacheable(key)) {
+            return coalescer.join(key, request.getPriority(), () -> call(request, bodyHandler));
+        }
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry != null) {
+            if (!entry.fresh()) revalidate(key, request, bodyHandler);
+            return (T) entry.value();
+        }
+        return coalescer.join(key, request.getPriority(), () -> {
+            long generation = responseCache.generation();
+            T value = call(request, bodyHandler);
+            responseCache.put(key, value, generation);
+            return value;
+        });
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #read}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> readAsync(VastAIRequest request, Object decoder, JsonBodyHandler<T> bodyHandler) {
+        Objects.requireNonNull(request, "request");
+        RequestKey key = readKey(request, decoder);
+        if (key == null) {
+            return callAsync(request, bodyHandler).whenComplete((value, error) -> invalidateAfterWrite(request));
+        }
+        if (!responseCache.isCacheable(key)) {
+            return coalescer.joinAsync(key, request.getPriority(), () -> callAsync(request, bodyHandler));
+        }
+        ResponseCache.Entry entry = responseCache.get(key);
+        if (entry != null) {
+            if (!entry.fresh()) revalidate(key, request, bodyHandler);
+            return CompletableFuture.completedFuture((T) entry.value());
+        }
+        return fetchAndStore(key, request, bodyHandler);
+    }
+
+    /**
+     * Refresh a stale entry in the background; concurrent refreshes of the same key are coalesced.
+     */
+    private <T> void revalidate(RequestKey key, VastAIRequest request, JsonBodyHandler<T> bodyHandler) {
+        fetchAndStore(key, request, bodyHandler); // failures keep the stale entry until it expires
+    }
+
+    private <T> CompletableFuture<T> fetchAndStore(RequestKey key, VastAIRequest request, JsonBodyHandler<T> bodyHandler) {
+        return coalescer.joinAsync(key, request.getPriority(), () -> {
+            long generation = responseCache.generation();
+            CompletableFuture<T> call = callAsync(request, bodyHandler);
+            CompletableFuture<T> stored = call.thenApply(value -> {
+                responseCache.put(key, value, generation);
+                return value;
+            });
+            stored.whenComplete((value, error) -> {
+                if (!call.isDone()) call.cancel(false); // abandoned by every caller
+            });
+            return stored;
+        });
+    }
+
+    private void invalidateAfterWrite(VastAIRequest request) {
+        if (request.getMethod() == HttpMethod.GET) {
+            return;
+        }
+        // in-flight reads may predate the write: later reads must not join them
+        responseCache.invalidate(request.getPath());
+        coalescer.invalidate(request.getPath());
+        for (String prefix : request.getInvalidates()) {
+            responseCache.invalidate(prefix);
+            coalescer.invalidate(prefix);
+        }
+    }
+
+    /**
+     * Run a request through the retry policy, blocking the calling thread.
+     */
+    private <T> T call(VastAIRequest request, JsonBodyHandler<T> bodyHandler) {
+        Objects.requireNonNull(request, "request");
+        for (int attempt = 1; ; attempt++) {
+            Duration delay;
+            // rate token first: waiting for the rate budget must not hold a scheduler slot
+            acquirePermit(request);
+            admit(request);
+            try {
+                long start = System.nanoTime();
+                int status = -1;
+                try {
+                    HttpResponse<Supplier<T>> response = send(request, bodyHandler);
+                    status = response.statusCode();
+                    T value = response.body().get();
+                    publishAttempt(request, attempt, start, status, null, null);
+                    return value;
+                } catch (VastAIException e) {
+                    delay = retryPolicy.retryDelay(request, e, attempt);
+                    publishAttempt(request, attempt, start, status, e, delay);
+                    if (delay == null) {
+                        throw e;
+                    }
+                }
+            } finally {
+                scheduler.release();
+            }
+            sleep(delay);
+        }
+    }
+
+    /**
+     * Run a request through the retry policy without blocking: retries are scheduled after their delay.
+     * Completing the returned future early (cancellation, {@code orTimeout}) withdraws a queued attempt and
+     * aborts the exchange in flight, releasing its scheduler slot.
+     */
+    private <T> CompletableFuture<T> callAsync(VastAIRequest request, JsonBodyHandler<T> bodyHandler) {
+        Objects.requireNonNull(request, "request");
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(request, bodyHandler, 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(VastAIRequest request, JsonBodyHandler<T> bodyHandler, int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return; // cancelled by the caller
+        }
+        // rate token first: waiting for the rate budget must not hold a scheduler slot
+        CompletableFuture<Void> permit = rateLimiter.acquireAsync(request);
+        result.whenComplete((value, error) -> permit.cancel(false)); // withdraw from the rate lane if still queued
+        permit.whenComplete((ignored, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error)); // no-op when cancelled through result
+                return;
+            }
+            admitAsync(request, bodyHandler, attempt, result);
+        });
+    }
+
+    private <T> void admitAsync(VastAIRequest request, JsonBodyHandler<T> bodyHandler, int attempt, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<Void> admission = scheduler.acquireAsync(request.getPriority());
+        result.whenComplete((value, error) -> admission.cancel(false)); // withdraw from the lane if still queued
+        admission
+                .thenRun(() -> {
+                    if (result.isDone()) {
+                        scheduler.release();
+                        return;
+                    }
+                    sendAttemptAsync(request, bodyHandler, attempt, result);
+                })
+                .whenComplete((ignored, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    // sendAttemptAsync never throws: the attempt failed before being sent
+                    if (!admission.isCompletedExceptionally()) {
+                        scheduler.release();
+                    }
+                    result.completeExceptionally(unwrap(error));
+                });
+    }
+
+    private <T> void sendAttemptAsync(VastAIRequest request, JsonBodyHandler<T> bodyHandler, int attempt, CompletableFuture<T> result) {
+        long start = System.nanoTime();
+        // The body is buffered by the HttpClient, so decoding it never blocks the completing thread.
+        CompletableFuture<HttpResponse<Supplier<T>>> exchange = sendAsync(request, bodyHandler.buffered());
+        result.whenComplete((value, error) -> exchange.cancel(true)); // no-op once the exchange is over
+        exchange
+                .thenApply(response -> {
+                    T value = response.body().get();
+                    publishAttempt(request, attempt, start, response.statusCode(), null, null);
+                    return value;
+                })
+                .whenComplete((value, error) -> {
+                    scheduler.release();
+                    if (result.isDone()) {
+                        return; // cancelled or timed out by the caller
+                    }
+                    if (error == null) {
+                        result.complete(value);
+                        return;
+                    }
+                    Throwable failure = exchange.isCompletedExceptionally() ? toVastAIException(error) : unwrap(error);
+                    Duration delay = retryPolicy.retryDelay(request, failure, attempt);
+                    if (failure instanceof VastAIException) {
+                        int status = failure instanceof VastAIHttpException http ? http.getStatusCode() : -1;
+                        publishAttempt(request, attempt, start, status, failure, delay);
+                    }
+                    if (delay == null) {
+                        result.completeExceptionally(failure);
+                        return;
+                    }
+                    CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS)
+                            .execute(() -> attemptAsync(request, bodyHandler, attempt + 1, result));
+                });
+    }
+
+    private void publishAttempt(VastAIRequest request, int attempt, long startNanos, int status, Throwable failure, Duration retryDelay) {
+        if (attemptListeners.isEmpty()) {
+            return;
+        }
+        RequestAttempt event = new RequestAttempt(request.getMethod(), request.getPath(), attempt,
+                Duration.ofNanos(System.nanoTime() - startNanos), status, failure, retryDelay);
+        for (AttemptListener listener : attemptListeners) {
+            try {
+                listener.onAttempt(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void admit(VastAIRequest request) {
+        try {
+            scheduler.acquire(request.getPriority());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VastAIException("Vast.ai request interrupted", e);
+        }
+    }
+
+    private void acquirePermit(VastAIRequest request) {
+        try {
+            rateLimiter.acquire(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VastAIException("Vast.ai request interrupted", e);
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VastAIException("Vast.ai request interrupted", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private <T> HttpResponse<T> send(VastAIRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
         Objects.requireNonNull(request, "request");
         HttpRequest httpRequest = buildHttpRequest(request);
         try {
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
             //System.err.println("[VastAI] " + request.getMethod() + " " + buildHttpRequest(request).uri());
-            if (response.statusCode() >= 400) {
-                throw new VastAIException("HTTP " + response.statusCode() + " - " + response.body());
-            }
-            return response;
+            return httpClient.send(httpRequest, bodyHandler);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new VastAIException("Vast.ai request interrupted", e);
@@ -200,12 +645,51 @@ public class VastAIClient {
         }
     }
 
-    private HttpRequest buildHttpRequest(VastAIRequest request) {
+    /**
+     * Start the exchange and return the HttpClient's own future, so that cancelling it aborts the exchange;
+     * failures are mapped by the caller with {@link #toVastAIException}.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(VastAIRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        Objects.requireNonNull(request, "request");
+        try {
+            return httpClient.sendAsync(buildHttpRequest(request), bodyHandler);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Map a failure reported by {@link HttpClient#sendAsync} to the exception thrown by the blocking path.
+     */
+    private static RuntimeException toVastAIException(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof VastAIException vastAIException) {
+            return vastAIException;
+        }
+        return new VastAIException("Failed to execute Vast.ai request", cause);
+    }
+
+    /**
+     * Identity of a shareable read: GETs without a body that decode into the same type.
+     * @return the key, or null if the request must always reach the network.
+     */
+    private RequestKey readKey(VastAIRequest request, Object decoder) {
+        if (request.getMethod() != HttpMethod.GET || request.getBody() != null) {
+            return null;
+        }
+        return new RequestKey(request.getMethod(), request.getPath(), resolveUri(request), request.getHeaders(), decoder);
+    }
+
+    private URI resolveUri(VastAIRequest request) {
         String resolvedPath = resolvePath(request.getPath());
         Map<String, String> queryParams = new LinkedHashMap<>(request.getQueryParams());
 
         String query = buildQueryString(queryParams);
-        URI uri = baseUri.resolve(resolvedPath + query);
+        return baseUri.resolve(resolvedPath + query);
+    }
+
+    private HttpRequest buildHttpRequest(VastAIRequest request) {
+        URI uri = resolveUri(request);
 
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .header("Authorization", "Bearer " + apiKey)
@@ -270,4 +754,122 @@ public class VastAIClient {
         }
         return path.startsWith("/") ? path.substring(1) : path;
     }
+
+    /**
+     * Builder class for constructing VastAIClient instances.
+     */
+    public static final class Builder {
+        private final String apiKey;
+        private String baseUrl = DEFAULT_BASE_URL;
+        private HttpClient httpClient;
+        private Gson gson;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private RateLimiter rateLimiter = RateLimiter.unlimited();
+        private RequestScheduler scheduler;
+        private boolean coalesceGets = true;
+        private ResponseCache responseCache = ResponseCache.none();
+
+        private Builder(String apiKey) {
+            this.apiKey = Objects.requireNonNull(apiKey, "apiKey");
+        }
+
+        /**
+         * Sets the base URL of the Vast.ai API.
+         * @param baseUrl the base URL (e.g. {@code https://console.vast.ai/api/v0})
+         * @return the builder instance
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = Objects.requireNonNull(baseUrl, "baseUrl");
+            return this;
+        }
+
+        /**
+         * Sets the HTTP client used for requests (defaults to {@link #defaultHttpClient()}).
+         * @param httpClient the HTTP client
+         * @return the builder instance
+         */
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+            return this;
+        }
+
+        /**
+         * Sets the Gson instance used for JSON serialization (defaults to {@link #defaultGson()}).
+         * @param gson the Gson instance
+         * @return the builder instance
+         */
+        public Builder gson(Gson gson) {
+            this.gson = Objects.requireNonNull(gson, "gson");
+            return this;
+        }
+
+        /**
+         * Sets the retry policy (defaults to {@link RetryPolicy#defaults()}).
+         * @param retryPolicy the retry policy, {@link RetryPolicy#none()} to disable retries
+         * @return the builder instance
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+            return this;
+        }
+
+        /**
+         * Sets the client-side rate limiter (defaults to {@link RateLimiter#unlimited()}).
+         * Share one limiter between clients using the same API key.
+         * @param rateLimiter the rate limiter
+         * @return the builder instance
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = Objects.requireNonNull(rateLimiter, "rateLimiter");
+            return this;
+        }
+
+        /**
+         * Sets the scheduler bounding concurrent attempts and admitting queued ones by
+         * {@link fr.mrqsdf.vastai4j.http.RequestPriority} (defaults to {@link RequestScheduler#unlimited()}).
+         * @param scheduler the scheduler
+         * @return the builder instance
+         */
+        public Builder scheduler(RequestScheduler scheduler) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            return this;
+        }
+
+        /**
+         * Shortcut for {@code scheduler(RequestScheduler.withMaxInFlight(maxInFlight))}.
+         * @param maxInFlight the maximum number of attempts in flight
+         * @return the builder instance
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            return scheduler(RequestScheduler.withMaxInFlight(maxInFlight));
+        }
+
+        /**
+         * Enables or disables the sharing of identical in-flight GETs (enabled by default).
+         * @param coalesceGets true to send a single request for concurrent identical GETs
+         * @return the builder instance
+         */
+        public Builder coalesceGets(boolean coalesceGets) {
+            this.coalesceGets = coalesceGets;
+            return this;
+        }
+
+        /**
+         * Sets the cache consulted before every read (defaults to {@link ResponseCache#none()}).
+         * @param responseCache the response cache, e.g. a {@link LruResponseCache}
+         * @return the builder instance
+         */
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = Objects.requireNonNull(responseCache, "responseCache");
+            return this;
+        }
+
+        /**
+         * Builds the VastAIClient instance.
+         * @return the constructed VastAIClient
+         */
+        public VastAIClient build() {
+            return new VastAIClient(this);
+        }
+    }
 }
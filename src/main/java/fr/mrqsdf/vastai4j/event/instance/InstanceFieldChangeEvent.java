@@ -0,0 +1,37 @@
+package fr.mrqsdf.vastai4j.event.instance;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.monitor.InstanceField;
+import fr.mrqsdf.vastai4j.monitor.InstanceMonitor;
+
+/**
+ * Déclenché quand un champ suivi change (au-delà de son seuil pour un champ numérique). La valeur précédente
+ * est celle du dernier event émis pour ce champ, pas forcément celle du relevé précédent.
+ */
+public final class InstanceFieldChangeEvent extends AbstractEvent {
+    private final long instanceId;
+    private final InstanceField field;
+    private final Object previous;
+    private final Object current;
+    private final InstanceMonitor monitor;
+
+    public InstanceFieldChangeEvent(long instanceId, InstanceField field, Object previous, Object current, InstanceMonitor monitor) {
+        this.instanceId = instanceId;
+        this.field = field;
+        this.previous = previous;
+        this.current = current;
+        this.monitor = monitor;
+    }
+
+    public long instanceId() { return instanceId; }
+    public InstanceField field() { return field; }
+    /** Valeur précédente (Number, String ou Map), null si absente. */
+    public Object previous() { return previous; }
+    /** Nouvelle valeur (Number, String ou Map), null si absente. */
+    public Object current() { return current; }
+    /** Valeur précédente d’un champ numérique, NaN si absente. */
+    public double previousNumber() { return previous instanceof Number n ? n.doubleValue() : Double.NaN; }
+    /** Nouvelle valeur d’un champ numérique, NaN si absente. */
+    public double currentNumber() { return current instanceof Number n ? n.doubleValue() : Double.NaN; }
+    public InstanceMonitor monitor() { return monitor; }
+}
@@ -0,0 +1,20 @@
+package fr.mrqsdf.vastai4j.event.offer;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.monitor.OfferMarketWatcher;
+
+/** Déclenché quand une offre entre dans le résultat de la recherche surveillée (y compris au premier relevé). */
+public final class OfferAppearedEvent extends AbstractEvent {
+    private final Offer offer;
+    private final OfferMarketWatcher watcher;
+
+    public OfferAppearedEvent(Offer offer, OfferMarketWatcher watcher) {
+        this.offer = offer;
+        this.watcher = watcher;
+    }
+
+    public long offerId() { return offer.id(); }
+    public Offer offer() { return offer; }
+    public OfferMarketWatcher watcher() { return watcher; }
+}
@@ -0,0 +1,21 @@
+package fr.mrqsdf.vastai4j.event.offer;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.monitor.OfferMarketWatcher;
+
+/** Déclenché quand une offre sort du résultat (louée, retirée, ou ne passe plus les filtres). */
+public final class OfferDisappearedEvent extends AbstractEvent {
+    private final Offer lastSeen;
+    private final OfferMarketWatcher watcher;
+
+    public OfferDisappearedEvent(Offer lastSeen, OfferMarketWatcher watcher) {
+        this.lastSeen = lastSeen;
+        this.watcher = watcher;
+    }
+
+    public long offerId() { return lastSeen.id(); }
+    /** Dernière version connue de l’offre. */
+    public Offer lastSeen() { return lastSeen; }
+    public OfferMarketWatcher watcher() { return watcher; }
+}
@@ -0,0 +1,27 @@
+package fr.mrqsdf.vastai4j.event.offer;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.monitor.OfferMarketWatcher;
+
+/** Déclenché quand le prix d’une offre change (dph_total et/ou min_bid). */
+public final class OfferPriceChangeEvent extends AbstractEvent {
+    private final Offer previous;
+    private final Offer current;
+    private final OfferMarketWatcher watcher;
+
+    public OfferPriceChangeEvent(Offer previous, Offer current, OfferMarketWatcher watcher) {
+        this.previous = previous;
+        this.current = current;
+        this.watcher = watcher;
+    }
+
+    public long offerId() { return current.id(); }
+    public Double previousDphTotal() { return previous.dphTotal(); }
+    public Double newDphTotal() { return current.dphTotal(); }
+    public Double previousMinBid() { return previous.minBidUSD(); }
+    public Double newMinBid() { return current.minBidUSD(); }
+    public Offer previous() { return previous; }
+    public Offer current() { return current; }
+    public OfferMarketWatcher watcher() { return watcher; }
+}
@@ -0,0 +1,25 @@
+package fr.mrqsdf.vastai4j.event.offer;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.monitor.OfferMarketWatcher;
+
+/** Déclenché quand la fiabilité d’une offre change. */
+public final class OfferReliabilityChangeEvent extends AbstractEvent {
+    private final Offer previous;
+    private final Offer current;
+    private final OfferMarketWatcher watcher;
+
+    public OfferReliabilityChangeEvent(Offer previous, Offer current, OfferMarketWatcher watcher) {
+        this.previous = previous;
+        this.current = current;
+        this.watcher = watcher;
+    }
+
+    public long offerId() { return current.id(); }
+    public Double previousReliability() { return previous.reliability(); }
+    public Double newReliability() { return current.reliability(); }
+    public Offer previous() { return previous; }
+    public Offer current() { return current; }
+    public OfferMarketWatcher watcher() { return watcher; }
+}
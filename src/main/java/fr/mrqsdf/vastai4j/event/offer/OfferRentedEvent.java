@@ -0,0 +1,30 @@
+package fr.mrqsdf.vastai4j.event.offer;
+
+import fr.mrqsdf.vastai4j.event.AbstractEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.monitor.OfferSniper;
+
+import java.time.Duration;
+
+/** Déclenché quand l’{@link OfferSniper} a loué une offre (createInstance réussi). */
+public final class OfferRentedEvent extends AbstractEvent {
+    private final Offer offer;
+    private final long instanceId;
+    private final Duration detectToRent;
+    private final OfferSniper sniper;
+
+    public OfferRentedEvent(Offer offer, long instanceId, Duration detectToRent, OfferSniper sniper) {
+        this.offer = offer;
+        this.instanceId = instanceId;
+        this.detectToRent = detectToRent;
+        this.sniper = sniper;
+    }
+
+    public long offerId() { return offer.id(); }
+    public Offer offer() { return offer; }
+    /** Id du contrat créé (new_contract). */
+    public long instanceId() { return instanceId; }
+    /** Délai entre la première apparition de l’offre dans un relevé et la confirmation de la location. */
+    public Duration detectToRent() { return detectToRent; }
+    public OfferSniper sniper() { return sniper; }
+}
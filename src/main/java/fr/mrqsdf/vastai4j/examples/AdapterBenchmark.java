@@ -0,0 +1,222 @@
+package fr.mrqsdf.vastai4j.examples;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import fr.mrqsdf.vastai4j.client.VastAIClient;
+import fr.mrqsdf.vastai4j.model.CurrentUser;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.model.instance.InstanceDetails;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Compare le décodage réflexif de Gson avec les adapters streaming enregistrés par
+ * {@link VastAIClient#defaultGson()} sur des payloads synthétiques (offres, détails d'instance, utilisateur).
+ * <p>
+ * Usage : {@code AdapterBenchmark [nbOffres] [iterations]} (défaut 2000 offres, 200 itérations).
+ * Vérifie aussi que les deux chemins produisent exactement les mêmes records.
+ * </p>
+ */
+public final class AdapterBenchmark {
+
+    public static void main(String[] args) {
+        int offers = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Gson reflective = new GsonBuilder().create();
+        Gson streaming = VastAIClient.defaultGson();
+        Random rnd = new Random(42);
+
+        Type offerList = new TypeToken<List<Offer>>() { }.getType();
+        String offersJson = offersPayload(offers, rnd);
+        String instanceJson = instancePayload(rnd);
+        String userJson = userPayload();
+
+        // Les deux chemins doivent être équivalents avant de comparer les temps.
+        check(reflective.fromJson(offersJson, offerList), streaming.fromJson(offersJson, offerList), "Offer");
+        check(reflective.fromJson(instanceJson, InstanceDetails.class), streaming.fromJson(instanceJson, InstanceDetails.class), "InstanceDetails");
+        check(reflective.fromJson(userJson, CurrentUser.class), streaming.fromJson(userJson, CurrentUser.class), "CurrentUser");
+
+        System.out.printf("%-16s %14s %14s %8s%n", "payload", "reflective", "streaming", "speedup");
+        report("offers x" + offers, iterations,
+                () -> reflective.fromJson(offersJson, offerList),
+                () -> streaming.fromJson(offersJson, offerList));
+        report("instance", iterations * 100,
+                () -> reflective.fromJson(instanceJson, InstanceDetails.class),
+                () -> streaming.fromJson(instanceJson, InstanceDetails.class));
+        report("current user", iterations * 100,
+                () -> reflective.fromJson(userJson, CurrentUser.class),
+                () -> streaming.fromJson(userJson, CurrentUser.class));
+    }
+
+    private static void report(String name, int iterations, Runnable reflective, Runnable streaming) {
+        // Chauffe du JIT sur les deux chemins, puis mesures alternées.
+        for (int warmup = 0; warmup < 3; warmup++) {
+            time(reflective, iterations);
+            time(streaming, iterations);
+        }
+        long r = Long.MAX_VALUE;
+        long s = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            r = Math.min(r, time(reflective, iterations));
+            s = Math.min(s, time(streaming, iterations));
+        }
+        System.out.printf("%-16s %11d ns %11d ns %7.2fx%n", name, r, s, (double) r / s);
+    }
+
+    /** Temps moyen par décodage, en nanosecondes. */
+    private static long time(Runnable task, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) task.run();
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static void check(Object expected, Object actual, String what) {
+        if (!Objects.equals(expected, actual)) {
+            throw new IllegalStateException(what + ": streaming adapter differs from reflective decoding");
+        }
+    }
+
+    private static String offersPayload(int count, Random rnd) {
+        String[] gpus = {"RTX 4090", "RTX 3090", "A100 SXM4", "H100 PCIE", "RTX 3060"};
+        String[] geos = {"US", "FR", "DE", "CA", "JP"};
+        JsonArray arr = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            JsonObject o = new JsonObject();
+            o.addProperty("id", 1_000_000L + i);
+            o.addProperty("machine_id", 10_000L + rnd.nextInt(5000));
+            o.addProperty("gpu_name", gpus[rnd.nextInt(gpus.length)]);
+            o.addProperty("gpu_arch", "nvidia");
+            o.addProperty("num_gpus", 1 + rnd.nextInt(8));
+            o.addProperty("gpu_ram", 24576.0);
+            o.addProperty("gpu_total_ram", 24576.0 * 2);
+            o.addProperty("cuda_vers", 12.2);
+            o.addProperty("driver_version", "535.104.05");
+            o.addProperty("cpu_arch", "amd64");
+            o.addProperty("cpu_cores", 32);
+            o.addProperty("cpu_cores_effective", 16.0);
+            o.addProperty("cpu_ghz", 3.5);
+            o.addProperty("cpu_ram", 128000.0);
+            o.addProperty("disk_space", 500.0 * rnd.nextDouble());
+            o.addProperty("disk_bw", 2000.0 * rnd.nextDouble());
+            o.addProperty("inet_up", 1000.0 * rnd.nextDouble());
+            o.addProperty("inet_down", 1000.0 * rnd.nextDouble());
+            o.addProperty("inet_up_cost", 0.01);
+            o.addProperty("inet_down_cost", 0.01);
+            o.addProperty("dlperf", 50.0 * rnd.nextDouble());
+            o.addProperty("dlperf_usd", 200.0 * rnd.nextDouble());
+            o.addProperty("flops_usd", 300.0 * rnd.nextDouble());
+            o.addProperty("dph", rnd.nextDouble());
+            o.addProperty("dlperf_per_dphtotal", 100.0 * rnd.nextDouble());
+            o.addProperty("dph_base", rnd.nextDouble());
+            o.addProperty("dph_total", rnd.nextDouble());
+            o.addProperty("min_bid", rnd.nextDouble() / 2);
+            o.addProperty("reliability", 0.9 + rnd.nextDouble() / 10);
+            o.addProperty("duration", 30.0 * rnd.nextDouble());
+            o.addProperty("geolocation", geos[rnd.nextInt(geos.length)]);
+            o.addProperty("datacenter", rnd.nextBoolean());
+            o.addProperty("verified", rnd.nextBoolean());
+            o.addProperty("rentable", true);
+            o.addProperty("rented", false);
+            o.addProperty("static_ip", rnd.nextBoolean());
+            o.addProperty("vms_enabled", false);
+            o.addProperty("pci_gen", 4.0);
+            o.addProperty("pcie_bw", 25.0);
+            o.addProperty("bw_nvlink", 0.0);
+            // Champs inconnus du modèle, comme dans les vraies réponses.
+            o.addProperty("bundle_id", i);
+            o.addProperty("hosting_type", 0);
+            o.addProperty("host_run_time", 1.5e6);
+            JsonObject search = new JsonObject();
+            search.addProperty("gpuCostPerHour", 0.3);
+            search.addProperty("totalHour", 0.35);
+            o.add("search", search);
+            arr.add(o);
+        }
+        return arr.toString();
+    }
+
+    private static String instancePayload(Random rnd) {
+        JsonObject p = new JsonObject();
+        p.addProperty("id", 123456L);
+        p.addProperty("actual_status", "running");
+        p.addProperty("intended_status", "running");
+        p.addProperty("cur_state", "running");
+        p.addProperty("next_state", "running");
+        p.addProperty("ssh_idx", "7");
+        p.addProperty("ssh_host", "ssh7.vast.ai");
+        p.addProperty("ssh_port", 23456);
+        p.addProperty("public_ipaddr", "203.0.113.5");
+        p.addProperty("local_ipaddrs", "10.0.0.2 172.17.0.1\n");
+        JsonObject ports = new JsonObject();
+        for (String port : List.of("22/tcp", "8000/tcp", "8080/tcp")) {
+            JsonArray binding = new JsonArray();
+            JsonObject b = new JsonObject();
+            b.addProperty("HostIp", "0.0.0.0");
+            b.addProperty("HostPort", 40000 + rnd.nextInt(1000));
+            binding.add(b);
+            ports.add(port, binding);
+        }
+        p.add("ports", ports);
+        p.addProperty("template_id", 42L);
+        p.addProperty("image_uuid", "pytorch/pytorch:latest");
+        p.addProperty("image_runtype", "ssh");
+        p.addProperty("image_args", "--foo bar");
+        JsonArray env = new JsonArray();
+        env.add("A=1");
+        p.add("extra_env", env);
+        p.addProperty("label", "worker-1");
+        p.addProperty("gpu_name", "RTX 4090");
+        p.addProperty("num_gpus", 2);
+        p.addProperty("gpu_ram", 24564);
+        p.addProperty("gpu_util", 87.5);
+        p.addProperty("gpu_temp", 65.0);
+        p.addProperty("cpu_name", "AMD EPYC 7543");
+        p.addProperty("cpu_cores", 64);
+        p.addProperty("cpu_ram", 257000L);
+        p.addProperty("disk_space", 100.0);
+        p.addProperty("dph_base", 0.6);
+        p.addProperty("dph_total", 0.65);
+        p.addProperty("machine_id", 9876L);
+        p.addProperty("geolocation", "Quebec, CA");
+        p.addProperty("start_date", 1.7e9);
+        p.addProperty("uptime_mins", 1234L);
+        p.addProperty("static_ip", false);
+        p.addProperty("rentable", true);
+        p.addProperty("status_msg", "success, running pytorch/pytorch");
+        // Champs inconnus.
+        p.addProperty("mem_usage", 0.42);
+        p.addProperty("vmem_usage", 0.1);
+        p.addProperty("host_run_time", 1.5e6);
+        JsonObject root = new JsonObject();
+        root.add("instances", p);
+        return root.toString();
+    }
+
+    private static String userPayload() {
+        JsonObject u = new JsonObject();
+        u.addProperty("can_pay", true);
+        u.addProperty("id", 4242L);
+        u.addProperty("created_at", 1_650_000_000L);
+        u.addProperty("api_key", "xxxxxxxx");
+        u.addProperty("username", "bench");
+        u.addProperty("email", "bench@example.com");
+        u.addProperty("balance", 12.5);
+        u.addProperty("credit", 30.0);
+        u.addProperty("total_spend", 1234.5);
+        u.addProperty("has_billing", true);
+        u.addProperty("billing_creditonly", 0);
+        u.addProperty("got_signup_credit", 1);
+        u.addProperty("email_verified", true);
+        u.addProperty("last4", "4242");
+        u.addProperty("sms_notify", false);
+        u.addProperty("user_type", "default");
+        return u.toString();
+    }
+}
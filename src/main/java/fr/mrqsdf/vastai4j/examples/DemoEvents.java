@@ -5,6 +5,8 @@ import fr.mrqsdf.vastai4j.event.*;
 import fr.mrqsdf.vastai4j.event.instance.InstancePortsMappedEvent;
 import fr.mrqsdf.vastai4j.event.instance.InstanceSshReadyEvent;
 import fr.mrqsdf.vastai4j.event.instance.InstanceStateChangeEvent;
+import fr.mrqsdf.vastai4j.market.OfferColumn;
+import fr.mrqsdf.vastai4j.market.OfferRanking;
 import fr.mrqsdf.vastai4j.model.Offer;
 import fr.mrqsdf.vastai4j.model.instance.CreateInstanceRequest;
 import fr.mrqsdf.vastai4j.model.instance.CreateInstanceResponse;
@@ -12,7 +14,6 @@ import fr.mrqsdf.vastai4j.model.instance.RunType;
 import fr.mrqsdf.vastai4j.monitor.InstanceMonitor;
 import fr.mrqsdf.vastai4j.query.*;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -51,10 +52,10 @@ public final class DemoEvents {
                 .orderBy(OrderField.SCORE, Direction.DESC)
                 .limit(40);
 
-        List<Offer> offers = vast.offers().search(q);
-        offers.sort(Comparator.comparing(Offer::dphTotal));
+        // la moins chère, sans trier toute la liste
+        List<Offer> cheapest = OfferRanking.ascending(OfferColumn.DPH_TOTAL).top(vast.offers().search(q), 1);
 
-        long offerId = offers.get(0).id();
+        long offerId = cheapest.get(0).id();
 
         CreateInstanceRequest req = new CreateInstanceRequest()
                 .templateId(null)  // Set to null when providing a custom image instead.
@@ -1,11 +1,14 @@
 package fr.mrqsdf.vastai4j.examples;
 
 import fr.mrqsdf.vastai4j.VastAI;
+import fr.mrqsdf.vastai4j.market.OfferColumn;
+import fr.mrqsdf.vastai4j.market.OfferRanking;
 import fr.mrqsdf.vastai4j.model.Offer;
 import fr.mrqsdf.vastai4j.model.instance.*;
 import fr.mrqsdf.vastai4j.query.*;
 import fr.mrqsdf.vastai4j.service.InstanceService;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -27,10 +30,10 @@ public final class ShowPorts {
                 .orderBy(OrderField.SCORE, Direction.DESC)
                 .limit(40);
 
-        List<Offer> offers = vast.offers().search(q);
-        offers.sort(Comparator.comparing(Offer::dphTotal));
+        // la moins chère, sans trier toute la liste
+        List<Offer> cheapest = OfferRanking.ascending(OfferColumn.DPH_TOTAL).top(vast.offers().search(q), 1);
 
-        long offerId = offers.get(0).id();
+        long offerId = cheapest.get(0).id();
 
         CreateInstanceRequest req = new CreateInstanceRequest()
                 .templateId(null)  // Set to null when providing a custom image instead.
@@ -48,7 +51,8 @@ public final class ShowPorts {
         long instanceId = created.newContract();
 
 
-        InstanceDetails det = svc.show(instanceId);
+        // attend que SSH soit joignable, sans boucle de polling côté appelant
+        InstanceDetails det = svc.awaitSshReady(instanceId, Duration.ofMinutes(10)).join();
         InstanceDetails.InstancePayload i = det.instances();
 
         String publicIp   = str(i.publicIpaddr());
@@ -0,0 +1,197 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import fr.mrqsdf.vastai4j.auth.Right;
+import fr.mrqsdf.vastai4j.model.CurrentUser;
+
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link CurrentUser}: switches on the member name instead of going through Gson's
+ * reflective record adapter. The nested {@code rights} object is delegated to Gson.
+ */
+final class CurrentUserAdapter extends TypeAdapter<CurrentUser> {
+
+    private final TypeAdapter<Right> rightsAdapter;
+
+    CurrentUserAdapter(Gson gson) {
+        this.rightsAdapter = gson.getAdapter(Right.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, CurrentUser value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("can_pay").value(value.canPay());
+        out.name("id").value(value.id());
+        out.name("created_at").value(value.createdAt());
+        out.name("api_key").value(value.apiKey());
+        out.name("key_id").value(value.keyId());
+        out.name("username").value(value.username());
+        out.name("ssh_key").value(value.sshKey());
+        out.name("phone_number").value(value.phoneNumber());
+        out.name("paypal_email").value(value.paypalEmail());
+        out.name("wise_email").value(value.wiseEmail());
+        out.name("fullname").value(value.fullname());
+        out.name("balance_threshold").value(value.balanceThreshold());
+        out.name("balance_threshold_enabled").value(value.balanceThresholdEnabled());
+        out.name("autobill_threshold").value(value.autobillThreshold());
+        out.name("total_spend").value(value.totalSpend());
+        out.name("autobill_amount").value(value.autobillAmount());
+        out.name("billaddress_line1").value(value.billaddressLine1());
+        out.name("billaddress_line2").value(value.billaddressLine2());
+        out.name("billaddress_city").value(value.billaddressCity());
+        out.name("billaddress_zip").value(value.billaddressZip());
+        out.name("billaddress_country").value(value.billaddressCountry());
+        out.name("billing_creditonly").value(value.billingCreditonly());
+        out.name("billaddress_taxinfo").value(value.billaddressTaxinfo());
+        out.name("password_resettable").value(value.passwordResettable());
+        out.name("email").value(value.email());
+        out.name("has_billing").value(value.hasBilling());
+        out.name("has_payout").value(value.hasPayout());
+        out.name("payout_enabled").value(value.payoutEnabled());
+        out.name("host_only").value(value.hostOnly());
+        out.name("host_agreement_accepted").value(value.hostAgreementAccepted());
+        out.name("email_verified").value(value.emailVerified());
+        out.name("last4").value(value.last4());
+        out.name("balance").value(value.balance());
+        out.name("credit").value(value.credit());
+        out.name("got_signup_credit").value(value.gotSignupCredit());
+        out.name("user").value(value.user());
+        out.name("paid_verified").value(value.paidVerified());
+        out.name("paid_expected").value(value.paidExpected());
+        out.name("billed_verified").value(value.billedVerified());
+        out.name("billed_expected").value(value.billedExpected());
+        out.name("has_rented").value(value.hasRented());
+        out.name("balance_referrals").value(value.balanceReferrals());
+        out.name("discord_id").value(value.discordId());
+        out.name("oauth_provider").value(value.oauthProvider());
+        out.name("rights");
+        rightsAdapter.write(out, value.rights());
+        out.endObject();
+    }
+
+    @Override
+    public CurrentUser read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Boolean canPay = null;
+        Long id = null;
+        Long createdAt = null;
+        String apiKey = null;
+        Integer keyId = null;
+        String username = null;
+        String sshKey = null;
+        String phoneNumber = null;
+        String paypalEmail = null;
+        String wiseEmail = null;
+        String fullname = null;
+        Double balanceThreshold = null;
+        Boolean balanceThresholdEnabled = null;
+        Double autobillThreshold = null;
+        Double totalSpend = null;
+        Double autobillAmount = null;
+        String billaddressLine1 = null;
+        String billaddressLine2 = null;
+        String billaddressCity = null;
+        String billaddressZip = null;
+        String billaddressCountry = null;
+        Integer billingCreditonly = null;
+        String billaddressTaxinfo = null;
+        Boolean passwordResettable = null;
+        String email = null;
+        Boolean hasBilling = null;
+        Boolean hasPayout = null;
+        Boolean payoutEnabled = null;
+        Boolean hostOnly = null;
+        Boolean hostAgreementAccepted = null;
+        Boolean emailVerified = null;
+        String last4 = null;
+        Double balance = null;
+        Double credit = null;
+        Integer gotSignupCredit = null;
+        String user = null;
+        Double paidVerified = null;
+        Double paidExpected = null;
+        Double billedVerified = null;
+        Double billedExpected = null;
+        Boolean hasRented = null;
+        Double balanceReferrals = null;
+        String discordId = null;
+        String oauthProvider = null;
+        Right rights = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "can_pay" -> canPay = JsonValues.readBoolean(in);
+                case "id" -> id = JsonValues.readLong(in);
+                case "created_at" -> createdAt = JsonValues.readLong(in);
+                case "api_key" -> apiKey = JsonValues.readString(in);
+                case "key_id" -> keyId = JsonValues.readInteger(in);
+                case "username" -> username = JsonValues.readString(in);
+                case "ssh_key" -> sshKey = JsonValues.readString(in);
+                case "phone_number" -> phoneNumber = JsonValues.readString(in);
+                case "paypal_email" -> paypalEmail = JsonValues.readString(in);
+                case "wise_email" -> wiseEmail = JsonValues.readString(in);
+                case "fullname" -> fullname = JsonValues.readString(in);
+                case "balance_threshold" -> balanceThreshold = JsonValues.readDouble(in);
+                case "balance_threshold_enabled" -> balanceThresholdEnabled = JsonValues.readBoolean(in);
+                case "autobill_threshold" -> autobillThreshold = JsonValues.readDouble(in);
+                case "total_spend" -> totalSpend = JsonValues.readDouble(in);
+                case "autobill_amount" -> autobillAmount = JsonValues.readDouble(in);
+                case "billaddress_line1" -> billaddressLine1 = JsonValues.readString(in);
+                case "billaddress_line2" -> billaddressLine2 = JsonValues.readString(in);
+                case "billaddress_city" -> billaddressCity = JsonValues.readString(in);
+                case "billaddress_zip" -> billaddressZip = JsonValues.readString(in);
+                case "billaddress_country" -> billaddressCountry = JsonValues.readString(in);
+                case "billing_creditonly" -> billingCreditonly = JsonValues.readInteger(in);
+                case "billaddress_taxinfo" -> billaddressTaxinfo = JsonValues.readString(in);
+                case "password_resettable" -> passwordResettable = JsonValues.readBoolean(in);
+                case "email" -> email = JsonValues.readString(in);
+                case "has_billing" -> hasBilling = JsonValues.readBoolean(in);
+                case "has_payout" -> hasPayout = JsonValues.readBoolean(in);
+                case "payout_enabled" -> payoutEnabled = JsonValues.readBoolean(in);
+                case "host_only" -> hostOnly = JsonValues.readBoolean(in);
+                case "host_agreement_accepted" -> hostAgreementAccepted = JsonValues.readBoolean(in);
+                case "email_verified" -> emailVerified = JsonValues.readBoolean(in);
+                case "last4" -> last4 = JsonValues.readString(in);
+                case "balance" -> balance = JsonValues.readDouble(in);
+                case "credit" -> credit = JsonValues.readDouble(in);
+                case "got_signup_credit" -> gotSignupCredit = JsonValues.readInteger(in);
+                case "user" -> user = JsonValues.readString(in);
+                case "paid_verified" -> paidVerified = JsonValues.readDouble(in);
+                case "paid_expected" -> paidExpected = JsonValues.readDouble(in);
+                case "billed_verified" -> billedVerified = JsonValues.readDouble(in);
+                case "billed_expected" -> billedExpected = JsonValues.readDouble(in);
+                case "has_rented" -> hasRented = JsonValues.readBoolean(in);
+                case "balance_referrals" -> balanceReferrals = JsonValues.readDouble(in);
+                case "discord_id" -> discordId = JsonValues.readString(in);
+                case "oauth_provider" -> oauthProvider = JsonValues.readString(in);
+                case "rights" -> rights = rightsAdapter.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new CurrentUser(
+                canPay, id, createdAt, apiKey, keyId, username, sshKey, phoneNumber, paypalEmail, wiseEmail,
+                fullname, balanceThreshold, balanceThresholdEnabled, autobillThreshold, totalSpend, autobillAmount,
+                billaddressLine1, billaddressLine2, billaddressCity, billaddressZip, billaddressCountry,
+                billingCreditonly, billaddressTaxinfo, passwordResettable, email, hasBilling, hasPayout,
+                payoutEnabled, hostOnly, hostAgreementAccepted, emailVerified, last4, balance, credit,
+                gotSignupCredit, user, paidVerified, paidExpected, billedVerified, billedExpected, hasRented,
+                balanceReferrals, discordId, oauthProvider, rights
+        );
+    }
+}
@@ -0,0 +1,243 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import fr.mrqsdf.vastai4j.model.instance.InstanceDetails;
+import fr.mrqsdf.vastai4j.model.instance.Ports;
+import fr.mrqsdf.vastai4j.model.instance.Search;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming adapter for {@link InstanceDetails.InstancePayload}, the largest model polled by the monitor.
+ * Scalar members are decoded inline; polymorphic or nested members ({@code ports}, {@code image_args},
+ * {@code extra_env}, {@code local_ipaddrs}, {@code search}) are delegated to Gson.
+ */
+final class InstancePayloadAdapter extends TypeAdapter<InstanceDetails.InstancePayload> {
+
+    private final TypeAdapter<JsonElement> localIpaddrsAdapter;
+    private final TypeAdapter<Map<String, List<Ports>>> portsAdapter;
+    private final TypeAdapter<JsonElement> imageArgsAdapter;
+    private final TypeAdapter<List<JsonElement>> extraEnvAdapter;
+    private final TypeAdapter<Search> searchAdapter;
+
+    InstancePayloadAdapter(Gson gson) {
+        this.localIpaddrsAdapter = gson.getAdapter(JsonElement.class);
+        this.portsAdapter = gson.getAdapter(new TypeToken<Map<String, List<Ports>>>() { });
+        this.imageArgsAdapter = gson.getAdapter(JsonElement.class);
+        this.extraEnvAdapter = gson.getAdapter(new TypeToken<List<JsonElement>>() { });
+        this.searchAdapter = gson.getAdapter(Search.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, InstanceDetails.InstancePayload value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.id());
+        out.name("actual_status").value(value.actualStatus());
+        out.name("intended_status").value(value.intendedStatus());
+        out.name("cur_state").value(value.curState());
+        out.name("next_state").value(value.nextState());
+        out.name("verification").value(value.verification());
+        out.name("ssh_idx").value(value.sshIdx());
+        out.name("ssh_host").value(value.sshHost());
+        out.name("ssh_port").value(value.sshPort());
+        out.name("public_ipaddr").value(value.publicIpaddr());
+        out.name("local_ipaddrs");
+        localIpaddrsAdapter.write(out, value.localIpaddrs());
+        out.name("machine_dir_ssh_port").value(value.machineDirSshPort());
+        out.name("ports");
+        portsAdapter.write(out, value.ports());
+        out.name("direct_port_start").value(value.directPortStart());
+        out.name("direct_port_end").value(value.directPortEnd());
+        out.name("template_id").value(value.templateId());
+        out.name("template_hash_id").value(value.templateHashId());
+        out.name("template_name").value(value.templateName());
+        out.name("image_uuid").value(value.imageUuid());
+        out.name("image_runtype").value(value.imageRuntype());
+        out.name("image_args");
+        imageArgsAdapter.write(out, value.imageArgs());
+        out.name("extra_env");
+        extraEnvAdapter.write(out, value.extraEnv());
+        out.name("onstart").value(value.onstart());
+        out.name("label").value(value.label());
+        out.name("jupyter_token").value(value.jupyterToken());
+        out.name("status_msg").value(value.statusMsg());
+        out.name("webpage").value(value.webpage());
+        out.name("gpu_name").value(value.gpuName());
+        out.name("num_gpus").value(value.numGpus());
+        out.name("gpu_ram").value(value.gpuRam());
+        out.name("gpu_totalram").value(value.gpuTotalram());
+        out.name("gpu_frac").value(value.gpuFrac());
+        out.name("gpu_util").value(value.gpuUtil());
+        out.name("gpu_temp").value(value.gpuTemp());
+        out.name("gpu_arch").value(value.gpuArch());
+        out.name("cuda_max_good").value(value.cudaMaxGood());
+        out.name("driver_version").value(value.driverVersion());
+        out.name("gpu_display_active").value(value.gpuDisplayActive());
+        out.name("cpu_name").value(value.cpuName());
+        out.name("cpu_arch").value(value.cpuArch());
+        out.name("cpu_cores").value(value.cpuCores());
+        out.name("cpu_cores_effective").value(value.cpuCoresEffective());
+        out.name("cpu_util").value(value.cpuUtil());
+        out.name("cpu_ram").value(value.cpuRam());
+        out.name("inet_up").value(value.inetUp());
+        out.name("inet_down").value(value.inetDown());
+        out.name("disk_name").value(value.diskName());
+        out.name("disk_space").value(value.diskSpace());
+        out.name("disk_usage").value(value.diskUsage());
+        out.name("disk_util").value(value.diskUtil());
+        out.name("disk_bw").value(value.diskBw());
+        out.name("dph_base").value(value.dphBase());
+        out.name("dph_total").value(value.dphTotal());
+        out.name("storage_cost").value(value.storageCost());
+        out.name("storage_total_cost").value(value.storageTotalCost());
+        out.name("internet_up_cost_per_tb").value(value.internetUpCostPerTb());
+        out.name("internet_down_cost_per_tb").value(value.internetDownCostPerTb());
+        out.name("inet_up_cost").value(value.inetUpCost());
+        out.name("inet_down_cost").value(value.inetDownCost());
+        out.name("host_id").value(value.hostId());
+        out.name("machine_id").value(value.machineId());
+        out.name("os_version").value(value.osVersion());
+        out.name("geolocation").value(value.geolocation());
+        out.name("logo").value(value.logo());
+        out.name("start_date").value(value.startDate());
+        out.name("end_date").value(value.endDate());
+        out.name("duration").value(value.duration());
+        out.name("uptime_mins").value(value.uptimeMins());
+        out.name("static_ip").value(value.staticIp());
+        out.name("external").value(value.external());
+        out.name("rentable").value(value.rentable());
+        out.name("time_remaining").value(value.timeRemaining());
+        out.name("search");
+        searchAdapter.write(out, value.search());
+        out.endObject();
+    }
+
+    @Override
+    public InstanceDetails.InstancePayload read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        // Members are collected in slots rather than locals: see create(Object[]).
+        Object[] v = new Object[73];
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> v[0] = JsonValues.readLong(in);
+                case "actual_status" -> v[1] = JsonValues.readString(in);
+                case "intended_status" -> v[2] = JsonValues.readString(in);
+                case "cur_state" -> v[3] = JsonValues.readString(in);
+                case "next_state" -> v[4] = JsonValues.readString(in);
+                case "verification" -> v[5] = JsonValues.readString(in);
+                case "ssh_idx" -> v[6] = JsonValues.readString(in);
+                case "ssh_host" -> v[7] = JsonValues.readString(in);
+                case "ssh_port" -> v[8] = JsonValues.readInteger(in);
+                case "public_ipaddr" -> v[9] = JsonValues.readString(in);
+                case "local_ipaddrs" -> v[10] = localIpaddrsAdapter.read(in);
+                case "machine_dir_ssh_port" -> v[11] = JsonValues.readInteger(in);
+                case "ports" -> v[12] = portsAdapter.read(in);
+                case "direct_port_start" -> v[13] = JsonValues.readInteger(in);
+                case "direct_port_end" -> v[14] = JsonValues.readInteger(in);
+                case "template_id" -> v[15] = JsonValues.readLong(in);
+                case "template_hash_id" -> v[16] = JsonValues.readString(in);
+                case "template_name" -> v[17] = JsonValues.readString(in);
+                case "image_uuid" -> v[18] = JsonValues.readString(in);
+                case "image_runtype" -> v[19] = JsonValues.readString(in);
+                case "image_args" -> v[20] = imageArgsAdapter.read(in);
+                case "extra_env" -> v[21] = extraEnvAdapter.read(in);
+                case "onstart" -> v[22] = JsonValues.readString(in);
+                case "label" -> v[23] = JsonValues.readString(in);
+                case "jupyter_token" -> v[24] = JsonValues.readString(in);
+                case "status_msg" -> v[25] = JsonValues.readString(in);
+                case "webpage" -> v[26] = JsonValues.readString(in);
+                case "gpu_name" -> v[27] = JsonValues.readString(in);
+                case "num_gpus" -> v[28] = JsonValues.readInteger(in);
+                case "gpu_ram" -> v[29] = JsonValues.readInteger(in);
+                case "gpu_totalram" -> v[30] = JsonValues.readInteger(in);
+                case "gpu_frac" -> v[31] = JsonValues.readDouble(in);
+                case "gpu_util" -> v[32] = JsonValues.readDouble(in);
+                case "gpu_temp" -> v[33] = JsonValues.readDouble(in);
+                case "gpu_arch" -> v[34] = JsonValues.readString(in);
+                case "cuda_max_good" -> v[35] = JsonValues.readDouble(in);
+                case "driver_version" -> v[36] = JsonValues.readString(in);
+                case "gpu_display_active" -> v[37] = JsonValues.readBoolean(in);
+                case "cpu_name" -> v[38] = JsonValues.readString(in);
+                case "cpu_arch" -> v[39] = JsonValues.readString(in);
+                case "cpu_cores" -> v[40] = JsonValues.readInteger(in);
+                case "cpu_cores_effective" -> v[41] = JsonValues.readDouble(in);
+                case "cpu_util" -> v[42] = JsonValues.readDouble(in);
+                case "cpu_ram" -> v[43] = JsonValues.readLong(in);
+                case "inet_up" -> v[44] = JsonValues.readDouble(in);
+                case "inet_down" -> v[45] = JsonValues.readDouble(in);
+                case "disk_name" -> v[46] = JsonValues.readString(in);
+                case "disk_space" -> v[47] = JsonValues.readDouble(in);
+                case "disk_usage" -> v[48] = JsonValues.readDouble(in);
+                case "disk_util" -> v[49] = JsonValues.readDouble(in);
+                case "disk_bw" -> v[50] = JsonValues.readDouble(in);
+                case "dph_base" -> v[51] = JsonValues.readDouble(in);
+                case "dph_total" -> v[52] = JsonValues.readDouble(in);
+                case "storage_cost" -> v[53] = JsonValues.readDouble(in);
+                case "storage_total_cost" -> v[54] = JsonValues.readDouble(in);
+                case "internet_up_cost_per_tb" -> v[55] = JsonValues.readDouble(in);
+                case "internet_down_cost_per_tb" -> v[56] = JsonValues.readDouble(in);
+                case "inet_up_cost" -> v[57] = JsonValues.readDouble(in);
+                case "inet_down_cost" -> v[58] = JsonValues.readDouble(in);
+                case "host_id" -> v[59] = JsonValues.readLong(in);
+                case "machine_id" -> v[60] = JsonValues.readLong(in);
+                case "os_version" -> v[61] = JsonValues.readString(in);
+                case "geolocation" -> v[62] = JsonValues.readString(in);
+                case "logo" -> v[63] = JsonValues.readString(in);
+                case "start_date" -> v[64] = JsonValues.readDouble(in);
+                case "end_date" -> v[65] = JsonValues.readDouble(in);
+                case "duration" -> v[66] = JsonValues.readDouble(in);
+                case "uptime_mins" -> v[67] = JsonValues.readLong(in);
+                case "static_ip" -> v[68] = JsonValues.readBoolean(in);
+                case "external" -> v[69] = JsonValues.readBoolean(in);
+                case "rentable" -> v[70] = JsonValues.readBoolean(in);
+                case "time_remaining" -> v[71] = JsonValues.readString(in);
+                case "search" -> v[72] = searchAdapter.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return create(v);
+    }
+
+    /**
+     * The canonical constructor takes 73 arguments, more than the JIT accepts in a compiled call: any
+     * method invoking it stays interpreted. Keeping the call here, out of {@link #read}, lets the decoding
+     * loop be compiled; only this short method runs in the interpreter.
+     */
+    @SuppressWarnings("unchecked")
+    private static InstanceDetails.InstancePayload create(Object[] v) {
+        return new InstanceDetails.InstancePayload(
+                (Long) v[0], (String) v[1], (String) v[2], (String) v[3], (String) v[4], (String) v[5],
+                (String) v[6], (String) v[7], (Integer) v[8], (String) v[9], (JsonElement) v[10], (Integer) v[11],
+                (Map<String, List<Ports>>) v[12], (Integer) v[13], (Integer) v[14], (Long) v[15], (String) v[16],
+                (String) v[17], (String) v[18], (String) v[19], (JsonElement) v[20], (List<JsonElement>) v[21],
+                (String) v[22], (String) v[23], (String) v[24], (String) v[25], (String) v[26], (String) v[27],
+                (Integer) v[28], (Integer) v[29], (Integer) v[30], (Double) v[31], (Double) v[32], (Double) v[33],
+                (String) v[34], (Double) v[35], (String) v[36], (Boolean) v[37], (String) v[38], (String) v[39],
+                (Integer) v[40], (Double) v[41], (Double) v[42], (Long) v[43], (Double) v[44], (Double) v[45],
+                (String) v[46], (Double) v[47], (Double) v[48], (Double) v[49], (Double) v[50], (Double) v[51],
+                (Double) v[52], (Double) v[53], (Double) v[54], (Double) v[55], (Double) v[56], (Double) v[57],
+                (Double) v[58], (Long) v[59], (Long) v[60], (String) v[61], (String) v[62], (String) v[63],
+                (Double) v[64], (Double) v[65], (Double) v[66], (Long) v[67], (Boolean) v[68], (Boolean) v[69],
+                (Boolean) v[70], (String) v[71], (Search) v[72]
+        );
+    }
+}
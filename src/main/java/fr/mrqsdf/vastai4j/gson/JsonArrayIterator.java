@@ -0,0 +1,125 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import fr.mrqsdf.vastai4j.http.VastAIException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Closeable iterator that decodes the elements of a JSON array one at a time from a {@link JsonReader}.
+ * <p>
+ * Only the element currently being returned is held in memory, so callers can walk very large arrays
+ * or stop early without materializing the whole list. {@code null} elements are skipped. The iterator
+ * closes the reader once the array is exhausted; callers that stop early must call {@link #close()}.
+ * </p>
+ *
+ * @param <T> the element type.
+ */
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonReader reader;
+    private final TypeAdapter<T> adapter;
+    private boolean open;
+    private T next;
+
+    private JsonArrayIterator(JsonReader reader, TypeAdapter<T> adapter, boolean open) {
+        this.reader = reader;
+        this.adapter = adapter;
+        this.open = open;
+    }
+
+    /**
+     * Iterate the list of a payload that is either a raw array or an object holding the array under
+     * {@code field} (see {@link JsonEnvelopes#enterArray}). Other members of the object are skipped
+     * without being decoded. A {@code null} payload or a missing field yields an empty iterator.
+     * @param reader the reader positioned at the start of the document; ownership is transferred.
+     * @param field the name of the array member (e.g. {@code offers}).
+     * @param adapter the adapter used to decode each element.
+     * @param <T> the element type.
+     * @return the iterator over the array elements.
+     */
+    public static <T> JsonArrayIterator<T> ofField(JsonReader reader, String field, TypeAdapter<T> adapter) {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(field, "field");
+        Objects.requireNonNull(adapter, "adapter");
+        try {
+            boolean inArray = JsonEnvelopes.enterArray(reader, field);
+            if (!inArray) reader.close();
+            return new JsonArrayIterator<>(reader, adapter, inArray);
+        } catch (IOException e) {
+            closeQuietly(reader);
+            throw new VastAIException("Failed to read Vast.ai response", e);
+        } catch (RuntimeException e) {
+            closeQuietly(reader);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (!open) return false;
+        try {
+            while (reader.hasNext()) {
+                T value = adapter.read(reader);
+                if (value != null) {
+                    next = value;
+                    return true;
+                }
+            }
+            reader.endArray();
+            close();
+            return false;
+        } catch (IOException e) {
+            close();
+            throw new VastAIException("Failed to read Vast.ai response", e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T value = next;
+        next = null;
+        return value;
+    }
+
+    /**
+     * Wrap this iterator into a sequential stream. Closing the stream closes the iterator.
+     * @return the lazily decoded stream.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Release the underlying reader (and therefore the HTTP connection). Safe to call several times.
+     */
+    @Override
+    public void close() {
+        if (!open) return;
+        open = false;
+        closeQuietly(reader);
+    }
+
+    private static void closeQuietly(JsonReader reader) {
+        try {
+            reader.close();
+        } catch (IOException ignore) {
+            // nothing left to release
+        }
+    }
+}
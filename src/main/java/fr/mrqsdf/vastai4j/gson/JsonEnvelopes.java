@@ -0,0 +1,129 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Helpers for endpoints whose list payload comes in more than one envelope shape.
+ * <p>
+ * Depending on the deployment, Vast.ai answers some searches with a wrapper object
+ * ({@code {"offers": [...]}}) and others with the raw array ({@code [...]}). The helpers below sniff
+ * the first token and handle either shape from a single read of the body, instead of decoding the
+ * response once per candidate shape.
+ * </p>
+ */
+public final class JsonEnvelopes {
+
+    private JsonEnvelopes() {
+    }
+
+    /**
+     * Position the reader inside the list, whatever the envelope shape.
+     * <ul>
+     *     <li>raw array: the array is opened;</li>
+     *     <li>object: members are skipped until {@code field}, whose array is opened;</li>
+     *     <li>empty body, {@code null}, or an object without {@code field}: nothing to read.</li>
+     * </ul>
+     * @param reader the reader positioned at the start of the document.
+     * @param field the name of the array member in the wrapper object.
+     * @return true if the reader is now inside the array, false if the payload holds no list.
+     * @throws IOException if the payload cannot be read or is neither an array nor an object.
+     */
+    public static boolean enterArray(JsonReader reader, String field) throws IOException {
+        JsonToken token;
+        try {
+            token = reader.peek();
+        } catch (EOFException empty) {
+            return false;
+        }
+        switch (token) {
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                return true;
+            case NULL:
+                reader.nextNull();
+                return false;
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (field.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        return true;
+                    }
+                    reader.skipValue();
+                }
+                reader.endObject();
+                return false;
+            default:
+                throw new IOException("Expected a JSON array or an object with an '" + field + "' array but was "
+                        + token + " at " + reader.getPath());
+        }
+    }
+
+    /**
+     * Hand every element of the list to {@code sink} as it is decoded, whatever the envelope shape, without
+     * building the list.
+     * @param reader the reader positioned at the start of the document.
+     * @param field the name of the array member in the wrapper object.
+     * @param element the adapter used for each element.
+     * @param sink receives every non-null element, in document order.
+     * @param <T> the element type.
+     * @return the number of elements handed to {@code sink}.
+     * @throws IOException if the payload cannot be read.
+     */
+    public static <T> int forEach(JsonReader reader, String field, TypeAdapter<T> element, Consumer<? super T> sink)
+            throws IOException {
+        int count = 0;
+        if (!enterArray(reader, field)) return count;
+        while (reader.hasNext()) {
+            T item = element.read(reader);
+            if (item != null) {
+                sink.accept(item);
+                count++;
+            }
+        }
+        reader.endArray();
+        return count;
+    }
+
+    /**
+     * Adapter decoding a list that is either a raw array or wrapped under {@code field}.
+     * Serialization always writes the raw array.
+     * @param field the name of the array member in the wrapper object.
+     * @param element the adapter used for each element.
+     * @param <T> the element type.
+     * @return the adapter; a payload without a list decodes to an empty list.
+     */
+    public static <T> TypeAdapter<List<T>> listAdapter(String field, TypeAdapter<T> element) {
+        Objects.requireNonNull(field, "field");
+        Objects.requireNonNull(element, "element");
+        return new TypeAdapter<>() {
+            @Override
+            public void write(JsonWriter out, List<T> value) throws IOException {
+                if (value == null) {
+                    out.nullValue();
+                    return;
+                }
+                out.beginArray();
+                for (T item : value) element.write(out, item);
+                out.endArray();
+            }
+
+            @Override
+            public List<T> read(JsonReader in) throws IOException {
+                List<T> out = new ArrayList<>();
+                forEach(in, field, element, out::add);
+                return out;
+            }
+        };
+    }
+}
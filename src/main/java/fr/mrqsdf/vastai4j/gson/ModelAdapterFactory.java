@@ -0,0 +1,38 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import fr.mrqsdf.vastai4j.model.CurrentUser;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.model.instance.InstanceDetails;
+
+/**
+ * Registers the streaming adapters of the hot models ({@link Offer}, {@link InstanceDetails.InstancePayload}
+ * and {@link CurrentUser}), which are decoded on every offer search and every monitor tick.
+ * <p>
+ * Gson's reflective record adapter looks each member up in a map and boxes it through a generic adapter;
+ * these adapters switch directly on the member name and call the typed {@code JsonReader} methods. They
+ * must be kept in sync with the records: a member added to a record but not to its adapter is silently
+ * left null.
+ * </p>
+ */
+public final class ModelAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == Offer.class) {
+            return (TypeAdapter<T>) new OfferAdapter();
+        }
+        if (raw == InstanceDetails.InstancePayload.class) {
+            return (TypeAdapter<T>) new InstancePayloadAdapter(gson);
+        }
+        if (raw == CurrentUser.class) {
+            return (TypeAdapter<T>) new CurrentUserAdapter(gson);
+        }
+        return null;
+    }
+}
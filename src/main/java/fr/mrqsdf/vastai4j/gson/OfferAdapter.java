@@ -0,0 +1,171 @@
+package fr.mrqsdf.vastai4j.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.io.IOException;
+
+/**
+ * Streaming adapter for {@link Offer}: switches on the member name instead of going through Gson's
+ * reflective record adapter, and skips unknown members without building them. Values are read with the same
+ * leniency as Gson's built-in adapters (numbers may be quoted, booleans may be strings).
+ */
+final class OfferAdapter extends TypeAdapter<Offer> {
+
+    @Override
+    public void write(JsonWriter out, Offer value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.id());
+        out.name("machine_id").value(value.machineId());
+        out.name("gpu_name").value(value.gpuName());
+        out.name("gpu_arch").value(value.gpuArch());
+        out.name("num_gpus").value(value.numGpus());
+        out.name("gpu_ram").value(value.gpuRamGiB());
+        out.name("gpu_total_ram").value(value.gpuTotalRamGiB());
+        out.name("cuda_vers").value(value.cudaVers());
+        out.name("driver_version").value(value.driverVersion());
+        out.name("cpu_arch").value(value.cpuArch());
+        out.name("cpu_cores").value(value.cpuCores());
+        out.name("cpu_cores_effective").value(value.cpuCoresEffective());
+        out.name("cpu_ghz").value(value.cpuGhz());
+        out.name("cpu_ram").value(value.cpuRamGiB());
+        out.name("disk_space").value(value.diskSpaceGiB());
+        out.name("disk_bw").value(value.diskBandwidthMBs());
+        out.name("inet_up").value(value.inetUpMbps());
+        out.name("inet_down").value(value.inetDownMbps());
+        out.name("inet_up_cost").value(value.inetUpCostPerGB());
+        out.name("inet_down_cost").value(value.inetDownCostPerGB());
+        out.name("dlperf").value(value.dlperf());
+        out.name("dlperf_usd").value(value.dlperfUsd());
+        out.name("flops_usd").value(value.flopsUsd());
+        out.name("dph").value(value.pricePerHourUSD());
+        out.name("dlperf_per_dphtotal").value(value.dlperfPerDphTotal());
+        out.name("dph_base").value(value.dphBase());
+        out.name("dph_total").value(value.dphTotal());
+        out.name("min_bid").value(value.minBidUSD());
+        out.name("reliability").value(value.reliability());
+        out.name("duration").value(value.maxDurationDays());
+        out.name("geolocation").value(value.geoCountryCode());
+        out.name("datacenter").value(value.datacenter());
+        out.name("verified").value(value.verified());
+        out.name("rentable").value(value.rentable());
+        out.name("rented").value(value.rented());
+        out.name("static_ip").value(value.staticIp());
+        out.name("vms_enabled").value(value.vmsEnabled());
+        out.name("pci_gen").value(value.pciGen());
+        out.name("pcie_bw").value(value.pcieBwGBs());
+        out.name("bw_nvlink").value(value.bwNvlinkGBs());
+        out.endObject();
+    }
+
+    @Override
+    public Offer read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Long id = null;
+        Long machineId = null;
+        String gpuName = null;
+        String gpuArch = null;
+        Integer numGpus = null;
+        Double gpuRamGiB = null;
+        Double gpuTotalRamGiB = null;
+        Double cudaVers = null;
+        String driverVersion = null;
+        String cpuArch = null;
+        Integer cpuCores = null;
+        Double cpuCoresEffective = null;
+        Double cpuGhz = null;
+        Double cpuRamGiB = null;
+        Double diskSpaceGiB = null;
+        Double diskBandwidthMBs = null;
+        Double inetUpMbps = null;
+        Double inetDownMbps = null;
+        Double inetUpCostPerGB = null;
+        Double inetDownCostPerGB = null;
+        Double dlperf = null;
+        Double dlperfUsd = null;
+        Double flopsUsd = null;
+        Double pricePerHourUSD = null;
+        Double dlperfPerDphTotal = null;
+        Double dphBase = null;
+        Double dphTotal = null;
+        Double minBidUSD = null;
+        Double reliability = null;
+        Double maxDurationDays = null;
+        String geoCountryCode = null;
+        Boolean datacenter = null;
+        Boolean verified = null;
+        Boolean rentable = null;
+        Boolean rented = null;
+        Boolean staticIp = null;
+        Boolean vmsEnabled = null;
+        Double pciGen = null;
+        Double pcieBwGBs = null;
+        Double bwNvlinkGBs = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id" -> id = JsonValues.readLong(in);
+                case "machine_id" -> machineId = JsonValues.readLong(in);
+                case "gpu_name" -> gpuName = JsonValues.readString(in);
+                case "gpu_arch" -> gpuArch = JsonValues.readString(in);
+                case "num_gpus" -> numGpus = JsonValues.readInteger(in);
+                case "gpu_ram" -> gpuRamGiB = JsonValues.readDouble(in);
+                case "gpu_total_ram" -> gpuTotalRamGiB = JsonValues.readDouble(in);
+                case "cuda_vers" -> cudaVers = JsonValues.readDouble(in);
+                case "driver_version" -> driverVersion = JsonValues.readString(in);
+                case "cpu_arch" -> cpuArch = JsonValues.readString(in);
+                case "cpu_cores" -> cpuCores = JsonValues.readInteger(in);
+                case "cpu_cores_effective" -> cpuCoresEffective = JsonValues.readDouble(in);
+                case "cpu_ghz" -> cpuGhz = JsonValues.readDouble(in);
+                case "cpu_ram" -> cpuRamGiB = JsonValues.readDouble(in);
+                case "disk_space" -> diskSpaceGiB = JsonValues.readDouble(in);
+                case "disk_bw" -> diskBandwidthMBs = JsonValues.readDouble(in);
+                case "inet_up" -> inetUpMbps = JsonValues.readDouble(in);
+                case "inet_down" -> inetDownMbps = JsonValues.readDouble(in);
+                case "inet_up_cost" -> inetUpCostPerGB = JsonValues.readDouble(in);
+                case "inet_down_cost" -> inetDownCostPerGB = JsonValues.readDouble(in);
+                case "dlperf" -> dlperf = JsonValues.readDouble(in);
+                case "dlperf_usd" -> dlperfUsd = JsonValues.readDouble(in);
+                case "flops_usd" -> flopsUsd = JsonValues.readDouble(in);
+                case "dph" -> pricePerHourUSD = JsonValues.readDouble(in);
+                case "dlperf_per_dphtotal" -> dlperfPerDphTotal = JsonValues.readDouble(in);
+                case "dph_base" -> dphBase = JsonValues.readDouble(in);
+                case "dph_total" -> dphTotal = JsonValues.readDouble(in);
+                case "min_bid" -> minBidUSD = JsonValues.readDouble(in);
+                case "reliability" -> reliability = JsonValues.readDouble(in);
+                case "duration" -> maxDurationDays = JsonValues.readDouble(in);
+                case "geolocation" -> geoCountryCode = JsonValues.readString(in);
+                case "datacenter" -> datacenter = JsonValues.readBoolean(in);
+                case "verified" -> verified = JsonValues.readBoolean(in);
+                case "rentable" -> rentable = JsonValues.readBoolean(in);
+                case "rented" -> rented = JsonValues.readBoolean(in);
+                case "static_ip" -> staticIp = JsonValues.readBoolean(in);
+                case "vms_enabled" -> vmsEnabled = JsonValues.readBoolean(in);
+                case "pci_gen" -> pciGen = JsonValues.readDouble(in);
+                case "pcie_bw" -> pcieBwGBs = JsonValues.readDouble(in);
+                case "bw_nvlink" -> bwNvlinkGBs = JsonValues.readDouble(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new Offer(
+                id, machineId, gpuName, gpuArch, numGpus, gpuRamGiB, gpuTotalRamGiB, cudaVers, driverVersion,
+                cpuArch, cpuCores, cpuCoresEffective, cpuGhz, cpuRamGiB, diskSpaceGiB, diskBandwidthMBs, inetUpMbps,
+                inetDownMbps, inetUpCostPerGB, inetDownCostPerGB, dlperf, dlperfUsd, flopsUsd, pricePerHourUSD,
+                dlperfPerDphTotal, dphBase, dphTotal, minBidUSD, reliability, maxDurationDays, geoCountryCode,
+                datacenter, verified, rentable, rented, staticIp, vmsEnabled, pciGen, pcieBwGBs, bwNvlinkGBs
+        );
+    }
+}
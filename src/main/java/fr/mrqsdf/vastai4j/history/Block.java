@@ -0,0 +1,92 @@
+package fr.mrqsdf.vastai4j.history;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Sparse index entry of a written block; the dictionary and data offset are decoded lazily from the
+ * mapped segment the first time the block is scanned.
+ */
+final class Block {
+
+    final long offset;
+    final int rows;
+    final long minTimestamp;
+    final long maxTimestamp;
+
+    private volatile String[] dictionary;
+    private volatile long dataStart;
+
+    Block(long offset, int rows, long minTimestamp, long maxTimestamp) {
+        this.offset = offset;
+        this.rows = rows;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    boolean overlaps(long from, long to) {
+        return maxTimestamp >= from && minTimestamp < to;
+    }
+
+    long end(ByteBuffer segment) {
+        return dataStart(segment) + (long) rows * BlockFormat.ROW_BYTES;
+    }
+
+    String[] dictionary(ByteBuffer segment) {
+        if (dictionary == null) decodeHeader(segment);
+        return dictionary;
+    }
+
+    long dataStart(ByteBuffer segment) {
+        if (dictionary == null) decodeHeader(segment);
+        return dataStart;
+    }
+
+    /** Dictionary code of a value, or -1 if no row of the block holds it. */
+    int codeOf(ByteBuffer segment, String value) {
+        String[] dict = dictionary(segment);
+        for (int i = 0; i < dict.length; i++) if (dict[i].equals(value)) return i;
+        return -1;
+    }
+
+    private synchronized void decodeHeader(ByteBuffer segment) {
+        if (dictionary != null) return;
+        int p = (int) offset + 4 + 4 + 8 + 8;
+        int size = segment.getInt(p);
+        p += 4;
+        String[] dict = new String[size];
+        for (int i = 0; i < size; i++) {
+            int len = Short.toUnsignedInt(segment.getShort(p));
+            p += 2;
+            byte[] bytes = new byte[len];
+            segment.get(p, bytes);
+            p += len;
+            dict[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        dataStart = offset + BlockFormat.align8(p - (int) offset);
+        dictionary = dict;
+    }
+
+    /**
+     * Reads the header of the block starting at {@code offset}, e.g. to rebuild a lost index.
+     * @return the block, or null if the bytes there are not a complete block.
+     */
+    static Block read(ByteBuffer segment, long offset) {
+        if (offset + 28 > segment.limit() || segment.getInt((int) offset) != BlockFormat.MAGIC) return null;
+        int p = (int) offset + 4;
+        int rows = segment.getInt(p);
+        Block block = new Block(offset, rows, segment.getLong(p + 4), segment.getLong(p + 12));
+        try {
+            return rows > 0 && block.end(segment) <= segment.limit() ? block : null;
+        } catch (IndexOutOfBoundsException torn) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Block[offset=" + offset + ", rows=" + rows + ", time=" + minTimestamp + ".." + maxTimestamp
+                + (dictionary == null ? "" : ", dictionary=" + Arrays.toString(dictionary)) + "]";
+    }
+}
@@ -0,0 +1,124 @@
+package fr.mrqsdf.vastai4j.history;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates rows of the block being written, column by column.
+ */
+final class BlockBuilder {
+
+    private final int capacity;
+    private final long[][] longs = new long[BlockFormat.LONG_COLUMNS][];
+    private final double[][] doubles = new double[BlockFormat.DOUBLE_COLUMNS][];
+    private final int[][] ints = new int[BlockFormat.INT_COLUMNS][];
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private int rows;
+    private long minTimestamp;
+    private long maxTimestamp;
+
+    BlockBuilder(int capacity) {
+        this.capacity = capacity;
+        for (int c = 0; c < longs.length; c++) longs[c] = new long[capacity];
+        for (int c = 0; c < doubles.length; c++) doubles[c] = new double[capacity];
+        for (int c = 0; c < ints.length; c++) ints[c] = new int[capacity];
+    }
+
+    boolean isFull() {
+        return rows == capacity;
+    }
+
+    boolean isEmpty() {
+        return rows == 0;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    void add(long timestamp, Offer offer) {
+        int r = rows++;
+        if (r == 0 || timestamp < minTimestamp) minTimestamp = timestamp;
+        if (r == 0 || timestamp > maxTimestamp) maxTimestamp = timestamp;
+        longs[BlockFormat.TIMESTAMP][r] = timestamp;
+        longs[BlockFormat.OFFER_ID][r] = orNull(offer.id());
+        longs[BlockFormat.MACHINE_ID][r] = orNull(offer.machineId());
+        doubles[BlockFormat.DPH_TOTAL][r] = orNaN(offer.dphTotal());
+        doubles[BlockFormat.MIN_BID][r] = orNaN(offer.minBidUSD());
+        doubles[BlockFormat.RELIABILITY][r] = orNaN(offer.reliability());
+        doubles[BlockFormat.GPU_TOTAL_RAM][r] = orNaN(offer.gpuTotalRamGiB());
+        doubles[BlockFormat.DLPERF][r] = orNaN(offer.dlperf());
+        doubles[BlockFormat.INET_DOWN][r] = orNaN(offer.inetDownMbps());
+        ints[BlockFormat.NUM_GPUS][r] = offer.numGpus() == null ? BlockFormat.NULL_INT : offer.numGpus();
+        ints[BlockFormat.GPU_NAME][r] = code(offer.gpuName());
+        ints[BlockFormat.GEOLOCATION][r] = code(offer.geoCountryCode());
+    }
+
+    /** Serializes the block and clears the builder. */
+    ByteBuffer encode() {
+        byte[][] encoded = new byte[dictionary.size()][];
+        int header = 4 + 4 + 8 + 8 + 4;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = dictionary.get(i).getBytes(StandardCharsets.UTF_8);
+            header += 2 + encoded[i].length;
+        }
+        int dataStart = BlockFormat.align8(header);
+        ByteBuffer out = ByteBuffer.allocate(dataStart + rows * BlockFormat.ROW_BYTES).order(BlockFormat.ORDER);
+        out.putInt(BlockFormat.MAGIC).putInt(rows).putLong(minTimestamp).putLong(maxTimestamp).putInt(encoded.length);
+        for (byte[] bytes : encoded) out.putShort((short) bytes.length).put(bytes);
+        out.position(dataStart);
+        // bulk copies through typed views, which do not move the position of the parent buffer
+        for (long[] column : longs) {
+            out.asLongBuffer().put(column, 0, rows);
+            out.position(out.position() + rows * 8);
+        }
+        for (double[] column : doubles) {
+            out.asDoubleBuffer().put(column, 0, rows);
+            out.position(out.position() + rows * 8);
+        }
+        for (int[] column : ints) {
+            out.asIntBuffer().put(column, 0, rows);
+            out.position(out.position() + rows * 4);
+        }
+        out.flip();
+        rows = 0;
+        codes.clear();
+        dictionary.clear();
+        return out;
+    }
+
+    private int code(String value) {
+        if (value == null) return -1;
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (value.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) return -1;
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static long orNull(Long v) {
+        return v == null ? BlockFormat.NULL_LONG : v;
+    }
+
+    private static double orNaN(Double v) {
+        return v == null ? Double.NaN : v;
+    }
+}
@@ -0,0 +1,58 @@
+package fr.mrqsdf.vastai4j.history;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a block, the unit of writing and of the sparse index.
+ * <pre>
+ * int    magic ('OHB1')
+ * int    rows
+ * long   min timestamp, long max timestamp
+ * int    dictionary size, then per entry: unsigned short length + UTF-8 bytes
+ * ...    zero padding to a multiple of 8
+ * long[] timestamp, offer id, machine id            (one array per column, rows entries each)
+ * double[] dph_total, min_bid, reliability, gpu_total_ram, dlperf, inet_down
+ * int[]  num_gpus, gpu_name code, geolocation code  (codes index the block dictionary)
+ * </pre>
+ * Missing values are stored as {@link #NULL_LONG}, {@link #NULL_INT}, NaN, or code -1.
+ */
+final class BlockFormat {
+
+    static final int MAGIC = 0x4F484231; // "OHB1"
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    static final int LONG_COLUMNS = 3;
+    static final int DOUBLE_COLUMNS = 6;
+    static final int INT_COLUMNS = 3;
+    static final int ROW_BYTES = 8 * LONG_COLUMNS + 8 * DOUBLE_COLUMNS + 4 * INT_COLUMNS;
+
+    // column ordinals within their group
+    static final int TIMESTAMP = 0, OFFER_ID = 1, MACHINE_ID = 2;
+    static final int DPH_TOTAL = 0, MIN_BID = 1, RELIABILITY = 2, GPU_TOTAL_RAM = 3, DLPERF = 4, INET_DOWN = 5;
+    static final int NUM_GPUS = 0, GPU_NAME = 1, GEOLOCATION = 2;
+
+    /** Size of an index entry: block offset, rows, padding, min and max timestamps. */
+    static final int INDEX_ENTRY_BYTES = 32;
+
+    private BlockFormat() {
+    }
+
+    static int align8(int n) {
+        return (n + 7) & ~7;
+    }
+
+    static long longColumn(long dataStart, int rows, int column) {
+        return dataStart + (long) column * rows * 8;
+    }
+
+    static long doubleColumn(long dataStart, int rows, int column) {
+        return dataStart + (long) (LONG_COLUMNS + column) * rows * 8;
+    }
+
+    static long intColumn(long dataStart, int rows, int column) {
+        return dataStart + (long) (LONG_COLUMNS + DOUBLE_COLUMNS) * rows * 8 + (long) column * rows * 4;
+    }
+}
@@ -0,0 +1,202 @@
+package fr.mrqsdf.vastai4j.history;
+
+import fr.mrqsdf.vastai4j.http.VastAIException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Forward-only cursor over the rows of an {@link OfferHistoryStore} scan.
+ * <p>
+ * The cursor is a flyweight: {@link #next()} moves to the next matching row and the getters read its columns
+ * directly from the mapped segment, so scanning millions of rows allocates nothing per row. A cursor sees the
+ * blocks flushed when it was created and must be used by a single thread.
+ * </p>
+ * <pre>{@code
+ * HistoryCursor c = history.scan(from, to, "RTX 4090");
+ * while (c.next()) {
+ *     if (c.dphTotal() < best) best = c.dphTotal();
+ * }
+ * }</pre>
+ */
+public final class HistoryCursor {
+
+    private final Segment[] segments;
+    private final long from;
+    private final long to;
+    private final String gpuName;
+
+    private int segmentIndex = -1;
+    private Block[] blocks;
+    private int blockIndex;
+    private ByteBuffer buf;
+
+    private String[] dictionary;
+    private int gpuCode;
+    private int blockRows;
+    private int row;
+    private int timestamps, offerIds, machineIds;
+    private int dph, minBid, reliability, gpuRam, dlperf, inetDown;
+    private int numGpus, gpuNames, geolocations;
+
+    HistoryCursor(Segment[] segments, long from, long to, String gpuName) {
+        this.segments = segments;
+        this.from = from;
+        this.to = to;
+        this.gpuName = gpuName;
+    }
+
+    /**
+     * Moves to the next row matching the time range and GPU model.
+     * @return false once every row has been visited.
+     */
+    public boolean next() {
+        while (true) {
+            while (++row < blockRows) {
+                long ts = buf.getLong(timestamps + row * 8);
+                if (ts >= from && ts < to && (gpuName == null || buf.getInt(gpuNames + row * 4) == gpuCode)) {
+                    return true;
+                }
+            }
+            if (!nextBlock()) {
+                blockRows = 0;
+                row = 0;
+                return false;
+            }
+        }
+    }
+
+    private boolean nextBlock() {
+        while (true) {
+            while (blocks != null && blockIndex < blocks.length) {
+                Block block = blocks[blockIndex++];
+                if (!block.overlaps(from, to)) continue;
+                if (gpuName != null && (gpuCode = block.codeOf(buf, gpuName)) < 0) continue;
+                enter(block);
+                return true;
+            }
+            if (++segmentIndex >= segments.length) return false;
+            Segment segment = segments[segmentIndex];
+            blocks = segment.blocks();
+            blockIndex = 0;
+            try {
+                buf = blocks.length == 0 ? null : segment.map();
+            } catch (IOException e) {
+                throw new VastAIException("Cannot map " + segment.path(), e);
+            }
+        }
+    }
+
+    private void enter(Block block) {
+        int start = (int) block.dataStart(buf);
+        int rows = block.rows;
+        dictionary = block.dictionary(buf);
+        timestamps = (int) BlockFormat.longColumn(start, rows, BlockFormat.TIMESTAMP);
+        offerIds = (int) BlockFormat.longColumn(start, rows, BlockFormat.OFFER_ID);
+        machineIds = (int) BlockFormat.longColumn(start, rows, BlockFormat.MACHINE_ID);
+        dph = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.DPH_TOTAL);
+        minBid = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.MIN_BID);
+        reliability = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.RELIABILITY);
+        gpuRam = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.GPU_TOTAL_RAM);
+        dlperf = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.DLPERF);
+        inetDown = (int) BlockFormat.doubleColumn(start, rows, BlockFormat.INET_DOWN);
+        numGpus = (int) BlockFormat.intColumn(start, rows, BlockFormat.NUM_GPUS);
+        gpuNames = (int) BlockFormat.intColumn(start, rows, BlockFormat.GPU_NAME);
+        geolocations = (int) BlockFormat.intColumn(start, rows, BlockFormat.GEOLOCATION);
+        blockRows = rows;
+        row = -1;
+    }
+
+    /**
+     * @return the time of the snapshot holding the current row, in epoch milliseconds.
+     */
+    public long timestampMillis() {
+        return buf.getLong(timestamps + row * 8);
+    }
+
+    /**
+     * @return the offer id, or -1 if it was not provided.
+     */
+    public long offerId() {
+        return orMinusOne(buf.getLong(offerIds + row * 8));
+    }
+
+    /**
+     * @return the machine id, or -1 if it was not provided.
+     */
+    public long machineId() {
+        return orMinusOne(buf.getLong(machineIds + row * 8));
+    }
+
+    /**
+     * @return the GPU model, or null if it was not provided.
+     */
+    public String gpuName() {
+        return decode(buf.getInt(gpuNames + row * 4));
+    }
+
+    /**
+     * @return the geolocation, or null if it was not provided.
+     */
+    public String geolocation() {
+        return decode(buf.getInt(geolocations + row * 4));
+    }
+
+    /**
+     * @return the number of GPUs, or -1 if it was not provided.
+     */
+    public int numGpus() {
+        int v = buf.getInt(numGpus + row * 4);
+        return v == BlockFormat.NULL_INT ? -1 : v;
+    }
+
+    /**
+     * @return the total price per hour in USD, NaN if it was not provided.
+     */
+    public double dphTotal() {
+        return buf.getDouble(dph + row * 8);
+    }
+
+    /**
+     * @return the minimum bid per hour in USD, NaN if it was not provided.
+     */
+    public double minBid() {
+        return buf.getDouble(minBid + row * 8);
+    }
+
+    /**
+     * @return the reliability score, NaN if it was not provided.
+     */
+    public double reliability() {
+        return buf.getDouble(reliability + row * 8);
+    }
+
+    /**
+     * @return the total GPU RAM in GiB, NaN if it was not provided.
+     */
+    public double gpuTotalRam() {
+        return buf.getDouble(gpuRam + row * 8);
+    }
+
+    /**
+     * @return the DLPerf score, NaN if it was not provided.
+     */
+    public double dlperf() {
+        return buf.getDouble(dlperf + row * 8);
+    }
+
+    /**
+     * @return the download bandwidth in Mbps, NaN if it was not provided.
+     */
+    public double inetDown() {
+        return buf.getDouble(inetDown + row * 8);
+    }
+
+    private String decode(int code) {
+        return code < 0 ? null : dictionary[code];
+    }
+
+    private static long orMinusOne(long v) {
+        return v == BlockFormat.NULL_LONG ? -1 : v;
+    }
+}
@@ -0,0 +1,279 @@
+package fr.mrqsdf.vastai4j.history;
+
+import fr.mrqsdf.vastai4j.http.VastAIException;
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, columnar on-disk store of offer snapshots, e.g. to keep the price history of every GPU model.
+ * <p>
+ * Rows (a timestamp plus the key {@link Offer} fields: id, machine, GPU model and count, geolocation, price,
+ * minimum bid, reliability, GPU RAM, DLPerf, download bandwidth) are buffered and written by blocks of
+ * {@link Builder#rowsPerBlock} rows. Each block stores one primitive array per column and a small dictionary
+ * for the strings. Blocks are appended to segment files ({@code segment-000000.ohs}, ...) next to a sparse
+ * index ({@code .idx}) holding the offset and time range of each block.
+ * </p>
+ * <p>
+ * Reads map the segments with {@link java.nio.channels.FileChannel#map} and walk the columns in place:
+ * {@link #scan} skips the blocks outside the time range, or without the requested GPU model in their dictionary,
+ * and never deserializes JSON nor allocates per row. Only flushed blocks are visible to readers.
+ * </p>
+ * <pre>{@code
+ * try (OfferHistoryStore history = OfferHistoryStore.open(Path.of("history"))) {
+ *     history.append(Instant.now(), vast.offers().search(query));
+ *     HistoryCursor c = history.scan(from, to, "RTX 4090");
+ *     while (c.next()) stats.accept(c.dphTotal());
+ * }
+ * }</pre>
+ * Writes are serialized; scans may run concurrently with them from any thread.
+ */
+public final class OfferHistoryStore implements AutoCloseable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".ohs";
+
+    private final Path directory;
+    private final int rowsPerBlock;
+    private final long rowsPerSegment;
+    private final boolean sync;
+    private final BlockBuilder pending;
+    private volatile Segment[] segments;
+    private boolean closed;
+
+    private OfferHistoryStore(Builder builder) {
+        this.directory = builder.directory;
+        this.rowsPerBlock = builder.rowsPerBlock;
+        this.rowsPerSegment = builder.rowsPerSegment;
+        this.sync = builder.sync;
+        this.pending = new BlockBuilder(rowsPerBlock);
+        try {
+            Files.createDirectories(directory);
+            List<Segment> list = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(OfferHistoryStore::isSegment).sorted().toList()) {
+                    list.add(Segment.open(file));
+                }
+            }
+            this.segments = list.toArray(new Segment[0]);
+        } catch (IOException e) {
+            throw new VastAIException("Cannot open offer history in " + directory, e);
+        }
+    }
+
+    /**
+     * Creates a new builder for a store in {@code directory}, with blocks of 4096 rows and segments of about
+     * one million rows.
+     * @param directory the directory holding the segments, created if needed
+     * @return a new Builder instance
+     */
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Opens (or creates) a store with the default settings.
+     * @param directory the directory holding the segments, created if needed
+     * @return the store
+     */
+    public static OfferHistoryStore open(Path directory) {
+        return builder(directory).build();
+    }
+
+    /**
+     * Records a snapshot of offers. Rows are written once a block is full, or on {@link #flush()}.
+     * @param timestampMillis the time of the snapshot, in epoch milliseconds
+     * @param offers the offers seen at that time
+     * @return the number of rows added
+     */
+    public synchronized int append(long timestampMillis, Iterable<? extends Offer> offers) {
+        ensureOpen();
+        int added = 0;
+        for (Offer offer : offers) {
+            if (offer == null) continue;
+            pending.add(timestampMillis, offer);
+            added++;
+            if (pending.isFull()) writePending();
+        }
+        return added;
+    }
+
+    /**
+     * Records a snapshot of offers.
+     * @param timestamp the time of the snapshot
+     * @param offers the offers seen at that time
+     * @return the number of rows added
+     */
+    public int append(Instant timestamp, Iterable<? extends Offer> offers) {
+        return append(timestamp.toEpochMilli(), offers);
+    }
+
+    /**
+     * Writes the buffered rows as a (possibly partial) block, making them visible to scans.
+     */
+    public synchronized void flush() {
+        ensureOpen();
+        if (!pending.isEmpty()) writePending();
+    }
+
+    /**
+     * Scans the rows recorded in {@code [fromMillis, toMillis)}.
+     * @param fromMillis the inclusive lower bound, in epoch milliseconds
+     * @param toMillis the exclusive upper bound, in epoch milliseconds
+     * @param gpuName the GPU model to keep (e.g. {@code "RTX 4090"}), or null for every model
+     * @return a cursor positioned before the first matching row
+     */
+    public HistoryCursor scan(long fromMillis, long toMillis, String gpuName) {
+        return new HistoryCursor(segments, fromMillis, toMillis, gpuName);
+    }
+
+    /**
+     * Scans the rows recorded in {@code [from, to)}.
+     * @param from the inclusive lower bound
+     * @param to the exclusive upper bound
+     * @param gpuName the GPU model to keep, or null for every model
+     * @return a cursor positioned before the first matching row
+     */
+    public HistoryCursor scan(Instant from, Instant to, String gpuName) {
+        return scan(from.toEpochMilli(), to.toEpochMilli(), gpuName);
+    }
+
+    /**
+     * @return the number of rows visible to scans (buffered rows excluded).
+     */
+    public long rowCount() {
+        long rows = 0;
+        for (Segment segment : segments) rows += segment.rows();
+        return rows;
+    }
+
+    /**
+     * @return the number of buffered rows not yet written.
+     */
+    public synchronized int pendingRows() {
+        return pending.rows();
+    }
+
+    /**
+     * @return the number of segment files.
+     */
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return the directory of the store.
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Flushes the buffered rows and releases the files. Cursors already open stay readable.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        if (!pending.isEmpty()) writePending();
+        closed = true;
+        try {
+            for (Segment segment : segments) segment.close();
+        } catch (IOException e) {
+            throw new VastAIException("Cannot close offer history in " + directory, e);
+        }
+    }
+
+    private void writePending() {
+        int rows = pending.rows();
+        long min = pending.minTimestamp();
+        long max = pending.maxTimestamp();
+        ByteBuffer block = pending.encode();
+        try {
+            Segment[] current = segments;
+            Segment active = current.length == 0 ? null : current[current.length - 1];
+            if (active == null || active.rows() >= rowsPerSegment) {
+                if (active != null) active.seal();
+                Segment created = Segment.create(directory.resolve(String.format("%s%06d%s", PREFIX, current.length, SUFFIX)));
+                Segment[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = created;
+                segments = next;
+                active = created;
+            }
+            active.append(block, rows, min, max, sync);
+        } catch (IOException e) {
+            throw new VastAIException("Cannot write offer history in " + directory, e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Offer history is closed");
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /**
+     * Builder class for constructing OfferHistoryStore instances.
+     */
+    public static final class Builder {
+        private final Path directory;
+        private int rowsPerBlock = 4096;
+        private long rowsPerSegment = 1 << 20;
+        private boolean sync;
+
+        private Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "directory");
+        }
+
+        /**
+         * Sets the number of rows buffered before a block is written (and the granularity of the time index).
+         * @param rowsPerBlock the block size, at least 1
+         * @return the builder instance
+         */
+        public Builder rowsPerBlock(int rowsPerBlock) {
+            if (rowsPerBlock < 1) throw new IllegalArgumentException("rowsPerBlock must be >= 1");
+            this.rowsPerBlock = rowsPerBlock;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows after which a new segment file is started.
+         * @param rowsPerSegment the segment size, at least 1
+         * @return the builder instance
+         */
+        public Builder rowsPerSegment(long rowsPerSegment) {
+            if (rowsPerSegment < 1) throw new IllegalArgumentException("rowsPerSegment must be >= 1");
+            this.rowsPerSegment = rowsPerSegment;
+            return this;
+        }
+
+        /**
+         * Forces every written block to the storage device (off by default).
+         * @param sync whether to fsync after each block
+         * @return the builder instance
+         */
+        public Builder sync(boolean sync) {
+            this.sync = sync;
+            return this;
+        }
+
+        /**
+         * Builds the OfferHistoryStore instance, opening the existing segments.
+         * @return the constructed OfferHistoryStore
+         */
+        public OfferHistoryStore build() {
+            return new OfferHistoryStore(this);
+        }
+    }
+}
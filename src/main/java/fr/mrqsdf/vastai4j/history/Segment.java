@@ -0,0 +1,184 @@
+package fr.mrqsdf.vastai4j.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One segment: an append-only data file of blocks ({@code .ohs}) and its sparse index ({@code .idx}), one
+ * fixed-size entry per block holding the offset, row count and time range.
+ * <p>
+ * Readers see a volatile snapshot of the committed blocks and a read-only mapping of the data file, remapped
+ * when the segment has grown. Only the store writes, under its own lock.
+ * </p>
+ */
+final class Segment implements AutoCloseable {
+
+    private final Path data;
+    private final Path index;
+    private volatile Block[] blocks;
+    private volatile long committedBytes;
+    private volatile long rows;
+    private FileChannel dataOut;
+    private FileChannel indexOut;
+    private MappedByteBuffer mapped;
+
+    private Segment(Path data, Path index, Block[] blocks, long committedBytes) {
+        this.data = data;
+        this.index = index;
+        this.blocks = blocks;
+        this.committedBytes = committedBytes;
+        for (Block block : blocks) rows += block.rows;
+    }
+
+    static Segment create(Path data) throws IOException {
+        Files.createFile(data);
+        Path index = indexOf(data);
+        Files.deleteIfExists(index);
+        Files.createFile(index);
+        return new Segment(data, index, new Block[0], 0);
+    }
+
+    /**
+     * Opens an existing segment. The index is trusted if it ends exactly where the data file ends; otherwise
+     * (crash between the two writes) it is rebuilt from the block headers and a torn trailing block is cut off.
+     */
+    static Segment open(Path data) throws IOException {
+        Path index = indexOf(data);
+        long size = Files.size(data);
+        List<Block> blocks = readIndex(index);
+        long end = blocks.isEmpty() ? 0 : endOf(data, blocks.get(blocks.size() - 1));
+        if (end != size) {
+            blocks = rebuild(data, size);
+            end = blocks.isEmpty() ? 0 : endOf(data, blocks.get(blocks.size() - 1));
+            try (FileChannel ch = FileChannel.open(data, StandardOpenOption.WRITE)) {
+                ch.truncate(end);
+            }
+            writeIndex(index, blocks);
+        }
+        return new Segment(data, index, blocks.toArray(new Block[0]), end);
+    }
+
+    Path path() {
+        return data;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    Block[] blocks() {
+        return blocks;
+    }
+
+    /**
+     * Appends an encoded block: data first, then its index entry, so an index entry never points past the data.
+     */
+    void append(ByteBuffer encoded, int blockRows, long minTimestamp, long maxTimestamp, boolean sync) throws IOException {
+        if (dataOut == null) {
+            dataOut = FileChannel.open(data, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            indexOut = FileChannel.open(index, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        long offset = committedBytes;
+        while (encoded.hasRemaining()) dataOut.write(encoded);
+        ByteBuffer entry = ByteBuffer.allocate(BlockFormat.INDEX_ENTRY_BYTES).order(BlockFormat.ORDER);
+        entry.putLong(offset).putInt(blockRows).putInt(0).putLong(minTimestamp).putLong(maxTimestamp).flip();
+        while (entry.hasRemaining()) indexOut.write(entry);
+        if (sync) {
+            dataOut.force(false);
+            indexOut.force(false);
+        }
+        Block[] next = Arrays.copyOf(blocks, blocks.length + 1);
+        next[blocks.length] = new Block(offset, blockRows, minTimestamp, maxTimestamp);
+        rows += blockRows;
+        committedBytes = offset + encoded.limit();
+        blocks = next;
+    }
+
+    /**
+     * @return a read-only mapping covering at least the committed blocks.
+     */
+    synchronized ByteBuffer map() throws IOException {
+        long size = committedBytes;
+        if (mapped == null || mapped.capacity() < size) {
+            try (FileChannel ch = FileChannel.open(data, StandardOpenOption.READ)) {
+                mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            mapped.order(BlockFormat.ORDER);
+        }
+        return mapped.duplicate().order(BlockFormat.ORDER);
+    }
+
+    /** Releases the write channels; the segment stays readable. */
+    void seal() throws IOException {
+        if (dataOut != null) {
+            dataOut.close();
+            indexOut.close();
+            dataOut = null;
+            indexOut = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        seal();
+    }
+
+    private static Path indexOf(Path data) {
+        String name = data.getFileName().toString();
+        return data.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".idx");
+    }
+
+    private static List<Block> readIndex(Path index) throws IOException {
+        List<Block> out = new ArrayList<>();
+        if (!Files.exists(index)) return out;
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(index)).order(BlockFormat.ORDER);
+        while (buf.remaining() >= BlockFormat.INDEX_ENTRY_BYTES) {
+            long offset = buf.getLong();
+            int rows = buf.getInt();
+            buf.getInt();
+            out.add(new Block(offset, rows, buf.getLong(), buf.getLong()));
+        }
+        return out;
+    }
+
+    private static void writeIndex(Path index, List<Block> blocks) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(blocks.size() * BlockFormat.INDEX_ENTRY_BYTES).order(BlockFormat.ORDER);
+        for (Block b : blocks) buf.putLong(b.offset).putInt(b.rows).putInt(0).putLong(b.minTimestamp).putLong(b.maxTimestamp);
+        Files.write(index, buf.array());
+    }
+
+    private static List<Block> rebuild(Path data, long size) throws IOException {
+        List<Block> out = new ArrayList<>();
+        if (size == 0) return out;
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(data, StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(BlockFormat.ORDER);
+        }
+        long offset = 0;
+        while (offset < size) {
+            Block block = Block.read(buf, offset);
+            if (block == null) break;
+            out.add(block);
+            offset = block.end(buf);
+        }
+        return out;
+    }
+
+    private static long endOf(Path data, Block last) throws IOException {
+        long size = Files.size(data);
+        if (last.offset >= size) return -1;
+        try (FileChannel ch = FileChannel.open(data, StandardOpenOption.READ)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(BlockFormat.ORDER);
+            Block checked = Block.read(buf, last.offset);
+            return checked == null ? -1 : checked.end(buf);
+        }
+    }
+}
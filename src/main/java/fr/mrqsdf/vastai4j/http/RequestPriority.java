@@ -0,0 +1,14 @@
+package fr.mrqsdf.vastai4j.http;
+
+/**
+ * Scheduling lane of a Vast.ai request. When the client's concurrency budget is exhausted, queued requests
+ * are admitted lane by lane: every waiting CRITICAL request goes before any INTERACTIVE one, and so on.
+ */
+public enum RequestPriority {
+    /** Calls that stop billing or change money-related state (destroy, stop, rent...). */
+    CRITICAL,
+    /** Calls a user or workflow is actively waiting on (default). */
+    INTERACTIVE,
+    /** Polling and housekeeping that can always wait (monitor ticks, market refreshes...). */
+    BACKGROUND
+}
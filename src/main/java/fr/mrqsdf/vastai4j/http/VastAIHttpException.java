@@ -0,0 +1,53 @@
+package fr.mrqsdf.vastai4j.http;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * {@link VastAIException} raised when Vast.ai answers with an HTTP error status (400 and above).
+ * It keeps the status code, the raw error body and the server's {@code Retry-After} hint so callers and
+ * the client's retry policy can tell transient failures from permanent ones.
+ */
+public class VastAIHttpException extends VastAIException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String body;
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new VastAIHttpException.
+     *
+     * @param statusCode the HTTP status code.
+     * @param body       the raw response body.
+     * @param retryAfter the delay requested through {@code Retry-After}, or null if absent.
+     */
+    public VastAIHttpException(int statusCode, String body, Duration retryAfter) {
+        super("HTTP " + statusCode + " - " + body);
+        this.statusCode = statusCode;
+        this.body = body;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the HTTP status code returned by Vast.ai.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the raw response body.
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return the delay requested through the {@code Retry-After} header, if any.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -2,8 +2,10 @@ package fr.mrqsdf.vastai4j.http;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -18,6 +20,9 @@ public final class VastAIRequest {
     private final Map<String, String> queryParams;
     private final Object body;
     private final Map<String, String> headers;
+    private final Boolean idempotent;
+    private final RequestPriority priority;
+    private final List<String> invalidates;
 
     /**
      * Private constructor used by the builder.
@@ -29,6 +34,9 @@ public final class VastAIRequest {
         this.queryParams = Collections.unmodifiableMap(new LinkedHashMap<>(builder.queryParams));
         this.body = builder.body;
         this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(builder.headers));
+        this.idempotent = builder.idempotent;
+        this.priority = builder.priority;
+        this.invalidates = List.copyOf(builder.invalidates);
     }
 
     /**
@@ -71,6 +79,35 @@ public final class VastAIRequest {
         return headers;
     }
 
+    /**
+     * Indicates whether the request can safely be sent again after a failure whose outcome is unknown.
+     * Unless set explicitly on the builder, GET, PUT and DELETE are idempotent while POST and PATCH are not.
+     * @return true if the request may be retried after a server or network error
+     */
+    public boolean isIdempotent() {
+        if (idempotent != null) {
+            return idempotent;
+        }
+        return method != HttpMethod.POST && method != HttpMethod.PATCH;
+    }
+
+    /**
+     * Gets the scheduling lane of the request.
+     * @return the priority, {@link RequestPriority#INTERACTIVE} unless set on the builder
+     */
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the extra path prefixes whose cached responses become outdated once this request is sent.
+     * The request's own path is always invalidated for methods other than GET.
+     * @return an unmodifiable list of path prefixes
+     */
+    public List<String> getInvalidates() {
+        return invalidates;
+    }
+
     /**
      * Converts the query parameters to a URL-encoded query string.
      * @return the query string starting with '?', or an empty string if no parameters
@@ -105,6 +142,9 @@ public final class VastAIRequest {
         private final Map<String, String> queryParams = new LinkedHashMap<>();
         private Object body;
         private final Map<String, String> headers = new LinkedHashMap<>();
+        private Boolean idempotent;
+        private RequestPriority priority = RequestPriority.INTERACTIVE;
+        private final List<String> invalidates = new ArrayList<>();
 
         private Builder() {
         }
@@ -230,6 +270,41 @@ public final class VastAIRequest {
             return this;
         }
 
+        /**
+         * Overrides the idempotency derived from the HTTP method, e.g. for a read-only POST search or a PUT
+         * that must not be replayed.
+         * @param idempotent whether the request may be retried after a server or network error
+         * @return the builder instance
+         */
+        public Builder idempotent(boolean idempotent) {
+            this.idempotent = idempotent;
+            return this;
+        }
+
+        /**
+         * Sets the scheduling lane used when the client's concurrency budget is exhausted.
+         * @param priority the priority of the request
+         * @return the builder instance
+         */
+        public Builder priority(RequestPriority priority) {
+            this.priority = Objects.requireNonNull(priority, "priority");
+            return this;
+        }
+
+        /**
+         * Declares other resources modified by this request, e.g. {@code /instances/} for a write to
+         * {@code /instances/{id}/}, so the client drops their cached responses.
+         * @param pathPrefixes the paths, or path prefixes, to invalidate
+         * @return the builder instance
+         */
+        public Builder invalidates(String... pathPrefixes) {
+            for (String prefix : pathPrefixes) {
+                Objects.requireNonNull(prefix, "pathPrefix");
+                invalidates.add(prefix.startsWith("/") ? prefix : "/" + prefix);
+            }
+            return this;
+        }
+
         /**
          * Builds the VastAIRequest instance.
          * @return the constructed VastAIRequest
@@ -0,0 +1,35 @@
+package fr.mrqsdf.vastai4j.market;
+
+import java.util.Arrays;
+
+/**
+ * Plain {@code long[]} bitset helpers shared by the market tables, cheaper than {@link java.util.BitSet}
+ * for fixed-size columns.
+ */
+final class Bits {
+
+    private Bits() {
+    }
+
+    static long[] allocate(int bits) {
+        return new long[(bits + 63) >>> 6];
+    }
+
+    static boolean get(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] words, int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    static long[] grow(long[] words, int bits) {
+        int needed = (bits + 63) >>> 6;
+        return needed <= words.length ? words : Arrays.copyOf(words, Math.max(needed, words.length * 2));
+    }
+
+    static long[] trim(long[] words, int bits) {
+        int needed = (bits + 63) >>> 6;
+        return needed == words.length ? words : Arrays.copyOf(words, needed);
+    }
+}
@@ -0,0 +1,35 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of {@link CapacityPlanner#plan}.
+ *
+ * @param offers        the chosen offers, cheapest first (empty if no plan was found).
+ * @param dphTotal      the summed {@code dph_total} of the chosen offers.
+ * @param gpuTotalRam   the summed GPU RAM of the chosen offers.
+ * @param numGpus       the summed number of GPUs.
+ * @param cpuRam        the summed CPU RAM.
+ * @param feasible      true if the chosen offers satisfy the requirement.
+ * @param optimal       true if the search completed within its budget over every eligible offer, so the
+ *                      plan is proven cheapest (or, when not feasible, no plan exists).
+ * @param candidates    the number of offers the search considered after filtering and reduction.
+ * @param nodesExplored the number of search nodes visited.
+ * @param elapsed       the planning time.
+ */
+public record CapacityPlan(
+        List<Offer> offers,
+        double dphTotal,
+        double gpuTotalRam,
+        int numGpus,
+        double cpuRam,
+        boolean feasible,
+        boolean optimal,
+        int candidates,
+        long nodesExplored,
+        Duration elapsed
+) {
+}
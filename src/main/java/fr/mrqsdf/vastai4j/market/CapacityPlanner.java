@@ -0,0 +1,434 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the cheapest set of offers meeting a {@link CapacityRequirement}.
+ * <p>
+ * The problem is a multi-dimensional covering knapsack: minimize the summed {@code dph_total} subject to
+ * minimum totals of GPU RAM, GPUs and CPU RAM, with at most {@code maxNodes} offers. The planner solves it
+ * by depth-first branch-and-bound:
+ * </p>
+ * <ul>
+ *     <li>offers failing the per-node conditions are dropped, and among offers with identical resources only
+ *     the {@code maxNodes} cheapest are kept (the others can never improve a plan);</li>
+ *     <li>a greedy plan seeds the incumbent, so pruning starts immediately;</li>
+ *     <li>every node is bounded by the fractional (LP) cost of covering the largest remaining need, from
+ *     offers presorted by price per unit of each resource;</li>
+ *     <li>the first include/exclude decisions are expanded into independent subtrees explored in parallel on a
+ *     fork-join pool, sharing the incumbent.</li>
+ * </ul>
+ * <p>
+ * The search stops at the time budget and returns the best plan found; {@link CapacityPlan#optimal()} tells
+ * whether it was proven optimal. The budget bounds the search itself; filtering and sorting the input come on
+ * top and are linearithmic in the number of offers. Instances are immutable and can plan concurrently.
+ * </p>
+ */
+public final class CapacityPlanner {
+
+    private static final double EPS = 1e-9;
+    private static final int DIMS = 3; // gpu ram, gpus, cpu ram
+
+    private final Duration timeBudget;
+    private final ForkJoinPool pool;
+    private final int maxCandidates;
+
+    private CapacityPlanner(Builder builder) {
+        this.timeBudget = builder.timeBudget;
+        this.pool = builder.pool;
+        this.maxCandidates = builder.maxCandidates;
+    }
+
+    /**
+     * Creates a new builder (100 ms budget, common fork-join pool, 2048 candidates).
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Plans over a snapshot.
+     * @param requirement the requirement.
+     * @param table the offers.
+     * @return the plan.
+     */
+    public CapacityPlan plan(CapacityRequirement requirement, OfferTable table) {
+        return plan(requirement, table.asList());
+    }
+
+    /**
+     * Plans over a list of offers.
+     * @param requirement the requirement.
+     * @param offers the offers, e.g. an {@code OfferService} result.
+     * @return the plan.
+     */
+    public CapacityPlan plan(CapacityRequirement requirement, Collection<? extends Offer> offers) {
+        long start = System.nanoTime();
+        Problem problem = new Problem(requirement, offers, maxCandidates);
+        Search search = new Search(problem, start + timeBudget.toNanos());
+        search.greedy();
+        if (problem.n > 0 && !problem.satisfied(new double[DIMS])) {
+            pool.invoke(search.root(pool.getParallelism()));
+        }
+        return search.result(start);
+    }
+
+    /** Candidate offers as primitive arrays, in branching order. */
+    private static final class Problem {
+        final double[] need = new double[DIMS];
+        final int maxNodes;
+        final Offer[] offers;
+        final double[] cost;
+        final double[][] res;
+        /** Per dimension: candidates sorted by cost per unit of that resource (only those providing it). */
+        final int[][] byRatio = new int[DIMS][];
+        final int n;
+        final boolean truncated;
+
+        Problem(CapacityRequirement req, Collection<? extends Offer> all, int maxCandidates) {
+            need[0] = req.getMinTotalGpuRam();
+            need[1] = req.getMinTotalGpus();
+            need[2] = req.getMinTotalCpuRam();
+            maxNodes = req.getMaxNodes();
+
+            // Eligible offers, keeping only the maxNodes cheapest of each identical resource vector.
+            Map<List<Double>, List<Offer>> groups = new HashMap<>();
+            for (Offer o : all) {
+                if (o == null || !req.accepts(o)) continue;
+                double[] r = resources(o);
+                if (!contributes(r)) continue;
+                groups.computeIfAbsent(List.of(r[0], r[1], r[2]), k -> new ArrayList<>()).add(o);
+            }
+            List<Offer> eligible = new ArrayList<>();
+            Comparator<Offer> cheapest = Comparator.comparingDouble(Offer::dphTotal)
+                    .thenComparing(o -> o.id() == null ? Long.MAX_VALUE : o.id());
+            for (List<Offer> group : groups.values()) {
+                group.sort(cheapest);
+                eligible.addAll(group.subList(0, Math.min(maxNodes, group.size())));
+            }
+
+            // Branch on the offers giving the most coverage per dollar first.
+            eligible.sort(Comparator.comparingDouble((Offer o) -> o.dphTotal() / coverage(resources(o)))
+                    .thenComparing(cheapest));
+            truncated = eligible.size() > maxCandidates;
+            if (truncated) eligible = reduce(eligible, maxCandidates);
+
+            n = eligible.size();
+            offers = eligible.toArray(new Offer[0]);
+            cost = new double[n];
+            res = new double[n][];
+            for (int i = 0; i < n; i++) {
+                cost[i] = offers[i].dphTotal();
+                res[i] = resources(offers[i]);
+            }
+            for (int d = 0; d < DIMS; d++) {
+                if (need[d] <= 0) {
+                    byRatio[d] = new int[0];
+                    continue;
+                }
+                final int dim = d;
+                byRatio[d] = IntStream.range(0, n).filter(i -> res[i][dim] > 0).boxed()
+                        .sorted(Comparator.comparingDouble((Integer i) -> cost[i] / res[i][dim]).thenComparing(i -> i))
+                        .mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        /** Keeps the best candidates by overall coverage and by price per unit of each needed resource. */
+        private List<Offer> reduce(List<Offer> sorted, int limit) {
+            Set<Offer> kept = new LinkedHashSet<>(sorted.subList(0, limit / 2));
+            int perDim = Math.max(1, (limit - kept.size()) / Math.max(1, activeDims()));
+            for (int d = 0; d < DIMS; d++) {
+                if (need[d] <= 0) continue;
+                final int dim = d;
+                sorted.stream()
+                        .filter(o -> resources(o)[dim] > 0)
+                        .sorted(Comparator.comparingDouble((Offer o) -> o.dphTotal() / resources(o)[dim]))
+                        .limit(perDim)
+                        .forEach(kept::add);
+            }
+            List<Offer> out = new ArrayList<>(sorted);
+            out.retainAll(kept); // back to branching order
+            return out;
+        }
+
+        private int activeDims() {
+            int k = 0;
+            for (double v : need) if (v > 0) k++;
+            return k;
+        }
+
+        private boolean contributes(double[] r) {
+            for (int d = 0; d < DIMS; d++) if (need[d] > 0 && r[d] > 0) return true;
+            return false;
+        }
+
+        /** Share of the requirement an offer covers on its own (each dimension capped at 1). */
+        private double coverage(double[] r) {
+            double c = 0;
+            for (int d = 0; d < DIMS; d++) if (need[d] > 0) c += Math.min(1, r[d] / need[d]);
+            return Math.max(c, EPS);
+        }
+
+        boolean satisfied(double[] have) {
+            for (int d = 0; d < DIMS; d++) if (have[d] < need[d] - EPS) return false;
+            return true;
+        }
+
+        static double[] resources(Offer o) {
+            double gpus = o.numGpus() == null ? 0 : o.numGpus();
+            double gpuRam = o.gpuTotalRamGiB() != null ? o.gpuTotalRamGiB()
+                    : o.gpuRamGiB() != null ? o.gpuRamGiB() * gpus : 0;
+            double cpuRam = o.cpuRamGiB() == null ? 0 : o.cpuRamGiB();
+            return new double[]{gpuRam, gpus, cpuRam};
+        }
+    }
+
+    /** Shared state of one planning run. */
+    private static final class Search {
+        final Problem p;
+        final long deadline;
+        final LongAdder nodes = new LongAdder();
+        volatile boolean timedOut;
+        volatile double bestCost = Double.POSITIVE_INFINITY;
+        int[] best;
+
+        Search(Problem p, long deadline) {
+            this.p = p;
+            this.deadline = deadline;
+        }
+
+        void greedy() {
+            double[] have = new double[DIMS];
+            boolean[] used = new boolean[p.n];
+            int[] chosen = new int[p.maxNodes];
+            int count = 0;
+            double total = 0;
+            while (!p.satisfied(have) && count < p.maxNodes) {
+                int pick = -1;
+                double pickRatio = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < p.n; i++) {
+                    if (used[i]) continue;
+                    double gain = 0;
+                    for (int d = 0; d < DIMS; d++) {
+                        double missing = p.need[d] - have[d];
+                        if (missing > EPS) gain += Math.min(p.res[i][d], missing) / p.need[d];
+                    }
+                    if (gain <= 0) continue;
+                    double ratio = p.cost[i] / gain;
+                    if (ratio < pickRatio) {
+                        pickRatio = ratio;
+                        pick = i;
+                    }
+                }
+                if (pick < 0) break;
+                used[pick] = true;
+                chosen[count++] = pick;
+                total += p.cost[pick];
+                for (int d = 0; d < DIMS; d++) have[d] += p.res[pick][d];
+            }
+            if (p.satisfied(have)) offer(total, chosen, count);
+        }
+
+        synchronized void offer(double cost, int[] stack, int count) {
+            if (cost < bestCost - EPS) {
+                bestCost = cost;
+                best = Arrays.copyOf(stack, count);
+            }
+        }
+
+        /** Expands the first decisions into independent subtrees. */
+        RecursiveAction root(int parallelism) {
+            int depth = Math.min(p.n, 32 - Integer.numberOfLeadingZeros(Math.max(1, parallelism * 4 - 1)));
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    List<Subtree> tasks = new ArrayList<>();
+                    expand(0, depth, 0, new double[DIMS], 0, new int[p.maxNodes], tasks);
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            };
+        }
+
+        private void expand(int i, int depth, double cost, double[] have, int count, int[] stack, List<Subtree> out) {
+            if (i == depth || p.satisfied(have) || count == p.maxNodes) {
+                out.add(new Subtree(this, i, cost, have.clone(), count, stack.clone()));
+                return;
+            }
+            // include first: those subtrees tend to find good incumbents early
+            stack[count] = i;
+            for (int d = 0; d < DIMS; d++) have[d] += p.res[i][d];
+            expand(i + 1, depth, cost + p.cost[i], have, count + 1, stack, out);
+            for (int d = 0; d < DIMS; d++) have[d] -= p.res[i][d];
+            expand(i + 1, depth, cost, have, count, stack, out);
+        }
+
+        boolean helps(int i, double[] have) {
+            for (int d = 0; d < DIMS; d++) {
+                if (p.res[i][d] > 0 && have[d] < p.need[d] - EPS) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Lower bound on the extra cost: for each missing resource, the fractional cost of covering it with the
+         * undecided offers (index &gt;= i) cheapest per unit; the largest of these is a valid bound.
+         */
+        double bound(int i, double[] have) {
+            double bound = 0;
+            for (int d = 0; d < DIMS; d++) {
+                double missing = p.need[d] - have[d];
+                if (missing <= EPS) continue;
+                double extra = 0;
+                for (int j : p.byRatio[d]) {
+                    if (j < i) continue;
+                    double take = Math.min(p.res[j][d], missing);
+                    extra += p.cost[j] * take / p.res[j][d];
+                    missing -= take;
+                    if (missing <= EPS) break;
+                }
+                if (missing > EPS) return Double.POSITIVE_INFINITY;
+                bound = Math.max(bound, extra);
+            }
+            return bound;
+        }
+
+        CapacityPlan result(long start) {
+            List<Offer> chosen = new ArrayList<>();
+            double gpuRam = 0, cpuRam = 0, dph = 0;
+            int gpus = 0;
+            if (best != null) {
+                for (int i : best) {
+                    chosen.add(p.offers[i]);
+                    dph += p.cost[i];
+                    gpuRam += p.res[i][0];
+                    gpus += (int) p.res[i][1];
+                    cpuRam += p.res[i][2];
+                }
+                chosen.sort(Comparator.comparingDouble(Offer::dphTotal));
+            }
+            return new CapacityPlan(List.copyOf(chosen), dph, gpuRam, gpus, cpuRam, best != null,
+                    !timedOut && !p.truncated, p.n, nodes.sum(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private static final class Subtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int i;
+        private final double cost;
+        private final double[] have;
+        private final int count;
+        private final int[] stack;
+        private long visited;
+
+        Subtree(Search search, int i, double cost, double[] have, int count, int[] stack) {
+            this.search = search;
+            this.i = i;
+            this.cost = cost;
+            this.have = have;
+            this.count = count;
+            this.stack = stack;
+        }
+
+        @Override
+        protected void compute() {
+            dfs(i, cost, have, count, stack);
+            search.nodes.add(visited);
+        }
+
+        private void dfs(int i, double cost, double[] have, int count, int[] stack) {
+            Problem p = search.p;
+            if (search.timedOut) return;
+            if ((++visited & 1023) == 0 && System.nanoTime() - search.deadline > 0) {
+                search.timedOut = true;
+                return;
+            }
+            if (p.satisfied(have)) {
+                search.offer(cost, stack, count);
+                return;
+            }
+            if (i == p.n || count == p.maxNodes) return;
+            if (cost + search.bound(i, have) >= search.bestCost - EPS) return;
+
+            if (search.helps(i, have)) {
+                stack[count] = i;
+                for (int d = 0; d < DIMS; d++) have[d] += p.res[i][d];
+                dfs(i + 1, cost + p.cost[i], have, count + 1, stack);
+                for (int d = 0; d < DIMS; d++) have[d] -= p.res[i][d];
+            }
+            dfs(i + 1, cost, have, count, stack);
+        }
+    }
+
+    /**
+     * Builder class for constructing CapacityPlanner instances.
+     */
+    public static final class Builder {
+        private Duration timeBudget = Duration.ofMillis(100);
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int maxCandidates = 2048;
+
+        private Builder() {
+        }
+
+        /**
+         * @param timeBudget the maximum planning time; the best plan found so far is returned past it
+         * @return the builder instance
+         */
+        public Builder timeBudget(Duration timeBudget) {
+            Objects.requireNonNull(timeBudget, "timeBudget");
+            if (timeBudget.isNegative() || timeBudget.isZero()) {
+                throw new IllegalArgumentException("timeBudget must be positive");
+            }
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * @param pool the pool running the parallel subtrees (default: the common pool)
+         * @return the builder instance
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "pool");
+            return this;
+        }
+
+        /**
+         * @param maxCandidates the maximum number of offers searched; beyond it the most cost-efficient are
+         *                      kept and plans are no longer reported as optimal
+         * @return the builder instance
+         */
+        public Builder maxCandidates(int maxCandidates) {
+            if (maxCandidates < 2) throw new IllegalArgumentException("maxCandidates must be >= 2");
+            this.maxCandidates = maxCandidates;
+            return this;
+        }
+
+        /**
+         * Builds the CapacityPlanner instance.
+         * @return the constructed CapacityPlanner
+         */
+        public CapacityPlanner build() {
+            return new CapacityPlanner(this);
+        }
+    }
+}
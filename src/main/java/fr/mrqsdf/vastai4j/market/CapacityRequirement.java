@@ -0,0 +1,224 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Resource requirement solved by {@link CapacityPlanner}: aggregate minimums over the chosen offers, plus
+ * per-node conditions every chosen offer must meet.
+ * <pre>{@code
+ * // at least 640 GB of GPU RAM in total, 4+ GPUs per node, in the EU
+ * CapacityRequirement req = CapacityRequirement.builder()
+ *         .minTotalGpuRam(640)
+ *         .minGpusPerNode(4)
+ *         .geolocations("DE", "FR", "NL", "SE", "PL", "ES", "IT")
+ *         .maxNodes(8)
+ *         .build();
+ * }</pre>
+ * Quantities use the units of {@link Offer}: {@code gpu_total_ram} and {@code cpu_ram} as reported by the API,
+ * {@code inet_down} in Mbps.
+ */
+public final class CapacityRequirement {
+
+    private final double minTotalGpuRam;
+    private final int minTotalGpus;
+    private final double minTotalCpuRam;
+    private final int minGpusPerNode;
+    private final double minInetDownPerNode;
+    private final Set<String> geolocations;
+    private final int maxNodes;
+    private final Predicate<Offer> filter;
+
+    private CapacityRequirement(Builder builder) {
+        this.minTotalGpuRam = builder.minTotalGpuRam;
+        this.minTotalGpus = builder.minTotalGpus;
+        this.minTotalCpuRam = builder.minTotalCpuRam;
+        this.minGpusPerNode = builder.minGpusPerNode;
+        this.minInetDownPerNode = builder.minInetDownPerNode;
+        this.geolocations = Set.copyOf(builder.geolocations);
+        this.maxNodes = builder.maxNodes;
+        this.filter = builder.filter;
+    }
+
+    /**
+     * Creates a new builder with no constraint.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the minimum total GPU RAM of the plan.
+     */
+    public double getMinTotalGpuRam() {
+        return minTotalGpuRam;
+    }
+
+    /**
+     * @return the minimum total number of GPUs of the plan.
+     */
+    public int getMinTotalGpus() {
+        return minTotalGpus;
+    }
+
+    /**
+     * @return the minimum total CPU RAM of the plan.
+     */
+    public double getMinTotalCpuRam() {
+        return minTotalCpuRam;
+    }
+
+    /**
+     * @return the maximum number of offers in the plan.
+     */
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    /**
+     * Checks the per-node conditions.
+     * @param offer the offer.
+     * @return true if the offer may be part of a plan.
+     */
+    public boolean accepts(Offer offer) {
+        Double dph = offer.dphTotal();
+        if (dph == null || !(dph >= 0)) return false;
+        if (minGpusPerNode > 0 && (offer.numGpus() == null || offer.numGpus() < minGpusPerNode)) return false;
+        if (minInetDownPerNode > 0 && (offer.inetDownMbps() == null || offer.inetDownMbps() < minInetDownPerNode)) {
+            return false;
+        }
+        if (!geolocations.isEmpty() && !inLocations(offer.geoCountryCode())) return false;
+        return filter == null || filter.test(offer);
+    }
+
+    private boolean inLocations(String geolocation) {
+        if (geolocation == null) return false;
+        String g = geolocation.trim().toUpperCase(Locale.ROOT);
+        if (geolocations.contains(g)) return true;
+        // Vast.ai reports "City, CC" or "Country, CC": match on the trailing country code
+        int comma = g.lastIndexOf(',');
+        return comma >= 0 && geolocations.contains(g.substring(comma + 1).trim());
+    }
+
+    /**
+     * Builder class for constructing CapacityRequirement instances.
+     */
+    public static final class Builder {
+        private double minTotalGpuRam;
+        private int minTotalGpus;
+        private double minTotalCpuRam;
+        private int minGpusPerNode;
+        private double minInetDownPerNode;
+        private final Set<String> geolocations = new LinkedHashSet<>();
+        private int maxNodes = 16;
+        private Predicate<Offer> filter;
+
+        private Builder() {
+        }
+
+        /**
+         * @param total the minimum sum of {@code gpu_total_ram} over the chosen offers
+         * @return the builder instance
+         */
+        public Builder minTotalGpuRam(double total) {
+            this.minTotalGpuRam = requireNonNegative(total, "minTotalGpuRam");
+            return this;
+        }
+
+        /**
+         * @param total the minimum sum of {@code num_gpus} over the chosen offers
+         * @return the builder instance
+         */
+        public Builder minTotalGpus(int total) {
+            this.minTotalGpus = (int) requireNonNegative(total, "minTotalGpus");
+            return this;
+        }
+
+        /**
+         * @param total the minimum sum of {@code cpu_ram} over the chosen offers
+         * @return the builder instance
+         */
+        public Builder minTotalCpuRam(double total) {
+            this.minTotalCpuRam = requireNonNegative(total, "minTotalCpuRam");
+            return this;
+        }
+
+        /**
+         * @param gpus the minimum {@code num_gpus} of every chosen offer
+         * @return the builder instance
+         */
+        public Builder minGpusPerNode(int gpus) {
+            this.minGpusPerNode = (int) requireNonNegative(gpus, "minGpusPerNode");
+            return this;
+        }
+
+        /**
+         * @param mbps the minimum {@code inet_down} of every chosen offer
+         * @return the builder instance
+         */
+        public Builder minInetDownPerNode(double mbps) {
+            this.minInetDownPerNode = requireNonNegative(mbps, "minInetDownPerNode");
+            return this;
+        }
+
+        /**
+         * Restricts the plan to these locations, matched against the whole {@code geolocation} or its
+         * trailing country code (e.g. {@code "SE"} matches {@code "Sweden, SE"}).
+         * @param locations country codes or full geolocation strings
+         * @return the builder instance
+         */
+        public Builder geolocations(String... locations) {
+            return geolocations(Arrays.asList(locations));
+        }
+
+        /**
+         * @param locations country codes or full geolocation strings
+         * @return the builder instance
+         * @see #geolocations(String...)
+         */
+        public Builder geolocations(Collection<String> locations) {
+            for (String location : locations) geolocations.add(location.trim().toUpperCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * @param maxNodes the maximum number of offers in the plan (default 16)
+         * @return the builder instance
+         */
+        public Builder maxNodes(int maxNodes) {
+            if (maxNodes < 1) throw new IllegalArgumentException("maxNodes must be >= 1");
+            this.maxNodes = maxNodes;
+            return this;
+        }
+
+        /**
+         * @param filter an additional per-node condition (e.g. {@code Offer::verified})
+         * @return the builder instance
+         */
+        public Builder filter(Predicate<Offer> filter) {
+            this.filter = Objects.requireNonNull(filter, "filter");
+            return this;
+        }
+
+        /**
+         * Builds the CapacityRequirement instance.
+         * @return the constructed CapacityRequirement
+         */
+        public CapacityRequirement build() {
+            return new CapacityRequirement(this);
+        }
+
+        private static double requireNonNegative(double v, String name) {
+            if (!(v >= 0)) throw new IllegalArgumentException(name + " must be >= 0");
+            return v;
+        }
+    }
+}
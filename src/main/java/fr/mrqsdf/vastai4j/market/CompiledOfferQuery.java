@@ -0,0 +1,442 @@
+package fr.mrqsdf.vastai4j.market;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.query.Direction;
+import fr.mrqsdf.vastai4j.query.OfferQuery;
+import fr.mrqsdf.vastai4j.query.Op;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * {@link OfferQuery} compiled for local evaluation over offers already in memory.
+ * <p>
+ * The query is compiled once from {@link OfferQuery#toQueryJson()}, so the filters match what the server
+ * would receive, defaults included. Every condition is bound to its {@link OfferColumn} and pre-parsed
+ * value; evaluating a row involves no map lookup and no JSON. Over an {@link OfferTable}, string
+ * conditions are resolved once per dictionary code and numeric ones read the primitive columns directly.
+ * </p>
+ * <p>
+ * Semantics follow the search API: every condition must hold, a missing value never matches, and results
+ * are ordered by the {@code order} clauses (missing values last) then truncated to {@code limit}.
+ * Fields {@link Offer} does not expose (e.g. {@code external}, {@code score}, {@code total_flops}) cannot be
+ * evaluated locally and are skipped; they are listed by {@link #ignoredFields()}.
+ * </p>
+ * <pre>{@code
+ * OfferTable market = OfferTable.of(vast.offers().search(new OfferQuery().limit(5000)));
+ * CompiledOfferQuery cheap4090 = CompiledOfferQuery.compile(new OfferQuery()
+ *         .where(OfferField.GPU_NAME, Op.EQ, "RTX_4090")
+ *         .where(OfferField.DPH_TOTAL, Op.LT, 0.5)
+ *         .orderBy(OrderField.DPH, Direction.ASC)
+ *         .limit(10));
+ * List<Offer> best = cheap4090.select(market);
+ * }</pre>
+ */
+public final class CompiledOfferQuery implements Predicate<Offer> {
+
+    /** Top-level keys of {@link OfferQuery#toQueryJson()} that are options rather than filters. */
+    private static final Set<String> OPTIONS = Set.of("order", "type", "limit", "allocated_storage", "disable_bundling");
+
+    private final Condition[] conditions;
+    private final SortKey[] order;
+    private final Integer limit;
+    private final Set<String> ignoredFields;
+
+    private CompiledOfferQuery(Condition[] conditions, SortKey[] order, Integer limit, Set<String> ignoredFields) {
+        this.conditions = conditions;
+        this.order = order;
+        this.limit = limit;
+        this.ignoredFields = ignoredFields;
+    }
+
+    /**
+     * Compiles a query.
+     * @param query the query.
+     * @return the compiled query.
+     * @throws IllegalArgumentException if a filter value cannot be compared with its column
+     *         (e.g. a non-numeric string on {@code dph_total}).
+     */
+    public static CompiledOfferQuery compile(OfferQuery query) {
+        JsonObject json = query.toQueryJson();
+        List<Condition> conditions = new ArrayList<>();
+        List<SortKey> order = new ArrayList<>();
+        Set<String> ignored = new LinkedHashSet<>();
+        for (Map.Entry<String, JsonElement> e : json.entrySet()) {
+            if (OPTIONS.contains(e.getKey()) || !e.getValue().isJsonObject()) continue;
+            OfferColumn column = OfferColumn.fromJsonOrNull(e.getKey());
+            if (column == null) {
+                ignored.add(e.getKey());
+                continue;
+            }
+            for (Map.Entry<String, JsonElement> cond : e.getValue().getAsJsonObject().entrySet()) {
+                Op op = opOf(cond.getKey());
+                if (op == null) {
+                    ignored.add(e.getKey() + "." + cond.getKey());
+                    continue;
+                }
+                conditions.add(condition(column, op, cond.getValue()));
+            }
+        }
+        if (json.has("order")) {
+            for (JsonElement clause : json.getAsJsonArray("order")) {
+                JsonArray pair = clause.getAsJsonArray();
+                String field = pair.get(0).getAsString();
+                OfferColumn column = OfferColumn.fromJsonOrNull(field);
+                if (column == null) {
+                    ignored.add(field);
+                    continue;
+                }
+                boolean desc = pair.size() > 1 && Direction.DESC.json().equals(pair.get(1).getAsString());
+                order.add(new SortKey(column, desc));
+            }
+        }
+        Integer limit = json.has("limit") ? json.get("limit").getAsInt() : null;
+        return new CompiledOfferQuery(conditions.toArray(new Condition[0]), order.toArray(new SortKey[0]),
+                limit, Collections.unmodifiableSet(ignored));
+    }
+
+    /**
+     * Evaluates the filters against an offer (order and limit do not apply).
+     * @param offer the offer.
+     * @return true if every condition holds.
+     */
+    @Override
+    public boolean test(Offer offer) {
+        for (Condition condition : conditions) {
+            if (!condition.test(offer)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the ordering of the query, missing values last; a constant comparator when the query is unordered.
+     */
+    public Comparator<Offer> comparator() {
+        return (a, b) -> {
+            for (SortKey key : order) {
+                int c = key.compare(a, b);
+                if (c != 0) return c;
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * @return the maximum number of results, or null if unlimited.
+     */
+    public Integer limit() {
+        return limit;
+    }
+
+    /**
+     * @return the filter and order fields that could not be evaluated locally.
+     */
+    public Set<String> ignoredFields() {
+        return ignoredFields;
+    }
+
+    /**
+     * Filters, orders and truncates a list of offers.
+     * @param offers the offers.
+     * @return a new list holding the matching offers.
+     */
+    public List<Offer> select(Collection<? extends Offer> offers) {
+        List<Offer> out = new ArrayList<>();
+        for (Offer offer : offers) {
+            if (offer != null && test(offer)) out.add(offer);
+        }
+        if (order.length > 0) out.sort(comparator());
+        return limit != null && out.size() > limit ? new ArrayList<>(out.subList(0, Math.max(0, limit))) : out;
+    }
+
+    /**
+     * Filters, orders and truncates a table, returning row indexes.
+     * @param table the table.
+     * @return the matching rows, in query order.
+     */
+    public int[] selectRows(OfferTable table) {
+        return selectRows(table, null, -1);
+    }
+
+    /**
+     * Filters, orders and truncates a table, materializing the matching rows.
+     * @param table the table.
+     * @return a new list holding the matching offers.
+     */
+    public List<Offer> select(OfferTable table) {
+        return materialize(table, selectRows(table));
+    }
+
+    /**
+     * Counts the matching rows of a table without sorting nor materializing them (limit ignored).
+     * @param table the table.
+     * @return the number of rows satisfying every condition.
+     */
+    public int count(OfferTable table) {
+        return filter(table, null, -1).length;
+    }
+
+    /**
+     * Evaluates the query over a subset of the rows of a table.
+     * @param candidates the rows to consider, ascending, or null for every row.
+     * @param skip the index of a condition the candidates already satisfy, or -1.
+     */
+    int[] selectRows(OfferTable table, int[] candidates, int skip) {
+        int[] rows = filter(table, candidates, skip);
+        int n = rows.length;
+        if (order.length > 0 && n > 1) {
+            RowComparator[] keys = new RowComparator[order.length];
+            for (int i = 0; i < keys.length; i++) keys[i] = order[i].bind(table);
+            mergeSort(rows, new int[n], 0, n, (a, b) -> {
+                for (RowComparator key : keys) {
+                    int c = key.compare(a, b);
+                    if (c != 0) return c;
+                }
+                return 0;
+            });
+        }
+        return limit != null && n > limit ? Arrays.copyOf(rows, Math.max(0, limit)) : rows;
+    }
+
+    /** Same as {@link #selectRows(OfferTable, int[], int)} without ordering nor limit. */
+    int[] filter(OfferTable table, int[] candidates, int skip) {
+        RowFilter[] filters = new RowFilter[skip < 0 ? conditions.length : conditions.length - 1];
+        for (int i = 0, f = 0; i < conditions.length; i++) {
+            if (i != skip) filters[f++] = conditions[i].bind(table);
+        }
+        int total = candidates == null ? table.size() : candidates.length;
+        int[] rows = new int[total];
+        int n = 0;
+        scan:
+        for (int i = 0; i < total; i++) {
+            int row = candidates == null ? i : candidates[i];
+            for (RowFilter filter : filters) {
+                if (!filter.test(row)) continue scan;
+            }
+            rows[n++] = row;
+        }
+        return n == total ? rows : Arrays.copyOf(rows, n);
+    }
+
+    /** The compiled conditions, in query order. */
+    Condition[] conditions() {
+        return conditions;
+    }
+
+    static List<Offer> materialize(OfferTable table, int[] rows) {
+        List<Offer> out = new ArrayList<>(rows.length);
+        for (int row : rows) out.add(table.offer(row));
+        return out;
+    }
+
+    // ---------- compilation ----------
+
+    private static Op opOf(String jsonKey) {
+        for (Op op : Op.values()) if (op.jsonKey().equals(jsonKey)) return op;
+        return null;
+    }
+
+    private static Condition condition(OfferColumn column, Op op, JsonElement value) {
+        boolean set = op == Op.IN || op == Op.NOT_IN;
+        List<JsonElement> values = new ArrayList<>();
+        if (value.isJsonArray()) value.getAsJsonArray().forEach(values::add);
+        else values.add(value);
+        if (!set && values.size() != 1) {
+            throw new IllegalArgumentException(column.json() + " " + op + " expects a single value, got " + value);
+        }
+        if (column.type() == OfferColumn.Type.STRING) {
+            Set<String> strings = new HashSet<>();
+            for (JsonElement v : values) strings.add(v.getAsString());
+            return new StringCondition(column, op, set ? null : values.get(0).getAsString(), strings);
+        }
+        double[] numbers = new double[values.size()];
+        for (int i = 0; i < numbers.length; i++) numbers[i] = toDouble(column, values.get(i));
+        Arrays.sort(numbers);
+        return new NumericCondition(column, op, numbers);
+    }
+
+    private static double toDouble(OfferColumn column, JsonElement value) {
+        if (value.isJsonPrimitive()) {
+            JsonPrimitive p = value.getAsJsonPrimitive();
+            if (column.type() == OfferColumn.Type.BOOLEAN) {
+                if (p.isBoolean()) return p.getAsBoolean() ? 1 : 0;
+                if (p.isString() && (p.getAsString().equalsIgnoreCase("true") || p.getAsString().equalsIgnoreCase("false"))) {
+                    return Boolean.parseBoolean(p.getAsString()) ? 1 : 0;
+                }
+            } else if (p.isNumber()) {
+                return p.getAsDouble();
+            } else if (p.isString()) {
+                try {
+                    return Double.parseDouble(p.getAsString().trim());
+                } catch (NumberFormatException ignored) {
+                    // reported below
+                }
+            }
+        }
+        throw new IllegalArgumentException("cannot compare " + column.json() + " (" + column.type() + ") with " + value);
+    }
+
+    /** Booleans compare as 0/1 so that every non-string column shares the numeric path. */
+    private static double toDouble(Object value) {
+        return value instanceof Boolean b ? (b ? 1 : 0) : ((Number) value).doubleValue();
+    }
+
+    private static double columnDouble(OfferTable table, OfferColumn column, int row) {
+        if (column.type() == OfferColumn.Type.BOOLEAN) {
+            return table.isNull(column, row) ? Double.NaN : table.getBoolean(column, row) ? 1 : 0;
+        }
+        return table.getDouble(column, row);
+    }
+
+    /** Stable sort of row indexes; {@code tmp} must be as long as {@code rows}. */
+    static void mergeSort(int[] rows, int[] tmp, int from, int to, RowComparator cmp) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, tmp, from, mid, cmp);
+        mergeSort(rows, tmp, mid, to, cmp);
+        if (cmp.compare(rows[mid - 1], rows[mid]) <= 0) return;
+        System.arraycopy(rows, from, tmp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) rows[k++] = cmp.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        while (i < mid) rows[k++] = tmp[i++];
+        while (j < to) rows[k++] = tmp[j++];
+    }
+
+    // ---------- runtime ----------
+
+    /** A compiled {@code field op value} condition. */
+    interface Condition {
+        OfferColumn column();
+
+        Op op();
+
+        boolean test(Offer offer);
+
+        RowFilter bind(OfferTable table);
+    }
+
+    @FunctionalInterface
+    interface RowFilter {
+        boolean test(int row);
+    }
+
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    record NumericCondition(OfferColumn column, Op op, double[] values) implements Condition {
+
+        @Override
+        public boolean test(Offer offer) {
+            Object value = column.read(offer);
+            return value != null && matches(toDouble(value));
+        }
+
+        @Override
+        public RowFilter bind(OfferTable table) {
+            return row -> {
+                double d = columnDouble(table, column, row);
+                return d == d && matches(d); // NaN marks a missing value
+            };
+        }
+
+        boolean matches(double d) {
+            return switch (op) {
+                case LT -> d < values[0];
+                case LE -> d <= values[0];
+                case EQ -> d == values[0];
+                case NE -> d != values[0];
+                case GE -> d >= values[0];
+                case GT -> d > values[0];
+                case IN -> Arrays.binarySearch(values, d) >= 0;
+                case NOT_IN -> Arrays.binarySearch(values, d) < 0;
+            };
+        }
+    }
+
+    record StringCondition(OfferColumn column, Op op, String value, Set<String> values) implements Condition {
+
+        @Override
+        public boolean test(Offer offer) {
+            Object v = column.read(offer);
+            return v != null && matches((String) v);
+        }
+
+        @Override
+        public RowFilter bind(OfferTable table) {
+            List<String> dictionary = table.dictionary(column);
+            boolean[] accepted = new boolean[dictionary.size()];
+            for (int code = 0; code < accepted.length; code++) accepted[code] = matches(dictionary.get(code));
+            return row -> {
+                int code = table.getCode(column, row);
+                return code >= 0 && accepted[code];
+            };
+        }
+
+        boolean matches(String s) {
+            return switch (op) {
+                case LT -> s.compareTo(value) < 0;
+                case LE -> s.compareTo(value) <= 0;
+                case EQ -> s.equals(value);
+                case NE -> !s.equals(value);
+                case GE -> s.compareTo(value) >= 0;
+                case GT -> s.compareTo(value) > 0;
+                case IN -> values.contains(s);
+                case NOT_IN -> !values.contains(s);
+            };
+        }
+    }
+
+    private record SortKey(OfferColumn column, boolean descending) {
+
+        private int compare(Offer a, Offer b) {
+            Object x = column.read(a);
+            Object y = column.read(b);
+            if (x == null || y == null) return x == y ? 0 : x == null ? 1 : -1;
+            int c = column.type() == OfferColumn.Type.STRING
+                    ? ((String) x).compareTo((String) y)
+                    : Double.compare(toDouble(x), toDouble(y));
+            return descending ? -c : c;
+        }
+
+        private RowComparator bind(OfferTable table) {
+            if (column.type() == OfferColumn.Type.STRING) {
+                // Rank the dictionary once so rows compare by int instead of by string.
+                List<String> dictionary = table.dictionary(column);
+                Integer[] byValue = new Integer[dictionary.size()];
+                for (int i = 0; i < byValue.length; i++) byValue[i] = i;
+                Arrays.sort(byValue, Comparator.comparing(dictionary::get));
+                int[] rank = new int[byValue.length];
+                for (int i = 0; i < byValue.length; i++) rank[byValue[i]] = i;
+                return (a, b) -> {
+                    int ca = table.getCode(column, a);
+                    int cb = table.getCode(column, b);
+                    if (ca < 0 || cb < 0) return ca == cb ? 0 : ca < 0 ? 1 : -1;
+                    int c = Integer.compare(rank[ca], rank[cb]);
+                    return descending ? -c : c;
+                };
+            }
+            return (a, b) -> {
+                double x = columnDouble(table, column, a);
+                double y = columnDouble(table, column, b);
+                if (x != x || y != y) return (x != x) == (y != y) ? 0 : x != x ? 1 : -1;
+                int c = Double.compare(x, y);
+                return descending ? -c : c;
+            };
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.query.OfferField;
+import fr.mrqsdf.vastai4j.query.OfferQuery;
+import fr.mrqsdf.vastai4j.query.Op;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link OfferTable} with secondary indexes, for workloads running many queries against one snapshot.
+ * <p>
+ * Numeric columns ({@code dph_total}, {@code gpu_ram}, {@code dlperf}, {@code reliability}...) are indexed
+ * by their row numbers sorted by value, so a range condition resolves to a slice found by binary search.
+ * String and boolean columns ({@code gpu_name}, {@code geolocation}, {@code verified}, {@code datacenter}...)
+ * get one bitmap of rows per distinct value.
+ * </p>
+ * <p>
+ * For every query the planner estimates, from the indexes alone, how many rows each indexed condition lets
+ * through and starts from the most selective one; the remaining conditions are evaluated on those rows
+ * only. When no index narrows the search below half of the table, a plain scan is used. Results are
+ * identical to {@link CompiledOfferQuery#select(OfferTable)}.
+ * </p>
+ * <p>
+ * Instances are immutable and safe to query from several threads.
+ * </p>
+ */
+public final class IndexedOfferTable {
+
+    /** Fields indexed by {@link #withDefaultIndexes(OfferTable)}. */
+    public static final List<OfferField> DEFAULT_INDEXES = List.of(
+            OfferField.DPH_TOTAL, OfferField.GPU_RAM, OfferField.DLPERF, OfferField.RELIABILITY,
+            OfferField.GPU_NAME, OfferField.GEOLOCATION, OfferField.VERIFIED, OfferField.DATACENTER);
+
+    private final OfferTable table;
+    private final Map<OfferColumn, Index> indexes = new EnumMap<>(OfferColumn.class);
+
+    private IndexedOfferTable(OfferTable table, Iterable<OfferField> fields) {
+        this.table = Objects.requireNonNull(table, "table");
+        for (OfferField field : fields) {
+            OfferColumn column = OfferColumn.of(field);
+            if (column == null) {
+                throw new IllegalArgumentException(field.json() + " is not stored in an OfferTable");
+            }
+            indexes.computeIfAbsent(column, c -> c.isNumeric() ? new SortedIndex(table, c) : new BitmapIndex(table, c));
+        }
+    }
+
+    /**
+     * Indexes a table on the given fields.
+     * @param table the snapshot.
+     * @param fields the fields to index.
+     * @return the indexed table.
+     * @throws IllegalArgumentException if a field has no {@link OfferColumn}.
+     */
+    public static IndexedOfferTable of(OfferTable table, OfferField... fields) {
+        return new IndexedOfferTable(table, Arrays.asList(fields));
+    }
+
+    /**
+     * Indexes a table on {@link #DEFAULT_INDEXES}.
+     * @param table the snapshot.
+     * @return the indexed table.
+     */
+    public static IndexedOfferTable withDefaultIndexes(OfferTable table) {
+        return new IndexedOfferTable(table, DEFAULT_INDEXES);
+    }
+
+    /**
+     * @return the underlying snapshot.
+     */
+    public OfferTable table() {
+        return table;
+    }
+
+    /**
+     * @return the indexed fields.
+     */
+    public Set<OfferField> indexedFields() {
+        EnumSet<OfferField> out = EnumSet.noneOf(OfferField.class);
+        for (OfferColumn column : indexes.keySet()) out.add(column.field());
+        return Collections.unmodifiableSet(out);
+    }
+
+    /**
+     * Describes how a query would be evaluated.
+     * @param query the compiled query.
+     * @return the chosen access path.
+     */
+    public Plan plan(CompiledOfferQuery query) {
+        Choice choice = choose(query);
+        return choice == null
+                ? new Plan(null, null, table.size(), table.size())
+                : new Plan(choice.condition.column().field(), choice.condition.op(), choice.estimate, table.size());
+    }
+
+    /**
+     * Evaluates a query, returning row indexes.
+     * @param query the compiled query.
+     * @return the matching rows, in query order.
+     */
+    public int[] selectRows(CompiledOfferQuery query) {
+        Choice choice = choose(query);
+        if (choice == null) return query.selectRows(table);
+        return query.selectRows(table, choice.index.rows(choice.condition), choice.position);
+    }
+
+    /**
+     * Evaluates a query, materializing the matching rows.
+     * @param query the compiled query.
+     * @return a new list holding the matching offers.
+     */
+    public List<Offer> select(CompiledOfferQuery query) {
+        return CompiledOfferQuery.materialize(table, selectRows(query));
+    }
+
+    /**
+     * Compiles and evaluates a query. Callers running the same query repeatedly should keep the
+     * {@link CompiledOfferQuery} instead.
+     * @param query the query.
+     * @return a new list holding the matching offers.
+     */
+    public List<Offer> select(OfferQuery query) {
+        return select(CompiledOfferQuery.compile(query));
+    }
+
+    /**
+     * Counts the matching rows (limit ignored).
+     * @param query the compiled query.
+     * @return the number of rows satisfying every condition.
+     */
+    public int count(CompiledOfferQuery query) {
+        Choice choice = choose(query);
+        if (choice == null) return query.count(table);
+        return query.filter(table, choice.index.rows(choice.condition), choice.position).length;
+    }
+
+    private Choice choose(CompiledOfferQuery query) {
+        CompiledOfferQuery.Condition[] conditions = query.conditions();
+        Choice best = null;
+        for (int i = 0; i < conditions.length; i++) {
+            Index index = indexes.get(conditions[i].column());
+            if (index == null) continue;
+            int estimate = index.estimate(conditions[i]);
+            if (best == null || estimate < best.estimate) best = new Choice(index, conditions[i], i, estimate);
+        }
+        return best != null && best.estimate <= table.size() / 2 ? best : null;
+    }
+
+    /**
+     * Access path chosen by the planner.
+     *
+     * @param index         the indexed field the evaluation starts from, or null for a full scan.
+     * @param op            the operator of the indexed condition, or null for a full scan.
+     * @param estimatedRows the number of rows the remaining conditions are evaluated on.
+     * @param totalRows     the size of the table.
+     */
+    public record Plan(OfferField index, Op op, int estimatedRows, int totalRows) {
+
+        /**
+         * @return true if every row is scanned.
+         */
+        public boolean isFullScan() {
+            return index == null;
+        }
+    }
+
+    private record Choice(Index index, CompiledOfferQuery.Condition condition, int position, int estimate) {
+    }
+
+    private interface Index {
+        /** Exact number of rows satisfying the condition. */
+        int estimate(CompiledOfferQuery.Condition condition);
+
+        /** Rows satisfying the condition, ascending. */
+        int[] rows(CompiledOfferQuery.Condition condition);
+    }
+
+    /**
+     * Rows with a value, sorted by value. A condition maps to a few slices of {@link #rows}.
+     */
+    private static final class SortedIndex implements Index {
+        private final double[] values;
+        private final int[] rows;
+
+        private SortedIndex(OfferTable table, OfferColumn column) {
+            int[] sorted = new int[table.size()];
+            int n = 0;
+            for (int row = 0; row < table.size(); row++) {
+                if (!table.isNull(column, row)) sorted[n++] = row;
+            }
+            sorted = Arrays.copyOf(sorted, n);
+            double[] byRow = new double[table.size()];
+            for (int row : sorted) byRow[row] = table.getDouble(column, row);
+            CompiledOfferQuery.mergeSort(sorted, new int[n], 0, n, (a, b) -> Double.compare(byRow[a], byRow[b]));
+            this.rows = sorted;
+            this.values = new double[n];
+            for (int i = 0; i < n; i++) values[i] = byRow[sorted[i]];
+        }
+
+        @Override
+        public int estimate(CompiledOfferQuery.Condition condition) {
+            int[] slices = slices(condition);
+            int n = 0;
+            for (int i = 0; i < slices.length; i += 2) n += slices[i + 1] - slices[i];
+            return n;
+        }
+
+        @Override
+        public int[] rows(CompiledOfferQuery.Condition condition) {
+            int[] slices = slices(condition);
+            int[] out = new int[estimate(condition)];
+            int n = 0;
+            for (int i = 0; i < slices.length; i += 2) {
+                System.arraycopy(rows, slices[i], out, n, slices[i + 1] - slices[i]);
+                n += slices[i + 1] - slices[i];
+            }
+            Arrays.sort(out);
+            return out;
+        }
+
+        /** Half-open {@code [from, to)} ranges of positions, flattened. */
+        private int[] slices(CompiledOfferQuery.Condition condition) {
+            double[] v = ((CompiledOfferQuery.NumericCondition) condition).values();
+            int n = values.length;
+            return switch (condition.op()) {
+                case LT -> new int[]{0, lower(v[0])};
+                case LE -> new int[]{0, upper(v[0])};
+                case GT -> new int[]{upper(v[0]), n};
+                case GE -> new int[]{lower(v[0]), n};
+                case EQ -> new int[]{lower(v[0]), upper(v[0])};
+                case NE -> new int[]{0, lower(v[0]), upper(v[0]), n};
+                case IN -> {
+                    int[] out = new int[v.length * 2];
+                    int k = 0;
+                    for (int i = 0; i < v.length; i++) {
+                        if (i > 0 && v[i] == v[i - 1]) continue;
+                        out[k++] = lower(v[i]);
+                        out[k++] = upper(v[i]);
+                    }
+                    yield Arrays.copyOf(out, k);
+                }
+                case NOT_IN -> {
+                    int[] out = new int[v.length * 2 + 2];
+                    int k = 0;
+                    int from = 0;
+                    for (double x : v) {
+                        out[k++] = from;
+                        out[k++] = Math.max(from, lower(x));
+                        from = Math.max(from, upper(x));
+                    }
+                    out[k++] = from;
+                    out[k++] = n;
+                    yield out;
+                }
+            };
+        }
+
+        /** First position whose value is not below {@code x}. */
+        private int lower(double x) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < x) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /** First position whose value is above {@code x}. */
+        private int upper(double x) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= x) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * One bitmap of rows per distinct value: dictionary codes for strings, 0/1 for booleans.
+     */
+    private static final class BitmapIndex implements Index {
+        private final List<String> dictionary;
+        private final long[][] bitmaps;
+        private final int[] counts;
+        private final int size;
+
+        private BitmapIndex(OfferTable table, OfferColumn column) {
+            this.size = table.size();
+            boolean strings = column.type() == OfferColumn.Type.STRING;
+            this.dictionary = strings ? table.dictionary(column) : null;
+            int keys = strings ? dictionary.size() : 2;
+            this.bitmaps = new long[keys][];
+            this.counts = new int[keys];
+            for (int k = 0; k < keys; k++) bitmaps[k] = Bits.allocate(size);
+            for (int row = 0; row < size; row++) {
+                if (table.isNull(column, row)) continue;
+                int key = strings ? table.getCode(column, row) : table.getBoolean(column, row) ? 1 : 0;
+                Bits.set(bitmaps[key], row);
+                counts[key]++;
+            }
+        }
+
+        @Override
+        public int estimate(CompiledOfferQuery.Condition condition) {
+            boolean[] accepted = accepted(condition);
+            int n = 0;
+            for (int k = 0; k < accepted.length; k++) if (accepted[k]) n += counts[k];
+            return n;
+        }
+
+        @Override
+        public int[] rows(CompiledOfferQuery.Condition condition) {
+            boolean[] accepted = accepted(condition);
+            long[] union = new long[(size + 63) >>> 6];
+            int n = 0;
+            for (int k = 0; k < accepted.length; k++) {
+                if (!accepted[k]) continue;
+                n += counts[k];
+                long[] bitmap = bitmaps[k];
+                for (int w = 0; w < union.length; w++) union[w] |= bitmap[w];
+            }
+            int[] out = new int[n];
+            int i = 0;
+            for (int w = 0; w < union.length; w++) {
+                long word = union[w];
+                while (word != 0) {
+                    out[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return out;
+        }
+
+        private boolean[] accepted(CompiledOfferQuery.Condition condition) {
+            boolean[] accepted = new boolean[counts.length];
+            if (condition instanceof CompiledOfferQuery.StringCondition s) {
+                for (int k = 0; k < accepted.length; k++) accepted[k] = s.matches(dictionary.get(k));
+            } else {
+                CompiledOfferQuery.NumericCondition b = (CompiledOfferQuery.NumericCondition) condition;
+                for (int k = 0; k < accepted.length; k++) accepted[k] = b.matches(k);
+            }
+            return accepted;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.query.OfferField;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Columns of an {@link OfferTable}: one constant per component of {@link Offer}, in declaration order,
+ * with the storage type used by the table and the matching {@link OfferField} of the search API.
+ */
+public enum OfferColumn {
+    ID(OfferField.ID, Type.LONG, Offer::id),
+    MACHINE_ID(OfferField.MACHINE_ID, Type.LONG, Offer::machineId),
+    GPU_NAME(OfferField.GPU_NAME, Type.STRING, Offer::gpuName),
+    GPU_ARCH(OfferField.GPU_ARCH, Type.STRING, Offer::gpuArch),
+    NUM_GPUS(OfferField.NUM_GPUS, Type.INT, Offer::numGpus),
+    GPU_RAM(OfferField.GPU_RAM, Type.DOUBLE, Offer::gpuRamGiB),
+    GPU_TOTAL_RAM(OfferField.GPU_TOTAL_RAM, Type.DOUBLE, Offer::gpuTotalRamGiB),
+    CUDA_VERS(OfferField.CUDA_VERS, Type.DOUBLE, Offer::cudaVers),
+    DRIVER_VERSION(OfferField.DRIVER_VERSION, Type.STRING, Offer::driverVersion),
+    CPU_ARCH(OfferField.CPU_ARCH, Type.STRING, Offer::cpuArch),
+    CPU_CORES(OfferField.CPU_CORES, Type.INT, Offer::cpuCores),
+    CPU_CORES_EFFECTIVE(OfferField.CPU_CORES_EFFECTIVE, Type.DOUBLE, Offer::cpuCoresEffective),
+    CPU_GHZ(OfferField.CPU_GHZ, Type.DOUBLE, Offer::cpuGhz),
+    CPU_RAM(OfferField.CPU_RAM, Type.DOUBLE, Offer::cpuRamGiB),
+    DISK_SPACE(OfferField.DISK_SPACE, Type.DOUBLE, Offer::diskSpaceGiB),
+    DISK_BW(OfferField.DISK_BW, Type.DOUBLE, Offer::diskBandwidthMBs),
+    INET_UP(OfferField.INET_UP, Type.DOUBLE, Offer::inetUpMbps),
+    INET_DOWN(OfferField.INET_DOWN, Type.DOUBLE, Offer::inetDownMbps),
+    INET_UP_COST(OfferField.INET_UP_COST, Type.DOUBLE, Offer::inetUpCostPerGB),
+    INET_DOWN_COST(OfferField.INET_DOWN_COST, Type.DOUBLE, Offer::inetDownCostPerGB),
+    DLPERF(OfferField.DLPERF, Type.DOUBLE, Offer::dlperf),
+    DLPERF_USD(OfferField.DLPERF_USD, Type.DOUBLE, Offer::dlperfUsd),
+    FLOPS_USD(OfferField.FLOPS_USD, Type.DOUBLE, Offer::flopsUsd),
+    DPH(OfferField.DPH, Type.DOUBLE, Offer::pricePerHourUSD),
+    DLPERF_PER_DPHTOTAL(OfferField.DLPERF_PER_DPHTOTAL, Type.DOUBLE, Offer::dlperfPerDphTotal),
+    DPH_BASE(OfferField.DPH_BASE, Type.DOUBLE, Offer::dphBase),
+    DPH_TOTAL(OfferField.DPH_TOTAL, Type.DOUBLE, Offer::dphTotal),
+    MIN_BID(OfferField.MIN_BID, Type.DOUBLE, Offer::minBidUSD),
+    RELIABILITY(OfferField.RELIABILITY, Type.DOUBLE, Offer::reliability),
+    DURATION(OfferField.DURATION, Type.DOUBLE, Offer::maxDurationDays),
+    GEOLOCATION(OfferField.GEOLOCATION, Type.STRING, Offer::geoCountryCode),
+    DATACENTER(OfferField.DATACENTER, Type.BOOLEAN, Offer::datacenter),
+    VERIFIED(OfferField.VERIFIED, Type.BOOLEAN, Offer::verified),
+    RENTABLE(OfferField.RENTABLE, Type.BOOLEAN, Offer::rentable),
+    RENTED(OfferField.RENTED, Type.BOOLEAN, Offer::rented),
+    STATIC_IP(OfferField.STATIC_IP, Type.BOOLEAN, Offer::staticIp),
+    VMS_ENABLED(OfferField.VMS_ENABLED, Type.BOOLEAN, Offer::vmsEnabled),
+    PCI_GEN(OfferField.PCI_GEN, Type.DOUBLE, Offer::pciGen),
+    PCIE_BW(OfferField.PCIE_BW, Type.DOUBLE, Offer::pcieBwGBs),
+    BW_NVLINK(OfferField.BW_NVLINK, Type.DOUBLE, Offer::bwNvlinkGBs);
+
+    /**
+     * Storage type of a column.
+     */
+    public enum Type {
+        /** {@code long[]} values. */
+        LONG,
+        /** {@code int[]} values. */
+        INT,
+        /** {@code double[]} values. */
+        DOUBLE,
+        /** Bitset values. */
+        BOOLEAN,
+        /** Dictionary-encoded strings: one {@code int} code per row. */
+        STRING
+    }
+
+    private static final Map<OfferField, OfferColumn> BY_FIELD = new EnumMap<>(OfferField.class);
+    private static final int[] COUNTS = new int[Type.values().length];
+
+    static {
+        for (OfferColumn column : values()) {
+            column.slot = COUNTS[column.type.ordinal()]++;
+            BY_FIELD.put(column.field, column);
+        }
+    }
+
+    private final OfferField field;
+    private final Type type;
+    private final Function<Offer, Object> getter;
+    private int slot;
+
+    OfferColumn(OfferField field, Type type, Function<Offer, Object> getter) {
+        this.field = field;
+        this.type = type;
+        this.getter = getter;
+    }
+
+    /**
+     * @return the search API field of this column.
+     */
+    public OfferField field() {
+        return field;
+    }
+
+    /**
+     * @return the JSON key of this column (e.g. {@code dph_total}).
+     */
+    public String json() {
+        return field.json();
+    }
+
+    /**
+     * @return the storage type of this column.
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * @return true for {@link Type#LONG}, {@link Type#INT} and {@link Type#DOUBLE} columns.
+     */
+    public boolean isNumeric() {
+        return type == Type.LONG || type == Type.INT || type == Type.DOUBLE;
+    }
+
+    /**
+     * Reads the value of this column from an offer.
+     * @param offer the offer.
+     * @return the boxed value, or null if absent.
+     */
+    public Object read(Offer offer) {
+        return getter.apply(offer);
+    }
+
+    /**
+     * Looks up the column storing a search field.
+     * @param field the search field.
+     * @return the column, or null if {@link Offer} has no such component (e.g. {@code total_flops}).
+     */
+    public static OfferColumn of(OfferField field) {
+        return BY_FIELD.get(field);
+    }
+
+    /**
+     * Looks up a column by JSON key without throwing when unknown.
+     * @param key the JSON key.
+     * @return the column, or null.
+     */
+    public static OfferColumn fromJsonOrNull(String key) {
+        OfferField field = OfferField.fromJsonOrNull(key);
+        return field == null ? null : of(field);
+    }
+
+    /** Index of this column among the columns of the same type. */
+    int slot() {
+        return slot;
+    }
+
+    /** Number of columns of a type. */
+    static int count(Type type) {
+        return COUNTS[type.ordinal()];
+    }
+}
@@ -0,0 +1,323 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Reusable top-K ranking of offers by a score, higher is better.
+ * <p>
+ * Candidates are pushed into a bounded primitive heap: only the {@code k} best are kept, so ranking
+ * 10 000 offers for the best 5 costs a single pass and no sort of the full list. Ties keep the input order,
+ * and offers scoring {@link Double#NaN} (e.g. a missing field) are left out.
+ * </p>
+ * <p>
+ * Over an {@link OfferTable}, rankings built from columns ({@link #ascending}, {@link #descending},
+ * {@link #linear()}) read the primitive columns directly, and {@link #topRowsParallel} splits large
+ * snapshots into chunks ranked on the common fork-join pool before merging their heaps.
+ * </p>
+ * <pre>{@code
+ * // DLPerf per dollar, weighted by reliability and download bandwidth
+ * // (orNaN turns a missing field into NaN, which leaves the offer out)
+ * OfferRanking value = OfferRanking.of(o -> orNaN(o.dlperfPerDphTotal()) * orNaN(o.reliability())
+ *         + 0.001 * orNaN(o.inetDownMbps()));
+ * List<Offer> best = value.top(offers, 5);
+ *
+ * OfferRanking cheapest = OfferRanking.ascending(OfferColumn.DPH_TOTAL);
+ * int[] rows = cheapest.topRowsParallel(snapshot, 20);
+ * }</pre>
+ */
+public final class OfferRanking {
+
+    /** Snapshots smaller than this are ranked on the calling thread by {@link #topRowsParallel}. */
+    private static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int MIN_CHUNK = 4_096;
+
+    private final ToDoubleFunction<Offer> offerScore;
+    private final RowScore rowScore;
+
+    private OfferRanking(ToDoubleFunction<Offer> offerScore, RowScore rowScore) {
+        this.offerScore = offerScore;
+        this.rowScore = rowScore;
+    }
+
+    /**
+     * Score of a row of an {@link OfferTable}, read from its columns.
+     */
+    @FunctionalInterface
+    public interface RowScore {
+        /**
+         * @param table the snapshot.
+         * @param row the row index.
+         * @return the score, higher is better; NaN excludes the row.
+         */
+        double score(OfferTable table, int row);
+    }
+
+    /**
+     * Ranking by an arbitrary score. Over a table, rows are materialized to be scored; prefer
+     * {@link #of(ToDoubleFunction, RowScore)} for hot paths.
+     * @param score the score, higher is better; NaN excludes the offer. Exceptions are not caught: read
+     *              nullable fields through {@link #orNaN(Number)} rather than unboxing them.
+     * @return the ranking.
+     */
+    public static OfferRanking of(ToDoubleFunction<Offer> score) {
+        Objects.requireNonNull(score, "score");
+        return new OfferRanking(score, null);
+    }
+
+    /**
+     * Ranking with a record and a columnar form of the same score.
+     * @param score the score over records.
+     * @param rowScore the same score over table rows.
+     * @return the ranking.
+     */
+    public static OfferRanking of(ToDoubleFunction<Offer> score, RowScore rowScore) {
+        return new OfferRanking(Objects.requireNonNull(score, "score"), Objects.requireNonNull(rowScore, "rowScore"));
+    }
+
+    /**
+     * Lowest value first (e.g. cheapest {@code dph_total}); offers without the value are left out.
+     * @param column a numeric or boolean column.
+     * @return the ranking.
+     */
+    public static OfferRanking ascending(OfferColumn column) {
+        return linear().term(column, -1).build();
+    }
+
+    /**
+     * Highest value first (e.g. best {@code reliability}); offers without the value are left out.
+     * @param column a numeric or boolean column.
+     * @return the ranking.
+     */
+    public static OfferRanking descending(OfferColumn column) {
+        return linear().term(column, 1).build();
+    }
+
+    /**
+     * Builder for a weighted sum of columns, evaluated without boxing over tables.
+     * @return a new Builder instance
+     */
+    public static Builder linear() {
+        return new Builder();
+    }
+
+    /**
+     * Scores an offer.
+     * @param offer the offer.
+     * @return the score, or NaN if the offer is excluded.
+     */
+    public double score(Offer offer) {
+        return offerScore.applyAsDouble(offer);
+    }
+
+    /**
+     * Null-safe read of a nullable model field inside a score.
+     * @param value the field value, possibly null.
+     * @return its double value, or NaN when missing (which excludes the offer).
+     */
+    public static double orNaN(Number value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * Keeps the best {@code k} offers of a collection.
+     * @param offers the candidates; null elements are skipped.
+     * @param k the number of offers to keep.
+     * @return the best offers, best first.
+     */
+    public List<Offer> top(Iterable<? extends Offer> offers, int k) {
+        return top(offers.iterator(), k);
+    }
+
+    /**
+     * Keeps the best {@code k} offers while draining an iterator, e.g. a streamed search result.
+     * @param offers the candidates; null elements are skipped.
+     * @param k the number of offers to keep.
+     * @return the best offers, best first.
+     */
+    public List<Offer> top(Iterator<? extends Offer> offers, int k) {
+        requireK(k);
+        TopKHeap heap = new TopKHeap(k, true);
+        long sequence = 0;
+        while (offers.hasNext()) {
+            Offer offer = offers.next();
+            if (offer != null) heap.offer(score(offer), sequence++, offer);
+        }
+        return toOffers(heap);
+    }
+
+    /**
+     * Keeps the best {@code k} offers of a stream, which is consumed but not closed.
+     * @param offers the candidates.
+     * @param k the number of offers to keep.
+     * @return the best offers, best first.
+     */
+    public List<Offer> top(Stream<? extends Offer> offers, int k) {
+        return top(offers.iterator(), k);
+    }
+
+    /**
+     * Collector form of {@link #top(Iterable, int)}; safe for parallel streams (ties are then broken
+     * per chunk, in encounter order).
+     * @param k the number of offers to keep.
+     * @return the collector.
+     */
+    public Collector<Offer, ?, List<Offer>> toTop(int k) {
+        requireK(k);
+        class Acc {
+            final TopKHeap heap = new TopKHeap(k, true);
+            long sequence;
+        }
+        return Collector.of(Acc::new,
+                (acc, offer) -> {
+                    if (offer != null) acc.heap.offer(score(offer), acc.sequence++, offer);
+                },
+                (a, b) -> {
+                    // shift b after a so that encounter order still breaks ties
+                    for (int i = 0; i < b.heap.size(); i++) {
+                        a.heap.offer(b.heap.score(i), a.sequence + b.heap.sequence(i), b.heap.item(i));
+                    }
+                    a.sequence += b.sequence;
+                    return a;
+                },
+                acc -> toOffers(acc.heap));
+    }
+
+    /**
+     * Ranks the rows of a snapshot on the calling thread.
+     * @param table the snapshot.
+     * @param k the number of rows to keep.
+     * @return the best rows, best first.
+     */
+    public int[] topRows(OfferTable table, int k) {
+        requireK(k);
+        return toRows(rank(table, 0, table.size(), k));
+    }
+
+    /**
+     * Ranks the rows of a large snapshot in parallel chunks on the common fork-join pool, then merges the
+     * per-chunk heaps. Small snapshots are ranked on the calling thread. Same result as {@link #topRows}.
+     * @param table the snapshot.
+     * @param k the number of rows to keep.
+     * @return the best rows, best first.
+     */
+    public int[] topRowsParallel(OfferTable table, int k) {
+        requireK(k);
+        int n = table.size();
+        if (n < PARALLEL_THRESHOLD) return topRows(table, k);
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, n / MIN_CHUNK));
+        int chunkSize = (n + chunks - 1) / chunks;
+        TopKHeap merged = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> rank(table, c * chunkSize, Math.min(n, (c + 1) * chunkSize), k))
+                .reduce((a, b) -> {
+                    a.merge(b);
+                    return a;
+                })
+                .orElseGet(() -> new TopKHeap(k, false));
+        return toRows(merged);
+    }
+
+    /**
+     * Ranks a snapshot and materializes the best rows.
+     * @param table the snapshot.
+     * @param k the number of offers to keep.
+     * @return the best offers, best first.
+     */
+    public List<Offer> top(OfferTable table, int k) {
+        return CompiledOfferQuery.materialize(table, topRowsParallel(table, k));
+    }
+
+    private TopKHeap rank(OfferTable table, int from, int to, int k) {
+        TopKHeap heap = new TopKHeap(k, false);
+        if (rowScore != null) {
+            for (int row = from; row < to; row++) heap.offer(rowScore.score(table, row), row, null);
+        } else {
+            for (int row = from; row < to; row++) heap.offer(score(table.offer(row)), row, null);
+        }
+        return heap;
+    }
+
+    private static List<Offer> toOffers(TopKHeap heap) {
+        List<Offer> out = new ArrayList<>(heap.size());
+        for (int position : heap.order()) out.add((Offer) heap.item(position));
+        return out;
+    }
+
+    private static int[] toRows(TopKHeap heap) {
+        int[] order = heap.order();
+        int[] rows = new int[order.length];
+        for (int i = 0; i < order.length; i++) rows[i] = (int) heap.sequence(order[i]);
+        return rows;
+    }
+
+    private static void requireK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0");
+    }
+
+    /**
+     * Builder for {@code sum(weight * column)} rankings. An offer missing any term is left out.
+     */
+    public static final class Builder {
+        private final Map<OfferColumn, Double> terms = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a weighted column; booleans count as 0 or 1.
+         * @param column a numeric or boolean column.
+         * @param weight its weight, negative to favour low values.
+         * @return the builder instance
+         */
+        public Builder term(OfferColumn column, double weight) {
+            if (!column.isNumeric() && column.type() != OfferColumn.Type.BOOLEAN) {
+                throw new IllegalArgumentException(column + " is not numeric");
+            }
+            terms.merge(column, weight, Double::sum);
+            return this;
+        }
+
+        /**
+         * Builds the ranking.
+         * @return the constructed OfferRanking
+         */
+        public OfferRanking build() {
+            OfferColumn[] columns = terms.keySet().toArray(new OfferColumn[0]);
+            double[] weights = new double[columns.length];
+            for (int i = 0; i < columns.length; i++) weights[i] = terms.get(columns[i]);
+            ToDoubleFunction<Offer> offerScore = offer -> {
+                double sum = 0;
+                for (int i = 0; i < columns.length; i++) {
+                    Object v = columns[i].read(offer);
+                    if (v == null) return Double.NaN;
+                    sum += weights[i] * (v instanceof Boolean b ? (b ? 1 : 0) : ((Number) v).doubleValue());
+                }
+                return sum;
+            };
+            RowScore rowScore = (table, row) -> {
+                double sum = 0;
+                for (int i = 0; i < columns.length; i++) {
+                    OfferColumn column = columns[i];
+                    if (column.type() == OfferColumn.Type.BOOLEAN) {
+                        if (table.isNull(column, row)) return Double.NaN;
+                        if (table.getBoolean(column, row)) sum += weights[i];
+                    } else {
+                        sum += weights[i] * table.getDouble(column, row); // NaN when missing
+                    }
+                }
+                return sum;
+            };
+            return new OfferRanking(offerScore, rowScore);
+        }
+    }
+}
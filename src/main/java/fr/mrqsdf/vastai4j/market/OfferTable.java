@@ -0,0 +1,392 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, column-oriented snapshot of a list of {@link Offer}s.
+ * <p>
+ * Each {@link OfferColumn} is stored in a primitive array ({@code long[]}, {@code int[]}, {@code double[]}
+ * or a bitset for booleans) with a null mask that is omitted when the column has no null. Strings
+ * ({@code gpu_name}, {@code cpu_arch}, {@code geolocation}...) are dictionary-encoded: every row holds an
+ * {@code int} code into a per-column dictionary, so 10 000 offers on 30 GPU models keep 30 strings.
+ * A snapshot therefore costs a few hundred bytes per offer instead of one record plus ~40 boxed values,
+ * and scanning a column reads contiguous memory.
+ * </p>
+ * <p>
+ * Rows are addressed by index ({@code 0 <= row < size()}); {@link #offer(int)} and {@link #asList()}
+ * materialize records for code that expects {@link Offer}s.
+ * </p>
+ */
+public final class OfferTable implements Iterable<Offer> {
+
+    private final int size;
+    private final long[][] longs;
+    private final int[][] ints;
+    private final double[][] doubles;
+    private final long[][] booleans;
+    private final int[][] codes;
+    private final String[][] dictionaries;
+    /** Per column (by ordinal): bit set when the value is present, or null when no row is null. */
+    private final long[][] present;
+
+    private OfferTable(Builder b) {
+        this.size = b.size;
+        this.longs = new long[b.longs.length][];
+        this.ints = new int[b.ints.length][];
+        this.doubles = new double[b.doubles.length][];
+        this.booleans = new long[b.booleans.length][];
+        this.codes = new int[b.codes.length][];
+        this.dictionaries = new String[b.codes.length][];
+        this.present = new long[b.present.length][];
+        for (int i = 0; i < longs.length; i++) longs[i] = Arrays.copyOf(b.longs[i], size);
+        for (int i = 0; i < ints.length; i++) ints[i] = Arrays.copyOf(b.ints[i], size);
+        for (int i = 0; i < doubles.length; i++) doubles[i] = Arrays.copyOf(b.doubles[i], size);
+        for (int i = 0; i < booleans.length; i++) booleans[i] = Bits.trim(b.booleans[i], size);
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = Arrays.copyOf(b.codes[i], size);
+            dictionaries[i] = b.dictionaries.get(i).toArray(new String[0]);
+        }
+        for (int i = 0; i < present.length; i++) {
+            present[i] = b.nullCounts[i] == 0 ? null : Bits.trim(b.present[i], size);
+        }
+    }
+
+    /**
+     * Builds a table from a collection of offers, in iteration order.
+     * @param offers the offers; null elements are skipped.
+     * @return the table.
+     */
+    public static OfferTable of(Collection<? extends Offer> offers) {
+        return builder(offers.size()).addAll(offers).build();
+    }
+
+    /**
+     * Builds a table by draining an iterator, e.g. {@link fr.mrqsdf.vastai4j.service.OfferService#stream}
+     * results, without materializing an intermediate list.
+     * @param offers the offers; null elements are skipped.
+     * @return the table.
+     */
+    public static OfferTable from(Iterator<? extends Offer> offers) {
+        Builder builder = builder(64);
+        while (offers.hasNext()) builder.add(offers.next());
+        return builder.build();
+    }
+
+    /**
+     * Builds a table by draining a stream. The stream is not closed.
+     * @param offers the offers; null elements are skipped.
+     * @return the table.
+     */
+    public static OfferTable from(Stream<? extends Offer> offers) {
+        return from(offers.iterator());
+    }
+
+    /**
+     * Creates an empty builder.
+     * @param expectedRows the initial capacity.
+     * @return a new Builder instance
+     */
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the table has no row.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param column the column.
+     * @param row the row index.
+     * @return true if the value is absent.
+     */
+    public boolean isNull(OfferColumn column, int row) {
+        Objects.checkIndex(row, size);
+        long[] mask = present[column.ordinal()];
+        return mask != null && !Bits.get(mask, row);
+    }
+
+    /**
+     * @param column the column.
+     * @return true if at least one row has no value in this column.
+     */
+    public boolean hasNulls(OfferColumn column) {
+        return present[column.ordinal()] != null;
+    }
+
+    /**
+     * Reads a {@link OfferColumn.Type#LONG} column.
+     * @return the value, or 0 if absent.
+     */
+    public long getLong(OfferColumn column, int row) {
+        return longs[slot(column, OfferColumn.Type.LONG)][row];
+    }
+
+    /**
+     * Reads a {@link OfferColumn.Type#INT} column.
+     * @return the value, or 0 if absent.
+     */
+    public int getInt(OfferColumn column, int row) {
+        return ints[slot(column, OfferColumn.Type.INT)][row];
+    }
+
+    /**
+     * Reads any numeric column as a double.
+     * @return the value, or {@link Double#NaN} if absent.
+     */
+    public double getDouble(OfferColumn column, int row) {
+        if (isNull(column, row)) return Double.NaN;
+        return switch (column.type()) {
+            case DOUBLE -> doubles[column.slot()][row];
+            case LONG -> longs[column.slot()][row];
+            case INT -> ints[column.slot()][row];
+            default -> throw new IllegalArgumentException(column + " is not numeric");
+        };
+    }
+
+    /**
+     * Reads a {@link OfferColumn.Type#BOOLEAN} column.
+     * @return the value, or false if absent.
+     */
+    public boolean getBoolean(OfferColumn column, int row) {
+        return Bits.get(booleans[slot(column, OfferColumn.Type.BOOLEAN)], row);
+    }
+
+    /**
+     * Reads a {@link OfferColumn.Type#STRING} column.
+     * @return the value, or null if absent.
+     */
+    public String getString(OfferColumn column, int row) {
+        int code = getCode(column, row);
+        return code < 0 ? null : dictionaries[column.slot()][code];
+    }
+
+    /**
+     * Reads the dictionary code of a {@link OfferColumn.Type#STRING} column.
+     * @return the code, or -1 if absent.
+     */
+    public int getCode(OfferColumn column, int row) {
+        return codes[slot(column, OfferColumn.Type.STRING)][row];
+    }
+
+    /**
+     * Looks up the code of a string in a column dictionary, e.g. to compare codes while scanning.
+     * @return the code, or -1 if no row holds this value.
+     */
+    public int codeOf(OfferColumn column, String value) {
+        String[] dictionary = dictionaries[slot(column, OfferColumn.Type.STRING)];
+        for (int code = 0; code < dictionary.length; code++) {
+            if (dictionary[code].equals(value)) return code;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the distinct values of a {@link OfferColumn.Type#STRING} column, indexed by code.
+     */
+    public List<String> dictionary(OfferColumn column) {
+        return Collections.unmodifiableList(Arrays.asList(dictionaries[slot(column, OfferColumn.Type.STRING)]));
+    }
+
+    /**
+     * Reads any column as a boxed value, as {@link Offer} exposes it.
+     * @return the value, or null if absent.
+     */
+    public Object get(OfferColumn column, int row) {
+        if (isNull(column, row)) return null;
+        return switch (column.type()) {
+            case LONG -> longs[column.slot()][row];
+            case INT -> ints[column.slot()][row];
+            case DOUBLE -> doubles[column.slot()][row];
+            case BOOLEAN -> Bits.get(booleans[column.slot()], row);
+            case STRING -> dictionaries[column.slot()][codes[column.slot()][row]];
+        };
+    }
+
+    /**
+     * Materializes a row as an {@link Offer}.
+     * @param row the row index.
+     * @return a new record equal to the offer the row was built from.
+     */
+    public Offer offer(int row) {
+        Objects.checkIndex(row, size);
+        return new Offer(
+                (Long) get(OfferColumn.ID, row), (Long) get(OfferColumn.MACHINE_ID, row),
+                (String) get(OfferColumn.GPU_NAME, row), (String) get(OfferColumn.GPU_ARCH, row),
+                (Integer) get(OfferColumn.NUM_GPUS, row), (Double) get(OfferColumn.GPU_RAM, row),
+                (Double) get(OfferColumn.GPU_TOTAL_RAM, row), (Double) get(OfferColumn.CUDA_VERS, row),
+                (String) get(OfferColumn.DRIVER_VERSION, row), (String) get(OfferColumn.CPU_ARCH, row),
+                (Integer) get(OfferColumn.CPU_CORES, row), (Double) get(OfferColumn.CPU_CORES_EFFECTIVE, row),
+                (Double) get(OfferColumn.CPU_GHZ, row), (Double) get(OfferColumn.CPU_RAM, row),
+                (Double) get(OfferColumn.DISK_SPACE, row), (Double) get(OfferColumn.DISK_BW, row),
+                (Double) get(OfferColumn.INET_UP, row), (Double) get(OfferColumn.INET_DOWN, row),
+                (Double) get(OfferColumn.INET_UP_COST, row), (Double) get(OfferColumn.INET_DOWN_COST, row),
+                (Double) get(OfferColumn.DLPERF, row), (Double) get(OfferColumn.DLPERF_USD, row),
+                (Double) get(OfferColumn.FLOPS_USD, row), (Double) get(OfferColumn.DPH, row),
+                (Double) get(OfferColumn.DLPERF_PER_DPHTOTAL, row), (Double) get(OfferColumn.DPH_BASE, row),
+                (Double) get(OfferColumn.DPH_TOTAL, row), (Double) get(OfferColumn.MIN_BID, row),
+                (Double) get(OfferColumn.RELIABILITY, row), (Double) get(OfferColumn.DURATION, row),
+                (String) get(OfferColumn.GEOLOCATION, row), (Boolean) get(OfferColumn.DATACENTER, row),
+                (Boolean) get(OfferColumn.VERIFIED, row), (Boolean) get(OfferColumn.RENTABLE, row),
+                (Boolean) get(OfferColumn.RENTED, row), (Boolean) get(OfferColumn.STATIC_IP, row),
+                (Boolean) get(OfferColumn.VMS_ENABLED, row), (Double) get(OfferColumn.PCI_GEN, row),
+                (Double) get(OfferColumn.PCIE_BW, row), (Double) get(OfferColumn.BW_NVLINK, row)
+        );
+    }
+
+    /**
+     * Read-only list view materializing each row on access (see {@link #offer(int)}).
+     * @return the view.
+     */
+    public List<Offer> asList() {
+        return new RowList();
+    }
+
+    @Override
+    public Iterator<Offer> iterator() {
+        return asList().iterator();
+    }
+
+    private static int slot(OfferColumn column, OfferColumn.Type expected) {
+        if (column.type() != expected) {
+            throw new IllegalArgumentException(column + " is " + column.type() + ", not " + expected);
+        }
+        return column.slot();
+    }
+
+    private final class RowList extends AbstractList<Offer> implements RandomAccess {
+        @Override
+        public Offer get(int index) {
+            return offer(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Accumulates rows into growable column arrays. Not thread-safe.
+     */
+    public static final class Builder {
+        private int size;
+        private int capacity;
+        private final long[][] longs = new long[OfferColumn.count(OfferColumn.Type.LONG)][];
+        private final int[][] ints = new int[OfferColumn.count(OfferColumn.Type.INT)][];
+        private final double[][] doubles = new double[OfferColumn.count(OfferColumn.Type.DOUBLE)][];
+        private final long[][] booleans = new long[OfferColumn.count(OfferColumn.Type.BOOLEAN)][];
+        private final int[][] codes = new int[OfferColumn.count(OfferColumn.Type.STRING)][];
+        private final List<List<String>> dictionaries = new ArrayList<>();
+        private final List<Map<String, Integer>> lookups = new ArrayList<>();
+        private final long[][] present = new long[OfferColumn.values().length][];
+        private final int[] nullCounts = new int[OfferColumn.values().length];
+
+        private Builder(int expectedRows) {
+            capacity = Math.max(16, expectedRows);
+            for (int i = 0; i < longs.length; i++) longs[i] = new long[capacity];
+            for (int i = 0; i < ints.length; i++) ints[i] = new int[capacity];
+            for (int i = 0; i < doubles.length; i++) doubles[i] = new double[capacity];
+            for (int i = 0; i < booleans.length; i++) booleans[i] = Bits.allocate(capacity);
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = new int[capacity];
+                dictionaries.add(new ArrayList<>());
+                lookups.add(new HashMap<>());
+            }
+            for (int i = 0; i < present.length; i++) present[i] = Bits.allocate(capacity);
+        }
+
+        /**
+         * Appends an offer as the next row.
+         * @param offer the offer; null is ignored.
+         * @return the builder instance
+         */
+        public Builder add(Offer offer) {
+            if (offer == null) return this;
+            if (size == capacity) grow();
+            int row = size++;
+            for (OfferColumn column : OfferColumn.values()) {
+                Object value = column.read(offer);
+                int s = column.slot();
+                if (value == null) {
+                    nullCounts[column.ordinal()]++;
+                    if (column.type() == OfferColumn.Type.STRING) codes[s][row] = -1;
+                    continue;
+                }
+                Bits.set(present[column.ordinal()], row);
+                switch (column.type()) {
+                    case LONG -> longs[s][row] = (Long) value;
+                    case INT -> ints[s][row] = (Integer) value;
+                    case DOUBLE -> doubles[s][row] = (Double) value;
+                    case BOOLEAN -> {
+                        if ((Boolean) value) Bits.set(booleans[s], row);
+                    }
+                    case STRING -> codes[s][row] = encode(s, (String) value);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Appends every offer of a collection.
+         * @param offers the offers.
+         * @return the builder instance
+         */
+        public Builder addAll(Iterable<? extends Offer> offers) {
+            for (Offer offer : offers) add(offer);
+            return this;
+        }
+
+        /**
+         * Builds the table; the builder can keep growing afterwards.
+         * @return the constructed OfferTable
+         */
+        public OfferTable build() {
+            return new OfferTable(this);
+        }
+
+        private int encode(int slot, String value) {
+            Map<String, Integer> lookup = lookups.get(slot);
+            Integer code = lookup.get(value);
+            if (code == null) {
+                List<String> dictionary = dictionaries.get(slot);
+                code = dictionary.size();
+                dictionary.add(value);
+                lookup.put(value, code);
+            }
+            return code;
+        }
+
+        private void grow() {
+            capacity = capacity * 2;
+            for (int i = 0; i < longs.length; i++) longs[i] = Arrays.copyOf(longs[i], capacity);
+            for (int i = 0; i < ints.length; i++) ints[i] = Arrays.copyOf(ints[i], capacity);
+            for (int i = 0; i < doubles.length; i++) doubles[i] = Arrays.copyOf(doubles[i], capacity);
+            for (int i = 0; i < booleans.length; i++) booleans[i] = Bits.grow(booleans[i], capacity);
+            for (int i = 0; i < codes.length; i++) codes[i] = Arrays.copyOf(codes[i], capacity);
+            for (int i = 0; i < present.length; i++) present[i] = Bits.grow(present[i], capacity);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Rolling price statistics per GPU model and geolocation, over the last {@link Builder#window} snapshots.
+ * <p>
+ * Each {@link #update} feeds one market snapshot: for every ({@code gpu_name}, {@code geolocation}) pair, and
+ * for every {@code gpu_name} across all geolocations, the {@code dph_total}, {@code min_bid} and
+ * {@code dlperf_usd} values go into fixed-accuracy log-bucket histograms, and the values of the snapshot that
+ * leaves the window are subtracted. The memory used per pair is a few hundred counters plus the bucket
+ * indices of the snapshots in the window; no offer is retained.
+ * </p>
+ * <p>
+ * After each update the statistics are recomputed once and published as an immutable map, so
+ * {@link #get(String, String)} is a lock-free, constant-time lookup that scheduler threads can call on every
+ * bid decision.
+ * </p>
+ * <pre>{@code
+ * PriceStatistics stats = PriceStatistics.builder().window(60).build();
+ * stats.update(vast.offers().search(query));          // e.g. once a minute
+ * PriceStats rtx = stats.get("RTX 4090");
+ * if (offer.dphTotal() < rtx.dphTotal().median()) ...
+ * }</pre>
+ */
+public final class PriceStatistics {
+
+    private final int window;
+    private final double relativeAccuracy;
+    private final double minValue;
+
+    private final Map<Key, Cell> cells = new HashMap<>();
+    private long seq;
+    private volatile Map<Key, PriceStats> published = Map.of();
+
+    private PriceStatistics(Builder builder) {
+        this.window = builder.window;
+        this.relativeAccuracy = builder.relativeAccuracy;
+        this.minValue = builder.minValue;
+    }
+
+    /**
+     * Creates a new builder with a window of 60 snapshots and a relative accuracy of 1%.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Adds a market snapshot, expires the one leaving the window and publishes the new statistics.
+     * @param snapshot the offers seen at one point in time
+     */
+    public synchronized void update(Collection<? extends Offer> snapshot) {
+        long s = ++seq;
+        for (Offer offer : snapshot) {
+            if (offer == null || offer.gpuName() == null) continue;
+            double dph = orNaN(offer.dphTotal());
+            double bid = orNaN(offer.minBidUSD());
+            double dlperfUsd = orNaN(offer.dlperfUsd());
+            add(s, offer.gpuName(), offer.geoCountryCode(), dph, bid, dlperfUsd);
+        }
+        publish(s);
+    }
+
+    /**
+     * Adds a market snapshot held in a columnar table.
+     * @param snapshot the offers seen at one point in time
+     */
+    public synchronized void update(OfferTable snapshot) {
+        long s = ++seq;
+        for (int row = 0; row < snapshot.size(); row++) {
+            String gpu = snapshot.getString(OfferColumn.GPU_NAME, row);
+            if (gpu == null) continue;
+            double dph = snapshot.getDouble(OfferColumn.DPH_TOTAL, row);
+            double bid = snapshot.getDouble(OfferColumn.MIN_BID, row);
+            double dlperfUsd = snapshot.getDouble(OfferColumn.DLPERF_USD, row);
+            add(s, gpu, snapshot.getString(OfferColumn.GEOLOCATION, row), dph, bid, dlperfUsd);
+        }
+        publish(s);
+    }
+
+    /**
+     * Statistics of a GPU model in one geolocation.
+     * @param gpuName the GPU model
+     * @param geolocation the geolocation as reported by the offers, or null for every geolocation (offers without
+     *                    geolocation are only counted there)
+     * @return the statistics, or null if the model was not seen in the window
+     */
+    public PriceStats get(String gpuName, String geolocation) {
+        return published.get(new Key(gpuName, geolocation));
+    }
+
+    /**
+     * Statistics of a GPU model across all geolocations.
+     * @param gpuName the GPU model
+     * @return the statistics, or null if the model was not seen in the window
+     */
+    public PriceStats get(String gpuName) {
+        return get(gpuName, null);
+    }
+
+    /**
+     * @return every published entry, per GPU model and geolocation and per GPU model alone (immutable).
+     */
+    public Collection<PriceStats> all() {
+        return published.values();
+    }
+
+    /**
+     * @return the number of snapshots fed so far.
+     */
+    public synchronized long snapshots() {
+        return seq;
+    }
+
+    /**
+     * @return the number of snapshots covered by the statistics.
+     */
+    public int window() {
+        return window;
+    }
+
+    /**
+     * Forgets every snapshot.
+     */
+    public synchronized void clear() {
+        cells.clear();
+        published = Map.of();
+    }
+
+    private void add(long s, String gpuName, String geolocation, double dph, double bid, double dlperfUsd) {
+        // offers without geolocation only count in the aggregate of their model
+        if (geolocation != null) cell(gpuName, geolocation).add(s, dph, bid, dlperfUsd);
+        cell(gpuName, null).add(s, dph, bid, dlperfUsd);
+    }
+
+    private Cell cell(String gpuName, String geolocation) {
+        return cells.computeIfAbsent(new Key(gpuName, geolocation), k -> new Cell(k, window, relativeAccuracy, minValue));
+    }
+
+    private void publish(long s) {
+        Map<Key, PriceStats> next = new HashMap<>(cells.size() * 2);
+        for (Iterator<Cell> it = cells.values().iterator(); it.hasNext(); ) {
+            Cell cell = it.next();
+            if (cell.expire(s)) {
+                it.remove();
+                continue;
+            }
+            next.put(cell.key, cell.stats(s));
+        }
+        published = Map.copyOf(next);
+    }
+
+    private static double orNaN(Double v) {
+        return v == null ? Double.NaN : v;
+    }
+
+    private record Key(String gpuName, String geolocation) {
+    }
+
+    /** The sketches of one key, with the statistics cached until the next change. */
+    private static final class Cell {
+        private final Key key;
+        private final WindowedLogSketch dph;
+        private final WindowedLogSketch bid;
+        private final WindowedLogSketch dlperfUsd;
+        private final long[] seen;
+        private PriceStats stats;
+
+        private Cell(Key key, int window, double relativeAccuracy, double minValue) {
+            this.key = key;
+            this.dph = new WindowedLogSketch(relativeAccuracy, minValue, window);
+            this.bid = new WindowedLogSketch(relativeAccuracy, minValue, window);
+            this.dlperfUsd = new WindowedLogSketch(relativeAccuracy, minValue, window);
+            this.seen = new long[window];
+            Arrays.fill(seen, Long.MIN_VALUE);
+        }
+
+        private void add(long s, double dphValue, double bidValue, double dlperfUsdValue) {
+            dph.add(s, dphValue);
+            bid.add(s, bidValue);
+            dlperfUsd.add(s, dlperfUsdValue);
+            seen[(int) (s % seen.length)] = s;
+            stats = null;
+        }
+
+        /** @return true if the key has no snapshot left in the window. */
+        private boolean expire(long s) {
+            if (dph.expire(s) | bid.expire(s) | dlperfUsd.expire(s)) stats = null;
+            boolean live = false;
+            for (long t : seen) {
+                if (t > s - seen.length) live = true;
+                else if (t == s - seen.length) stats = null;
+            }
+            return !live;
+        }
+
+        private PriceStats stats(long s) {
+            if (stats == null) {
+                int snapshots = 0;
+                for (long t : seen) if (t > s - seen.length) snapshots++;
+                stats = new PriceStats(key.gpuName, key.geolocation, snapshots, dph.summary(), bid.summary(), dlperfUsd.summary());
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * Builder class for constructing PriceStatistics instances.
+     */
+    public static final class Builder {
+        private int window = 60;
+        private double relativeAccuracy = 0.01;
+        private double minValue = 1e-4;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of most recent snapshots the statistics cover.
+         * @param snapshots the window size, at least 1
+         * @return the builder instance
+         */
+        public Builder window(int snapshots) {
+            if (snapshots < 1) throw new IllegalArgumentException("window must be >= 1");
+            this.window = snapshots;
+            return this;
+        }
+
+        /**
+         * Sets the relative error of the median and p90 estimates (1% by default).
+         * @param relativeAccuracy the accuracy, in (0, 0.5)
+         * @return the builder instance
+         */
+        public Builder relativeAccuracy(double relativeAccuracy) {
+            if (!(relativeAccuracy > 0 && relativeAccuracy < 0.5)) {
+                throw new IllegalArgumentException("relativeAccuracy must be in (0, 0.5)");
+            }
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /**
+         * Sets the smallest value told apart from zero by the quantile estimates (1e-4 by default).
+         * @param minValue the smallest distinguishable positive value
+         * @return the builder instance
+         */
+        public Builder minValue(double minValue) {
+            if (!(minValue > 0)) throw new IllegalArgumentException("minValue must be > 0");
+            this.minValue = minValue;
+            return this;
+        }
+
+        /**
+         * Builds the PriceStatistics instance.
+         * @return the constructed PriceStatistics
+         */
+        public PriceStatistics build() {
+            return new PriceStatistics(this);
+        }
+    }
+}
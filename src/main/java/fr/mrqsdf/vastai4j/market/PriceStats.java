@@ -0,0 +1,30 @@
+package fr.mrqsdf.vastai4j.market;
+
+/**
+ * Rolling price statistics of one GPU model, in one geolocation or across all of them.
+ *
+ * @param gpuName     the GPU model (e.g. {@code "RTX 4090"}).
+ * @param geolocation the geolocation, or null for the aggregate over every geolocation.
+ * @param snapshots   the number of snapshots in the window that contained this model (and geolocation).
+ * @param dphTotal    the statistics of {@code dph_total}.
+ * @param minBid      the statistics of {@code min_bid}.
+ * @param dlperfUsd   the statistics of {@code dlperf_usd}.
+ */
+public record PriceStats(String gpuName, String geolocation, int snapshots,
+                         PriceSummary dphTotal, PriceSummary minBid, PriceSummary dlperfUsd) {
+
+    /**
+     * Looks a metric up by column.
+     * @param column {@link OfferColumn#DPH_TOTAL}, {@link OfferColumn#MIN_BID} or {@link OfferColumn#DLPERF_USD}
+     * @return the statistics of that column
+     * @throws IllegalArgumentException for any other column
+     */
+    public PriceSummary summary(OfferColumn column) {
+        return switch (column) {
+            case DPH_TOTAL -> dphTotal;
+            case MIN_BID -> minBid;
+            case DLPERF_USD -> dlperfUsd;
+            default -> throw new IllegalArgumentException("Column not aggregated: " + column);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package fr.mrqsdf.vastai4j.market;
+
+/**
+ * Rolling statistics of one metric (e.g. {@code dph_total}) over the window of a {@link PriceStatistics}.
+ * <p>
+ * {@code count}, {@code min}, {@code mean} and {@code max} are exact; {@code median} and {@code p90} are
+ * estimates within the relative accuracy of the aggregator.
+ * </p>
+ *
+ * @param count  the number of values in the window.
+ * @param min    the smallest value, NaN if empty.
+ * @param mean   the arithmetic mean, NaN if empty.
+ * @param median the estimated 50th percentile, NaN if empty.
+ * @param p90    the estimated 90th percentile, NaN if empty.
+ * @param max    the largest value, NaN if empty.
+ */
+public record PriceSummary(long count, double min, double mean, double median, double p90, double max) {
+
+    static final PriceSummary EMPTY = new PriceSummary(0, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+
+    /**
+     * @return true if no value was recorded in the window.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
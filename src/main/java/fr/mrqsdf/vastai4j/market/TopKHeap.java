@@ -0,0 +1,136 @@
+package fr.mrqsdf.vastai4j.market;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of the {@code k} highest scores, stored in parallel primitive arrays.
+ * <p>
+ * Each entry holds a score, a sequence number (arrival order or row index, used to break ties in
+ * favour of the earliest) and an optional payload. The root is the weakest retained entry, so a
+ * candidate that does not beat it is rejected in O(1) without allocating.
+ * </p>
+ */
+final class TopKHeap {
+
+    private final int k;
+    private double[] scores;
+    private long[] sequences;
+    private Object[] items;
+    private int size;
+
+    TopKHeap(int k, boolean withItems) {
+        this.k = k;
+        int capacity = Math.min(k, 1024); // grows on demand, k may be "unbounded"
+        this.scores = new double[capacity];
+        this.sequences = new long[capacity];
+        this.items = withItems ? new Object[capacity] : null;
+    }
+
+    /**
+     * Offers a candidate; NaN scores are ignored.
+     */
+    void offer(double score, long sequence, Object item) {
+        if (k == 0 || Double.isNaN(score)) return;
+        if (size < k) {
+            if (size == scores.length) grow();
+            int i = size++;
+            set(i, score, sequence, item);
+            siftUp(i);
+        } else if (better(score, sequence, scores[0], sequences[0])) {
+            set(0, score, sequence, item);
+            siftDown(0);
+        }
+    }
+
+    /** Adds every entry of another heap. */
+    void merge(TopKHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.sequences[i], other.items == null ? null : other.items[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Positions of the entries from best to worst (higher score first, then lower sequence).
+     */
+    int[] order() {
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) boxed[i] = i;
+        Arrays.sort(boxed, (a, b) -> {
+            if (scores[a] != scores[b]) return scores[a] > scores[b] ? -1 : 1;
+            return Long.compare(sequences[a], sequences[b]);
+        });
+        int[] out = new int[size];
+        for (int i = 0; i < size; i++) out[i] = boxed[i];
+        return out;
+    }
+
+    double score(int position) {
+        return scores[position];
+    }
+
+    long sequence(int position) {
+        return sequences[position];
+    }
+
+    Object item(int position) {
+        return items[position];
+    }
+
+    private static boolean better(double s1, long q1, double s2, long q2) {
+        return s1 > s2 || (s1 == s2 && q1 < q2);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], sequences[parent], scores[i], sequences[i])) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int weakest = 2 * i + 1;
+            if (weakest >= size) return;
+            int right = weakest + 1;
+            if (right < size && better(scores[weakest], sequences[weakest], scores[right], sequences[right])) {
+                weakest = right;
+            }
+            if (!better(scores[i], sequences[i], scores[weakest], sequences[weakest])) return;
+            swap(i, weakest);
+            i = weakest;
+        }
+    }
+
+    private void set(int i, double score, long sequence, Object item) {
+        scores[i] = score;
+        sequences[i] = sequence;
+        if (items != null) items[i] = item;
+    }
+
+    private void swap(int a, int b) {
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        long q = sequences[a];
+        sequences[a] = sequences[b];
+        sequences[b] = q;
+        if (items != null) {
+            Object o = items[a];
+            items[a] = items[b];
+            items[b] = o;
+        }
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(k, scores.length * 2L);
+        scores = Arrays.copyOf(scores, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        if (items != null) items = Arrays.copyOf(items, capacity);
+    }
+}
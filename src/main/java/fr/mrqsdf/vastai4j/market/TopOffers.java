@@ -0,0 +1,128 @@
+package fr.mrqsdf.vastai4j.market;
+
+import fr.mrqsdf.vastai4j.model.Offer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Thread-safe collector keeping the best {@code limit} offers seen so far, without duplicates.
+ * <p>
+ * Offers are compared with the given order (ties broken by arrival) and deduplicated by {@link Offer#id()}:
+ * when the same id arrives twice, e.g. from overlapping searches, only its best-ranked version is kept.
+ * At most {@code limit} offers are retained at any time, so merging several large result sets costs
+ * {@code O(limit)} memory and {@code O(log limit)} per offer. Offers without an id are never deduplicated.
+ * </p>
+ */
+public final class TopOffers {
+
+    private final Comparator<? super Offer> order;
+    private final int limit;
+    private final TreeSet<Entry> best;
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private long sequence;
+    private long received;
+    private long duplicates;
+
+    private TopOffers(Comparator<? super Offer> order, int limit) {
+        this.order = order;
+        this.limit = limit;
+        this.best = new TreeSet<>(this::compare);
+    }
+
+    /**
+     * Creates a collector.
+     * @param order the ranking, best first; null keeps arrival order.
+     * @param limit the maximum number of offers kept, or a negative value for no limit.
+     * @return a new collector.
+     */
+    public static TopOffers of(Comparator<? super Offer> order, int limit) {
+        return new TopOffers(order, limit < 0 ? Integer.MAX_VALUE : limit);
+    }
+
+    /**
+     * Offers a candidate.
+     * @param offer the offer; null is ignored.
+     * @return true if the offer is currently among the best.
+     */
+    public synchronized boolean offer(Offer offer) {
+        if (offer == null) return false;
+        received++;
+        Entry entry = new Entry(offer, sequence++);
+        Long id = offer.id();
+        Entry existing = id == null ? null : byId.get(id);
+        if (existing != null) {
+            duplicates++;
+            if (compare(entry, existing) >= 0) return false;
+            best.remove(existing);
+            byId.remove(id);
+        }
+        if (best.size() >= limit) {
+            if (limit == 0 || compare(entry, best.last()) >= 0) return false;
+            Entry evicted = best.pollLast();
+            if (evicted.offer.id() != null) byId.remove(evicted.offer.id());
+        }
+        best.add(entry);
+        if (id != null) byId.put(id, entry);
+        return true;
+    }
+
+    /**
+     * Offers every candidate of an iterable.
+     * @param offers the offers.
+     * @return this collector.
+     */
+    public TopOffers offerAll(Iterable<? extends Offer> offers) {
+        for (Offer offer : offers) offer(offer);
+        return this;
+    }
+
+    /**
+     * @return the retained offers, best first.
+     */
+    public synchronized List<Offer> toList() {
+        List<Offer> out = new ArrayList<>(best.size());
+        for (Entry entry : best) out.add(entry.offer);
+        return out;
+    }
+
+    /**
+     * @return the number of retained offers.
+     */
+    public synchronized int size() {
+        return best.size();
+    }
+
+    /**
+     * @return the number of offers received so far, duplicates included.
+     */
+    public synchronized long received() {
+        return received;
+    }
+
+    /**
+     * @return the number of offers whose id had already been retained when they arrived.
+     */
+    public synchronized long duplicates() {
+        return duplicates;
+    }
+
+    private int compare(Entry a, Entry b) {
+        if (order != null) {
+            int c = order.compare(a.offer, b.offer);
+            if (c != 0) return c;
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    private record Entry(Offer offer, long sequence) {
+        private Entry {
+            Objects.requireNonNull(offer, "offer");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package fr.mrqsdf.vastai4j.market;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram over the last {@code window} snapshots, with a bounded relative error on quantiles.
+ * <p>
+ * A value {@code v} falls into bucket {@code ceil(log(v / minValue) / log(gamma))}, so every value of a bucket
+ * is within {@code relativeAccuracy} of the bucket estimate. Counts live in a dense {@code int[]} covering
+ * only the buckets seen so far, i.e. a few hundred ints for the price range of one GPU model. Each snapshot
+ * owns a ring slot holding sparse (bucket, count) pairs for the buckets it touched, subtracted when the slot
+ * leaves the window: memory is bounded by {@code window} times the number of distinct buckets, whatever the
+ * number of offers per snapshot.
+ * Not thread-safe: written by {@link PriceStatistics} under its lock.
+ * </p>
+ */
+final class WindowedLogSketch {
+
+    private final double minValue;
+    private final double gamma;
+    private final double logGamma;
+    private final Slot[] ring;
+
+    private int[] counts = new int[0];
+    private int offset;
+    private long count;
+    private double sum;
+
+    WindowedLogSketch(double relativeAccuracy, double minValue, int window) {
+        this.minValue = minValue;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.ring = new Slot[window];
+    }
+
+    /**
+     * Adds a value recorded by snapshot {@code seq}; NaN values are ignored.
+     */
+    void add(long seq, double value) {
+        if (Double.isNaN(value)) return;
+        Slot slot = slot(seq);
+        int index = index(value);
+        ensure(index);
+        counts[index - offset]++;
+        count++;
+        sum += value;
+        slot.add(index, value);
+    }
+
+    /**
+     * Drops the slots that left the window once snapshot {@code seq} is the latest one.
+     * @return true if something was removed.
+     */
+    boolean expire(long seq) {
+        boolean changed = false;
+        for (int i = 0; i < ring.length; i++) {
+            Slot slot = ring[i];
+            if (slot != null && slot.seq <= seq - ring.length) {
+                evict(slot);
+                ring[i] = null;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    PriceSummary summary() {
+        if (count == 0) return PriceSummary.EMPTY;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Slot slot : ring) {
+            if (slot == null || slot.size == 0) continue;
+            min = Math.min(min, slot.min);
+            max = Math.max(max, slot.max);
+        }
+        return new PriceSummary(count, min, sum / count, quantile(0.5, min, max), quantile(0.9, min, max), max);
+    }
+
+    private double quantile(double q, double min, double max) {
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // the estimate of the bucket, clamped to the exact extremes of the window
+                return Math.max(min, Math.min(max, estimate(i + offset)));
+            }
+        }
+        return max;
+    }
+
+    private int index(double value) {
+        if (value <= minValue) return 0;
+        return 1 + (int) Math.ceil(Math.log(value / minValue) / logGamma);
+    }
+
+    private double estimate(int index) {
+        if (index == 0) return minValue;
+        double upper = minValue * Math.pow(gamma, index - 1);
+        return 2 * upper / (gamma + 1);
+    }
+
+    private void ensure(int index) {
+        if (counts.length == 0) {
+            counts = new int[16];
+            offset = Math.max(0, index - 8);
+        } else if (index < offset) {
+            int shift = Math.max(offset - index, counts.length / 2);
+            shift = Math.min(shift, offset);
+            int[] grown = new int[counts.length + shift];
+            System.arraycopy(counts, 0, grown, shift, counts.length);
+            counts = grown;
+            offset -= shift;
+        } else if (index >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index - offset + 1, counts.length + counts.length / 2));
+        }
+    }
+
+    private Slot slot(long seq) {
+        int i = (int) Math.floorMod(seq, (long) ring.length);
+        Slot slot = ring[i];
+        if (slot == null || slot.seq != seq) {
+            if (slot != null) evict(slot);
+            slot = new Slot(seq);
+            ring[i] = slot;
+        }
+        return slot;
+    }
+
+    private void evict(Slot slot) {
+        for (int k = 0; k < slot.distinct; k++) counts[slot.buckets[k] - offset] -= slot.counts[k];
+        count -= slot.size;
+        sum -= slot.sum;
+        if (count == 0) sum = 0; // do not let rounding drift accumulate across an empty window
+    }
+
+    /**
+     * Values added by one snapshot, as sorted (bucket, count) pairs: enough to subtract them later, plus their
+     * exact extremes.
+     */
+    private static final class Slot {
+        private final long seq;
+        private int[] buckets = new int[4];
+        private int[] counts = new int[4];
+        private int distinct;
+        private int size;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private Slot(long seq) {
+            this.seq = seq;
+        }
+
+        private void add(int bucket, double value) {
+            int k = Arrays.binarySearch(buckets, 0, distinct, bucket);
+            if (k >= 0) {
+                counts[k]++;
+            } else {
+                k = -k - 1;
+                if (distinct == buckets.length) {
+                    buckets = Arrays.copyOf(buckets, distinct * 2);
+                    counts = Arrays.copyOf(counts, distinct * 2);
+                }
+                System.arraycopy(buckets, k, buckets, k + 1, distinct - k);
+                System.arraycopy(counts, k, counts, k + 1, distinct - k);
+                buckets[k] = bucket;
+                counts[k] = 1;
+                distinct++;
+            }
+            size++;
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+    }
+}
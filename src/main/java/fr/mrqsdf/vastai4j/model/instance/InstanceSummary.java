@@ -21,6 +21,7 @@ import com.google.gson.annotations.SerializedName;
  * @param imageUuid the UUID of the image used by the instance.
  * @param templateId the template ID associated with the instance.
  * @param geoCountryCode the geolocation country code of the instance.
+ * @param startDate the creation time of the contract, in epoch seconds.
  */
 public record InstanceSummary(
         Long id,
@@ -38,6 +39,7 @@ public record InstanceSummary(
         @SerializedName("image_uuid") String imageUuid,
         @SerializedName("image") String image,
         @SerializedName("template_id") Long templateId,
-        @SerializedName("geolocation") String geoCountryCode
+        @SerializedName("geolocation") String geoCountryCode,
+        @SerializedName("start_date") Double startDate
 ) {
 }
@@ -0,0 +1,137 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Intervalle qui suit l’état de l’instance:
+ * <ul>
+ *  <li>démarrage ({@link PollState#isStarting()}) ou changement au dernier relevé: intervalle rapide;</li>
+ *  <li>instance stable: l’intervalle est multiplié par {@code growth} à chaque relevé sans changement, jusqu’au plafond;</li>
+ *  <li>erreurs: backoff exponentiel depuis le dernier délai, jusqu’au plafond d’erreur;</li>
+ *  <li>jitter: ±{@code jitter} sur chaque délai, pour que des centaines d’instances ne tombent pas en même temps.</li>
+ * </ul>
+ * Sans état: un même objet peut servir à toutes les instances suivies.
+ */
+public final class AdaptivePollingPolicy implements PollingPolicy {
+
+    private final long fastMillis;
+    private final long slowMillis;
+    private final double growth;
+    private final long maxErrorMillis;
+    private final double jitter;
+
+    private AdaptivePollingPolicy(Builder b) {
+        this.fastMillis = b.fast.toMillis();
+        this.slowMillis = b.slow.toMillis();
+        this.growth = b.growth;
+        this.maxErrorMillis = b.maxError.toMillis();
+        this.jitter = b.jitter;
+    }
+
+    /**
+     * Crée un builder: 1 s au démarrage, jusqu’à 60 s une fois stable (x1.5 par relevé), 5 min au plus en
+     * erreur, jitter de 20 %.
+     * @return a new Builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public long nextDelayMillis(PollState state) {
+        double delay;
+        if (state.consecutiveErrors() > 0) {
+            double base = Math.max(fastMillis, state.previousDelayMillis());
+            delay = Math.min(maxErrorMillis, base * 2);
+        } else if (state.changed() || state.isStarting()) {
+            delay = fastMillis;
+        } else {
+            delay = Math.min(slowMillis, fastMillis * Math.pow(growth, state.stableTicks()));
+        }
+        if (jitter > 0) delay *= 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(MIN_DELAY_MILLIS, Math.round(delay));
+    }
+
+    /**
+     * Builder class for constructing AdaptivePollingPolicy instances.
+     */
+    public static final class Builder {
+        private Duration fast = Duration.ofSeconds(1);
+        private Duration slow = Duration.ofSeconds(60);
+        private double growth = 1.5;
+        private Duration maxError = Duration.ofMinutes(5);
+        private double jitter = 0.2;
+
+        private Builder() {
+        }
+
+        /**
+         * Intervalle pendant le démarrage et juste après un changement.
+         * @param fast l’intervalle rapide
+         * @return the builder instance
+         */
+        public Builder fast(Duration fast) {
+            this.fast = requirePositive(fast, "fast");
+            return this;
+        }
+
+        /**
+         * Plafond de l’intervalle d’une instance stable.
+         * @param slow l’intervalle lent
+         * @return the builder instance
+         */
+        public Builder slow(Duration slow) {
+            this.slow = requirePositive(slow, "slow");
+            return this;
+        }
+
+        /**
+         * Facteur appliqué à l’intervalle à chaque relevé sans changement.
+         * @param growth le facteur, au moins 1
+         * @return the builder instance
+         */
+        public Builder growth(double growth) {
+            if (!(growth >= 1)) throw new IllegalArgumentException("growth must be >= 1");
+            this.growth = growth;
+            return this;
+        }
+
+        /**
+         * Plafond du backoff en cas d’erreurs consécutives.
+         * @param maxError le délai maximal
+         * @return the builder instance
+         */
+        public Builder maxErrorBackoff(Duration maxError) {
+            this.maxError = requirePositive(maxError, "maxError");
+            return this;
+        }
+
+        /**
+         * Variation aléatoire relative appliquée à chaque délai.
+         * @param jitter la fraction, dans [0, 1)
+         * @return the builder instance
+         */
+        public Builder jitter(double jitter) {
+            if (!(jitter >= 0 && jitter < 1)) throw new IllegalArgumentException("jitter must be in [0, 1)");
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Builds the AdaptivePollingPolicy instance.
+         * @return the constructed AdaptivePollingPolicy
+         */
+        public AdaptivePollingPolicy build() {
+            if (slow.compareTo(fast) < 0) throw new IllegalArgumentException("slow must be >= fast");
+            return new AdaptivePollingPolicy(this);
+        }
+
+        private static Duration requirePositive(Duration d, String name) {
+            Objects.requireNonNull(d, name);
+            if (d.isNegative() || d.isZero()) throw new IllegalArgumentException(name + " must be positive");
+            return d;
+        }
+    }
+}
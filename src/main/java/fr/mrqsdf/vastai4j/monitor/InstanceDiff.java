@@ -0,0 +1,94 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import fr.mrqsdf.vastai4j.event.EventBus;
+import fr.mrqsdf.vastai4j.event.instance.InstanceFieldChangeEvent;
+import fr.mrqsdf.vastai4j.model.instance.InstanceDetails.InstancePayload;
+import fr.mrqsdf.vastai4j.model.instance.InstanceSummary;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Comparaison typée des champs suivis entre deux relevés.
+ * <p>
+ * La référence d’une instance est un {@code Object[]} (une case par champ suivi) qui contient les objets du
+ * dernier payload signalé, mis à jour sur place: un relevé sans changement n’alloue rien, seul un changement
+ * crée son event. Les champs sont résolus une fois pour toutes en tableaux, le coût par relevé est une
+ * lecture d’accesseur et une comparaison par champ.
+ * </p>
+ */
+final class InstanceDiff {
+
+    private final InstanceField[] fields;
+    private final double[] thresholds;
+    private final boolean inSummary;
+
+    InstanceDiff(Map<InstanceField, Double> watched) {
+        this.fields = watched.keySet().toArray(new InstanceField[0]);
+        this.thresholds = new double[fields.length];
+        boolean all = true;
+        for (int i = 0; i < fields.length; i++) {
+            thresholds[i] = watched.get(fields[i]);
+            all &= fields[i].inSummary();
+        }
+        this.inSummary = all;
+    }
+
+    boolean isEmpty() {
+        return fields.length == 0;
+    }
+
+    /** @return true si tous les champs suivis se lisent sur le résumé de la liste (mode groupé sans show). */
+    boolean inSummary() {
+        return inSummary;
+    }
+
+    /** Référence initiale, sans event (première observation). */
+    Object[] baseline(InstancePayload payload) {
+        Object[] baseline = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) baseline[i] = fields[i].get(payload);
+        return baseline;
+    }
+
+    /** Référence initiale lue sur le résumé; uniquement si {@link #inSummary()}. */
+    Object[] baseline(InstanceSummary summary) {
+        Object[] baseline = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) baseline[i] = fields[i].get(summary);
+        return baseline;
+    }
+
+    /**
+     * Compare le payload à la référence, émet un event par champ changé et met la référence à jour.
+     * @return le nombre d’events émis.
+     */
+    int compare(long instanceId, Object[] baseline, InstancePayload payload, EventBus bus, InstanceMonitor monitor) {
+        return compare(instanceId, baseline, payload, null, bus, monitor);
+    }
+
+    /** Même comparaison sur le résumé de la liste; uniquement si {@link #inSummary()}. */
+    int compare(long instanceId, Object[] baseline, InstanceSummary summary, EventBus bus, InstanceMonitor monitor) {
+        return compare(instanceId, baseline, null, summary, bus, monitor);
+    }
+
+    private int compare(long instanceId, Object[] baseline, InstancePayload payload, InstanceSummary summary,
+                        EventBus bus, InstanceMonitor monitor) {
+        int emitted = 0;
+        for (int i = 0; i < fields.length; i++) {
+            Object before = baseline[i];
+            Object now = payload != null ? fields[i].get(payload) : fields[i].get(summary);
+            if (!changed(before, now, thresholds[i])) continue;
+            baseline[i] = now;
+            bus.call(new InstanceFieldChangeEvent(instanceId, fields[i], before, now, monitor));
+            emitted++;
+        }
+        return emitted;
+    }
+
+    private static boolean changed(Object before, Object now, double threshold) {
+        if (before instanceof Number a && now instanceof Number b) {
+            double delta = Math.abs(b.doubleValue() - a.doubleValue());
+            return threshold > 0 ? delta >= threshold : delta != 0;
+        }
+        return !Objects.equals(before, now);
+    }
+}
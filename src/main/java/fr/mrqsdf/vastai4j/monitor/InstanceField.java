@@ -0,0 +1,73 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import fr.mrqsdf.vastai4j.model.instance.InstanceDetails.InstancePayload;
+import fr.mrqsdf.vastai4j.model.instance.InstanceSummary;
+
+import java.util.function.Function;
+
+/**
+ * Champs d’une instance que {@link InstanceMonitor} peut comparer d’un relevé à l’autre
+ * ({@link InstanceMonitor.Builder#watchField}). Chaque champ lit directement l’accesseur typé du record:
+ * ni réflexion ni copie. Les champs présents dans {@code GET /instances/} ({@link #inSummary()}) sont aussi lus
+ * sur {@link InstanceSummary}, ce qui permet au mode groupé de les comparer sans show(id).
+ */
+public enum InstanceField {
+
+    GPU_UTIL("gpu_util", true, InstancePayload::gpuUtil, null),
+    GPU_TEMP("gpu_temp", true, InstancePayload::gpuTemp, null),
+    CPU_UTIL("cpu_util", true, InstancePayload::cpuUtil, null),
+    DISK_USAGE("disk_usage", true, InstancePayload::diskUsage, null),
+    DISK_UTIL("disk_util", true, InstancePayload::diskUtil, null),
+    DPH_TOTAL("dph_total", true, InstancePayload::dphTotal, InstanceSummary::dphTotal),
+    INET_UP("inet_up", true, InstancePayload::inetUp, null),
+    INET_DOWN("inet_down", true, InstancePayload::inetDown, null),
+    SSH_PORT("ssh_port", true, InstancePayload::sshPort, null),
+    STATUS_MSG("status_msg", false, InstancePayload::statusMsg, null),
+    INTENDED_STATUS("intended_status", false, InstancePayload::intendedStatus, InstanceSummary::intendedStatus),
+    SSH_HOST("ssh_host", false, InstancePayload::sshHost, null),
+    PUBLIC_IPADDR("public_ipaddr", false, InstancePayload::publicIpaddr, null),
+    /** Table de ports Docker ("22/tcp" -> [{HostIp, HostPort}]). */
+    PORTS("ports", false, InstancePayload::ports, null);
+
+    private final String apiName;
+    private final boolean numeric;
+    private final Function<InstancePayload, ?> accessor;
+    private final Function<InstanceSummary, ?> summaryAccessor;
+
+    InstanceField(String apiName, boolean numeric, Function<InstancePayload, ?> accessor,
+                  Function<InstanceSummary, ?> summaryAccessor) {
+        this.apiName = apiName;
+        this.numeric = numeric;
+        this.accessor = accessor;
+        this.summaryAccessor = summaryAccessor;
+    }
+
+    /** @return le nom du champ dans l’API (ex. "gpu_util"). */
+    public String apiName() {
+        return apiName;
+    }
+
+    /** @return true si le champ est numérique (un seuil peut lui être associé). */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /** @return la valeur du champ dans le relevé (Number, String ou Map), null si absente. */
+    public Object get(InstancePayload payload) {
+        return accessor.apply(payload);
+    }
+
+    /** @return true si le champ figure aussi dans le résumé de {@code GET /instances/}. */
+    public boolean inSummary() {
+        return summaryAccessor != null;
+    }
+
+    /**
+     * @return la valeur du champ dans le résumé, null si absente.
+     * @throws UnsupportedOperationException si le champ n’est pas dans le résumé ({@link #inSummary()}).
+     */
+    public Object get(InstanceSummary summary) {
+        if (summaryAccessor == null) throw new UnsupportedOperationException(apiName + " is not in the instance list");
+        return summaryAccessor.apply(summary);
+    }
+}
@@ -1,48 +1,137 @@
 package fr.mrqsdf.vastai4j.monitor;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import fr.mrqsdf.vastai4j.VastAI;
 import fr.mrqsdf.vastai4j.event.EventBus;
 import fr.mrqsdf.vastai4j.event.instance.InstancePortsMappedEvent;
 import fr.mrqsdf.vastai4j.event.instance.InstanceSshReadyEvent;
 import fr.mrqsdf.vastai4j.event.instance.InstanceStateChangeEvent;
+import fr.mrqsdf.vastai4j.http.RequestPriority;
 import fr.mrqsdf.vastai4j.model.instance.InstanceDetails;
+import fr.mrqsdf.vastai4j.model.instance.InstanceSummary;
+import fr.mrqsdf.vastai4j.model.instance.Ports;
 import fr.mrqsdf.vastai4j.service.InstanceService;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Surveille un ou plusieurs instanceId et émet des events quand:
  *  - l’état change (cur_state / actual_status)
  *  - SSH devient disponible (ssh_host+ssh_port)
  *  - une table de ports Docker (\"ports\" objet) apparaît
+ * Les requêtes de suivi partent en priorité BACKGROUND pour ne jamais retarder un stop/destroy.
+ * <p>
+ * Deux modes:
+ *  - par instance ({@link #watch(long, long, TimeUnit)}): un show(id) par instance et par période;
+ *  - groupé ({@link Builder#batched}, puis {@link #watch(long)}): un seul GET /instances/ par période pour
+ *    toutes les instances, comparé aux snapshots; show(id) n’est appelé que pour les instances dont le
+ *    résumé a changé, inconnues, ou en cours de démarrage (SSH / ports pas encore vus).
+ *    La charge API suit alors le nombre de changements, pas la taille de la flotte.
+ * </p>
+ * <p>
+ * Par défaut les relevés s’exécutent sur le thread unique du scheduler: un show() lent retarde tous les
+ * autres. Pour une grosse flotte, choisir {@link Builder#virtualThreads()}, {@link Builder#threadPool(int)} ou
+ * {@link Builder#asyncHttp()}, et borner chaque relevé avec {@link Builder#tickTimeout}. Une instance n’a
+ * jamais plus d’un relevé en vol: le suivant n’est planifié qu’à la fin (ou à l’expiration) du précédent,
+ * donc les dépassements ne s’empilent pas. {@link #stats()} expose latences et attente en file.
+ * </p>
+ * <p>
+ * {@link Builder#watchField} ajoute des events par champ ({@code gpu_util}, {@code disk_usage}, {@code dph_total},
+ * {@code status_msg}, ports...), avec un seuil pour les champs numériques. En mode groupé, les champs présents
+ * dans la liste ({@link InstanceField#inSummary()}) sont comparés sur le résumé; suivre un autre champ impose un
+ * show(id) par instance et par période.
+ * </p>
+ * <pre>{@code
+ * InstanceMonitor mon = InstanceMonitor.builder(vast, bus)
+ *         .batched(5, TimeUnit.SECONDS)
+ *         .asyncHttp()
+ *         .tickTimeout(Duration.ofSeconds(10))
+ *         .build();
+ * ids.forEach(mon::watch);
+ * }</pre>
  */
 public final class InstanceMonitor implements AutoCloseable {
 
     private final InstanceService instances;
     private final EventBus bus;
     private final ScheduledExecutorService ses;
+    private final long batchPeriodMillis;
+    private final TickExecutor execution;
+    private final long tickTimeoutMillis;
+    private final InstanceDiff diff;
 
     /** État connu pour un id. */
     private static final class Snapshot {
         final String curState;
         final String actualStatus;
+        final String intendedStatus;
         final boolean sshReady;
         final boolean portsMapped;
+        /** Valeurs des champs suivis au dernier event (voir {@link InstanceDiff}), null si rien n’est suivi. */
+        final Object[] fields;
 
-        Snapshot(String cur, String act, boolean ssh, boolean pm) {
-            this.curState = cur; this.actualStatus = act; this.sshReady = ssh; this.portsMapped = pm;
+        Snapshot(String cur, String act, String intended, boolean ssh, boolean pm, Object[] fields) {
+            this.curState = cur; this.actualStatus = act; this.intendedStatus = intended; this.sshReady = ssh; this.portsMapped = pm;
+            this.fields = fields;
+        }
+
+        boolean sameAs(String cur, String act, String intended, boolean ssh, boolean pm) {
+            return curState.equals(cur) && actualStatus.equals(act) && intendedStatus.equals(intended)
+                    && sshReady == ssh && portsMapped == pm;
+        }
+
+        /** Le résumé de la liste correspond-il à ce qu’on connaît déjà ? */
+        boolean matches(InstanceSummary s) {
+            return curState.equals(nz(s.curState())) && actualStatus.equals(nz(s.actualStatus()))
+                    && intendedStatus.equals(nz(s.intendedStatus()));
+        }
+
+        /** Instance qui tourne mais dont SSH ou les ports ne sont pas encore connus: il faut le détail. */
+        boolean needsDetails() {
+            return "running".equals(actualStatus) && !(sshReady && portsMapped);
         }
     }
 
     private final Map<Long, Snapshot> last = new ConcurrentHashMap<>();
-    private final Map<Long, ScheduledFuture<?>> tasks = new ConcurrentHashMap<>();
+    private final Map<Long, Watch> tasks = new ConcurrentHashMap<>();
+    private final Set<Long> batched = ConcurrentHashMap.newKeySet();
+    /** Attentes par instance, et instances suivies uniquement pour elles (gardé par {@code waiters}). */
+    private final Map<Long, List<Waiter>> waiters = new HashMap<>();
+    private final Set<Long> awaitOnly = new HashSet<>();
+    private final PollingPolicy awaitPolicy;
+    private ScheduledFuture<?> batchTask;
+    private boolean batchRunning;
+
+    private final AtomicLong listCalls = new AtomicLong();
+    private final AtomicLong showCalls = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
 
     public InstanceMonitor(VastAI vast, EventBus bus) {
-        this.instances = vast.instances();
-        this.bus = Objects.requireNonNull(bus, "bus");
+        this(builder(vast, bus));
+    }
+
+    private InstanceMonitor(Builder b) {
+        this.instances = b.instances;
+        this.awaitPolicy = b.awaitPolicy;
+        this.bus = b.bus;
+        this.batchPeriodMillis = b.batchPeriodMillis;
+        this.execution = b.execution.get();
+        this.tickTimeoutMillis = b.tickTimeoutMillis;
+        this.diff = new InstanceDiff(b.fields);
         this.ses = Executors.newScheduledThreadPool(1, r -> {
             Thread t = new Thread(r, "vast-instance-monitor");
             t.setDaemon(true);
@@ -50,137 +139,420 @@ public final class InstanceMonitor implements AutoCloseable {
         });
     }
 
+    /**
+     * Crée un builder (mode par instance par défaut).
+     * @param vast le client
+     * @param bus le bus qui reçoit les events
+     * @return a new Builder instance
+     */
+    public static Builder builder(VastAI vast, EventBus bus) {
+        return new Builder(vast, bus);
+    }
+
+    /**
+     * Crée un builder à partir du service d’instances directement.
+     * @param instances le service qui exécute les relevés
+     * @param bus le bus qui reçoit les events
+     * @return a new Builder instance
+     */
+    public static Builder builder(InstanceService instances, EventBus bus) {
+        return new Builder(instances, bus);
+    }
+
     /** Commence à surveiller un instanceId à intervalle fixe. */
     public void watch(long instanceId, long period, TimeUnit unit) {
-        stop(instanceId);
-        ScheduledFuture<?> f = ses.scheduleWithFixedDelay(() -> tick(instanceId),
-                0, Math.max(250, unit.toMillis(period)), TimeUnit.MILLISECONDS);
-        tasks.put(instanceId, f);
+        watch(instanceId, PollingPolicy.fixed(period, unit));
+    }
+
+    /**
+     * Commence à surveiller un instanceId; après chaque relevé, la politique choisit le délai du suivant
+     * (ex. {@link PollingPolicy#adaptive()}: rapide au démarrage, lent une fois stable, backoff sur erreur).
+     */
+    public void watch(long instanceId, PollingPolicy policy) {
+        Objects.requireNonNull(policy, "policy");
+        synchronized (waiters) {
+            awaitOnly.remove(instanceId); // désormais suivi à la demande de l’appelant
+        }
+        unwatch(instanceId);
+        Watch w = new Watch(instanceId, policy);
+        tasks.put(instanceId, w);
+        schedule(w, 0);
+    }
+
+    /**
+     * Ajoute un instanceId au suivi groupé (une liste par période pour toutes les instances).
+     * @throws IllegalStateException si le moniteur n’a pas été construit avec {@link Builder#batched}.
+     */
+    public void watch(long instanceId) {
+        if (batchPeriodMillis <= 0) throw new IllegalStateException("batched mode is not enabled");
+        synchronized (waiters) {
+            awaitOnly.remove(instanceId);
+        }
+        unwatch(instanceId);
+        batched.add(instanceId);
+        synchronized (this) {
+            if (!batchRunning && !ses.isShutdown()) {
+                batchRunning = true;
+                scheduleBatch(0);
+            }
+        }
     }
 
     /** Arrête la surveillance d’un id. */
     public void stop(long instanceId) {
-        ScheduledFuture<?> f = tasks.remove(instanceId);
-        if (f != null) f.cancel(true);
+        List<Waiter> pending;
+        synchronized (waiters) {
+            pending = waiters.remove(instanceId);
+            awaitOnly.remove(instanceId);
+        }
+        unwatch(instanceId);
+        if (pending != null) pending.forEach(w -> w.future.cancel(false));
+    }
+
+    private void unwatch(long instanceId) {
+        Watch w = tasks.remove(instanceId);
+        if (w != null) w.cancel();
+        batched.remove(instanceId);
         last.remove(instanceId);
     }
 
+    /**
+     * Attend qu’une instance vérifie une condition, sans boucle côté appelant: la condition est testée sur
+     * chaque relevé de l’instance. Si elle n’est pas déjà suivie, l’instance est suivie le temps de
+     * l’attente (politique {@link Builder#awaitPolicy}), puis relâchée quand plus personne ne l’attend.
+     * Tous les appelants qui attendent une même instance partagent ses relevés.
+     * <p>
+     * Le future échoue en {@link TimeoutException} à l’expiration; l’annuler retire l’attente. {@link #stop(long)}
+     * et {@link #close()} annulent les attentes en cours.
+     * </p>
+     * @param instanceId l’instance
+     * @param condition la condition, testée sur le thread du relevé (doit répondre vite)
+     * @param timeout le délai maximal
+     * @return un future complété avec le premier relevé qui vérifie la condition
+     */
+    public CompletableFuture<InstanceDetails> await(long instanceId, Predicate<? super InstanceDetails> condition, Duration timeout) {
+        Objects.requireNonNull(condition, "condition");
+        Objects.requireNonNull(timeout, "timeout");
+        Waiter waiter = new Waiter(condition);
+        synchronized (waiters) {
+            if (ses.isShutdown()) throw new IllegalStateException("monitor is closed");
+            waiters.computeIfAbsent(instanceId, k -> new ArrayList<>()).add(waiter);
+            if (!tasks.containsKey(instanceId) && !batched.contains(instanceId) && awaitOnly.add(instanceId)) {
+                Watch w = new Watch(instanceId, awaitPolicy);
+                tasks.put(instanceId, w);
+                schedule(w, 0);
+            }
+        }
+        waiter.future.orTimeout(Math.max(1, timeout.toMillis()), TimeUnit.MILLISECONDS);
+        waiter.future.whenComplete((det, error) -> release(instanceId, waiter));
+        return waiter.future;
+    }
+
+    /** @return le nombre d’attentes en cours. */
+    public int pendingAwaits() {
+        synchronized (waiters) {
+            int n = 0;
+            for (List<Waiter> list : waiters.values()) n += list.size();
+            return n;
+        }
+    }
+
+    private void release(long instanceId, Waiter waiter) {
+        synchronized (waiters) {
+            List<Waiter> list = waiters.get(instanceId);
+            if (list != null && list.remove(waiter) && list.isEmpty()) {
+                waiters.remove(instanceId);
+                if (awaitOnly.remove(instanceId)) unwatch(instanceId); // plus personne n’attend cette instance
+            }
+        }
+    }
+
+    /** Teste les attentes de l’instance sur le relevé reçu. */
+    private void resolve(long instanceId, InstanceDetails det) {
+        List<Waiter> list;
+        synchronized (waiters) {
+            List<Waiter> current = waiters.get(instanceId);
+            if (current == null) return;
+            list = new ArrayList<>(current);
+        }
+        for (Waiter w : list) {
+            try {
+                if (w.condition.test(det)) w.future.complete(det);
+            } catch (Throwable t) {
+                w.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * @return les compteurs de requêtes et les métriques des relevés (latence, attente, expirations).
+     */
+    public Stats stats() {
+        long n = ticks.get();
+        return new Stats(execution.name(), listCalls.get(), showCalls.get(), skipped.get(), n, timeouts.get(),
+                errors.get(), inFlight.get(), maxInFlight.get(),
+                n == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.get() / n), Duration.ofNanos(maxLatencyNanos.get()),
+                n == 0 ? Duration.ZERO : Duration.ofNanos(totalQueueNanos.get() / n), Duration.ofNanos(maxQueueNanos.get()));
+    }
+
     /** Arrête tout. */
     @Override public void close() {
-        tasks.values().forEach(f -> f.cancel(true));
+        tasks.values().forEach(Watch::cancel);
         tasks.clear();
-        ses.shutdownNow();
+        synchronized (this) {
+            if (batchTask != null) batchTask.cancel(true);
+            batchTask = null;
+            batchRunning = false;
+        }
+        batched.clear();
+        List<Waiter> pending = new ArrayList<>();
+        synchronized (waiters) {
+            ses.shutdownNow();
+            waiters.values().forEach(pending::addAll);
+            waiters.clear();
+            awaitOnly.clear();
+        }
+        execution.shutdown();
+        pending.forEach(w -> w.future.cancel(false));
     }
 
-    private void tick(long id) {
-        try {
-            InstanceDetails det = instances.show(id);
-            InstanceDetails.InstancePayload p = det.instances();
-
-            String cur = nz(p.curState());
-            String act = nz(p.actualStatus());
-            boolean ssh = p.sshHost() != null && p.sshPort() != null && p.sshPort() > 0;
-            boolean portsMapped = hasDockerPortsObject(p);
+    /** Un tick groupé: une liste, puis show(id) seulement là où le résumé ne suffit pas. */
+    private void batchTick(long dueNanos) {
+        if (batched.isEmpty()) {
+            scheduleBatch(batchPeriodMillis);
+            return;
+        }
+        listCalls.incrementAndGet();
+        timed(dueNanos, () -> instances.list(RequestPriority.BACKGROUND), () -> instances.listAsync(RequestPriority.BACKGROUND))
+                .thenCompose(list -> {
+                    List<CompletableFuture<?>> pending = new ArrayList<>();
+                    for (Long id : diff(list)) {
+                        showCalls.incrementAndGet();
+                        pending.add(timed(System.nanoTime(), () -> instances.show(id, RequestPriority.BACKGROUND),
+                                () -> instances.showAsync(id, RequestPriority.BACKGROUND))
+                                .handle((det, t) -> {
+                                    if (t != null) t.printStackTrace();
+                                    else if (batched.contains(id)) apply(id, det); // sinon stop(id) entre-temps
+                                    return null;
+                                }));
+                    }
+                    return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+                })
+                .whenComplete((ignored, t) -> {
+                    // on ne casse pas la boucle
+                    if (t != null) t.printStackTrace();
+                    scheduleBatch(batchPeriodMillis);
+                });
+    }
 
+    /** Les instances dont le résumé de la liste ne suffit pas (snapshots mis à jour pour les autres). */
+    private List<Long> diff(List<InstanceSummary> list) {
+        Map<Long, InstanceSummary> byId = new HashMap<>();
+        for (InstanceSummary s : list) {
+            if (s != null && s.id() != null) byId.put(s.id(), s);
+        }
+        Set<Long> awaited;
+        synchronized (waiters) {
+            awaited = new HashSet<>(waiters.keySet());
+        }
+        List<Long> details = new ArrayList<>();
+        for (Long id : batched) {
+            if (awaited.contains(id)) {
+                // une attente teste sa condition sur le détail, même si le résumé n’a pas bougé
+                details.add(id);
+                continue;
+            }
+            InstanceSummary s = byId.get(id);
             Snapshot prev = last.get(id);
-            if (prev == null) {
-                last.put(id, new Snapshot(cur, act, ssh, portsMapped));
-                // première observation: si déjà ssh dispo / mapping présent, on peut émettre les events « ready »
-                if (ssh) bus.call(new InstanceSshReadyEvent(id, p.sshHost(), p.sshPort(), this));
-                if (portsMapped) bus.call(new InstancePortsMappedEvent(id, p.ports(), getIpOrHost(p), this));
-                return;
+            // champs suivis hors de la liste (gpu_util, status_msg...): seul le détail permet de les comparer
+            boolean summaryFields = diff.isEmpty() || diff.inSummary();
+            if (s != null && prev == null && !"running".equals(s.actualStatus()) && summaryFields) {
+                // première observation d’une instance qui ne tourne pas: le résumé suffit
+                last.put(id, new Snapshot(nz(s.curState()), nz(s.actualStatus()), nz(s.intendedStatus()), false, false,
+                        diff.isEmpty() ? null : diff.baseline(s)));
+                skipped.incrementAndGet();
+                continue;
             }
-
-            // Changement d’état?
-            if (!Objects.equals(prev.curState, cur) || !Objects.equals(prev.actualStatus, act)) {
-                bus.call(new InstanceStateChangeEvent(id, prev.curState, cur, prev.actualStatus, act, this));
+            if (s != null && prev != null && prev.matches(s) && !prev.needsDetails() && summaryFields) {
+                if (prev.fields != null) diff.compare(id, prev.fields, s, bus, this);
+                skipped.incrementAndGet();
+                continue;
             }
+            // inconnue, absente de la liste, résumé modifié, démarrage en cours ou champs hors liste: détail complet
+            details.add(id);
+        }
+        return details;
+    }
 
-            // SSH vient d’apparaître ?
-            if (!prev.sshReady && ssh) {
-                bus.call(new InstanceSshReadyEvent(id, p.sshHost(), p.sshPort(), this));
-            }
+    private synchronized void scheduleBatch(long delayMillis) {
+        if (!batchRunning || ses.isShutdown()) return;
+        long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        try {
+            batchTask = ses.schedule(() -> batchTick(due), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException closed) {
+            // close() concurrent
+        }
+    }
 
-            // Mapping de ports Docker vient d’apparaître ?
-            if (!prev.portsMapped && portsMapped) {
-                bus.call(new InstancePortsMappedEvent(id, p.ports(), getIpOrHost(p), this));
-            }
+    /** Un relevé par instance, puis replanification selon la politique. */
+    private void tick(Watch w) {
+        long id = w.instanceId;
+        showCalls.incrementAndGet();
+        timed(w.dueNanos, () -> instances.show(id, RequestPriority.BACKGROUND),
+                () -> instances.showAsync(id, RequestPriority.BACKGROUND))
+                .handle((det, error) -> {
+                    boolean changed = false;
+                    boolean failed = error != null;
+                    if (failed) {
+                        error.printStackTrace();
+                    } else if (tasks.get(id) == w) {
+                        try {
+                            changed = apply(id, det);
+                        } catch (Throwable t) {
+                            // on ne casse pas le scheduler
+                            failed = true;
+                            t.printStackTrace();
+                        }
+                    }
+                    reschedule(w, changed, failed);
+                    return null;
+                });
+    }
 
-            last.put(id, new Snapshot(cur, act, ssh, portsMapped));
+    private void reschedule(Watch w, boolean changed, boolean failed) {
+        long id = w.instanceId;
+        if (tasks.get(id) != w) return; // stop(id) ou nouveau watch entre-temps
+        Snapshot snap = last.get(id);
+        if (failed) {
+            w.errors++;
+        } else {
+            w.errors = 0;
+            w.stableTicks = changed ? 0 : w.stableTicks + 1;
+        }
+        PollState state = snap == null
+                ? new PollState(id, "", "", false, false, changed, w.stableTicks, w.errors, w.delayMillis)
+                : new PollState(id, snap.curState, snap.actualStatus, snap.sshReady, snap.portsMapped,
+                        changed, w.stableTicks, w.errors, w.delayMillis);
+        long delay;
+        try {
+            delay = Math.max(PollingPolicy.MIN_DELAY_MILLIS, w.policy.nextDelayMillis(state));
         } catch (Throwable t) {
-            // on ne casse pas le scheduler
             t.printStackTrace();
+            delay = Math.max(PollingPolicy.MIN_DELAY_MILLIS, w.delayMillis);
         }
+        schedule(w, delay);
     }
 
-    // ---- helpers ----
-
-    private static boolean hasDockerPortsObject(InstanceDetails.InstancePayload p) {
-        // Ton modèle peut typer "ports" comme JsonElement ou Map-like.
-        // Ici, on tente de récupérer via reflection le getter "ports" (record).
-        try {
-            var m = p.getClass().getDeclaredMethod("ports");
-            Object v = m.invoke(p);
-            if (v == null) return false;
-            if (v instanceof JsonObject) return true;         // objet {"22/tcp":[...]}
-            if (v instanceof Map<?,?>)   return true;
-            // liste d’entiers => pas un mapping externe->interne
-            return false;
-        } catch (ReflectiveOperationException e) {
-            return false;
+    private void schedule(Watch w, long delayMillis) {
+        synchronized (w) {
+            if (w.cancelled || ses.isShutdown()) return;
+            w.delayMillis = delayMillis;
+            w.dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            try {
+                w.future = ses.schedule(() -> tick(w), delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException closed) {
+                // close() concurrent
+            }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<Integer,Integer> extractPortsMap(InstanceDetails.InstancePayload p) {
-        // support "ports" sous forme JsonObject Docker
-        try {
-            var m = p.getClass().getDeclaredMethod("ports");
-            Object v = m.invoke(p);
-            if (v instanceof JsonObject obj) {
-                Map<Integer,Integer> out = new LinkedHashMap<>();
-                for (String key : obj.keySet()) { // key ex: "22/tcp"
-                    int internal = parseInternal(key);
-                    JsonElement arrEl = obj.get(key);
-                    if (arrEl != null && arrEl.isJsonArray() && arrEl.getAsJsonArray().size() > 0) {
-                        JsonObject first = arrEl.getAsJsonArray().get(0).getAsJsonObject();
-                        if (first.has("HostPort")) {
-                            try {
-                                int external = Integer.parseInt(first.get("HostPort").getAsString());
-                                out.put(internal, external);
-                            } catch (NumberFormatException ignore) {}
-                        }
-                    }
-                }
-                return out;
-            } else if (v instanceof Map<?,?> map) {
-                // Map<String,List<Map<String,String>>> comme renvoi Jackson-like
-                Map<Integer,Integer> out = new LinkedHashMap<>();
-                for (Map.Entry<?,?> e : map.entrySet()) {
-                    String key = String.valueOf(e.getKey()); // "22/tcp"
-                    int internal = parseInternal(key);
-                    Object list = e.getValue();
-                    if (list instanceof List<?> l && !l.isEmpty()) {
-                        Object first = l.get(0);
-                        if (first instanceof Map<?,?> m1 && m1.containsKey("HostPort")) {
-                            try {
-                                int external = Integer.parseInt(String.valueOf(m1.get("HostPort")));
-                                out.put(internal, external);
-                            } catch (NumberFormatException ignore) {}
-                        }
-                    }
-                }
-                return out;
+    /**
+     * Lance un appel via le mode d’exécution choisi, avec le délai maximal par relevé, et mesure l’attente
+     * (échéance → début effectif) et la latence (début → fin).
+     */
+    private <T> CompletableFuture<T> timed(long dueNanos, Supplier<T> blocking, Supplier<CompletableFuture<T>> async) {
+        long submitted = System.nanoTime();
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+        long[] started = {submitted};
+        Supplier<T> measured = () -> {
+            started[0] = System.nanoTime();
+            return blocking.get();
+        };
+        return execution.call(measured, async, tickTimeoutMillis).whenComplete((ignored, error) -> {
+            long end = System.nanoTime();
+            inFlight.decrementAndGet();
+            ticks.incrementAndGet();
+            if (error != null) {
+                errors.incrementAndGet();
+                if (error instanceof TimeoutException || error.getCause() instanceof TimeoutException) timeouts.incrementAndGet();
             }
-        } catch (ReflectiveOperationException ignore) { /* no-op */ }
-        return Map.of();
+            long queue = Math.max(0, started[0] - dueNanos);
+            long latency = end - started[0];
+            totalQueueNanos.addAndGet(queue);
+            maxQueueNanos.accumulateAndGet(queue, Math::max);
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        });
+    }
+
+    /**
+     * Compare le détail reçu au snapshot et émet les events.
+     * @return true si quelque chose a changé (ou première observation).
+     */
+    private boolean apply(long id, InstanceDetails det) {
+        boolean changed = update(id, det);
+        // attentes testées après le snapshot: une attente satisfaite peut relâcher l’instance (et son snapshot)
+        resolve(id, det);
+        // suivi arrêté pendant le relevé (stop, expiration d’une attente): pas de snapshot orphelin
+        if (!tasks.containsKey(id) && !batched.contains(id)) last.remove(id);
+        return changed;
+    }
+
+    private boolean update(long id, InstanceDetails det) {
+        InstanceDetails.InstancePayload p = det.instances();
+        if (p == null) return false;
+
+        String cur = nz(p.curState());
+        String act = nz(p.actualStatus());
+        String intended = nz(p.intendedStatus());
+        boolean ssh = p.sshHost() != null && p.sshPort() != null && p.sshPort() > 0;
+        boolean portsMapped = hasPortsMapping(p);
+
+        Snapshot prev = last.get(id);
+        if (prev == null) {
+            last.put(id, new Snapshot(cur, act, intended, ssh, portsMapped, diff.isEmpty() ? null : diff.baseline(p)));
+            // première observation: si déjà ssh dispo / mapping présent, on peut émettre les events « ready »
+            if (ssh) bus.call(new InstanceSshReadyEvent(id, p.sshHost(), p.sshPort(), this));
+            if (portsMapped) bus.call(new InstancePortsMappedEvent(id, p.ports(), getIpOrHost(p), this));
+            return true;
+        }
+
+        boolean changed = !prev.intendedStatus.equals(intended);
+        Object[] fields = prev.fields;
+        boolean seeded = fields == null && !diff.isEmpty(); // snapshot issu de la liste: pas encore de référence
+        if (seeded) fields = diff.baseline(p);
+
+        // Changement d’état?
+        if (!Objects.equals(prev.curState, cur) || !Objects.equals(prev.actualStatus, act)) {
+            changed = true;
+            bus.call(new InstanceStateChangeEvent(id, prev.curState, cur, prev.actualStatus, act, this));
+        }
+
+        // SSH vient d’apparaître ?
+        if (!prev.sshReady && ssh) {
+            bus.call(new InstanceSshReadyEvent(id, p.sshHost(), p.sshPort(), this));
+        }
+
+        // Mapping de ports Docker vient d’apparaître ?
+        if (!prev.portsMapped && portsMapped) {
+            bus.call(new InstancePortsMappedEvent(id, p.ports(), getIpOrHost(p), this));
+        }
+
+        // Champs suivis (gpu_util, status_msg, ports...): comparaison typée, sans allocation si rien ne change
+        if (fields != null && !seeded) diff.compare(id, fields, p, bus, this);
+
+        if (!prev.sameAs(cur, act, intended, ssh, portsMapped)) changed = true;
+        if (changed || seeded) last.put(id, new Snapshot(cur, act, intended, ssh, portsMapped, fields));
+        return changed;
     }
 
-    private static int parseInternal(String key) {
-        // "22/tcp" -> 22
-        int slash = key.indexOf('/');
-        String n = (slash > 0) ? key.substring(0, slash) : key;
-        try { return Integer.parseInt(n); } catch (NumberFormatException e) { return -1; }
+    // ---- helpers ----
+
+    /** Un mapping Docker est connu dès que l’objet "ports" a au moins une entrée. */
+    private static boolean hasPortsMapping(InstanceDetails.InstancePayload p) {
+        Map<String, List<Ports>> ports = p.ports();
+        return ports != null && !ports.isEmpty();
     }
 
     private static String getIpOrHost(InstanceDetails.InstancePayload p) {
@@ -190,4 +562,184 @@ public final class InstanceMonitor implements AutoCloseable {
     }
 
     private static String nz(String s) { return s == null ? "" : s; }
+
+    /** Une attente de {@link #await}. */
+    private static final class Waiter {
+        final Predicate<? super InstanceDetails> condition;
+        final CompletableFuture<InstanceDetails> future = new CompletableFuture<>();
+
+        Waiter(Predicate<? super InstanceDetails> condition) {
+            this.condition = condition;
+        }
+    }
+
+    /** Suivi par instance: politique, compteurs et prochain relevé planifié. */
+    private static final class Watch {
+        final long instanceId;
+        final PollingPolicy policy;
+        int stableTicks;
+        int errors;
+        long delayMillis;
+        long dueNanos;
+        ScheduledFuture<?> future;
+        boolean cancelled;
+
+        Watch(long instanceId, PollingPolicy policy) {
+            this.instanceId = instanceId;
+            this.policy = policy;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (future != null) future.cancel(true);
+        }
+    }
+
+    /**
+     * Compteurs de requêtes et métriques des relevés du moniteur.
+     *
+     * @param execution    le mode d’exécution ("scheduler", "virtual", "pool(n)" ou "async").
+     * @param listCalls    le nombre de GET /instances/ (mode groupé).
+     * @param showCalls    le nombre de show(id).
+     * @param skipped      le nombre d’instances servies par la liste sans show(id).
+     * @param ticks        le nombre d’appels terminés (listes et show).
+     * @param timeouts     le nombre d’appels arrêtés par le délai maximal par relevé.
+     * @param errors       le nombre d’appels en échec, expirations comprises.
+     * @param inFlight     le nombre d’appels lancés et pas encore terminés (attente d’un thread comprise).
+     * @param maxInFlight  le plus grand {@code inFlight} observé.
+     * @param meanLatency  la durée moyenne d’un appel, du début effectif à la fin.
+     * @param maxLatency   la plus longue durée d’appel.
+     * @param meanQueueing l’attente moyenne entre l’échéance d’un relevé et son début effectif.
+     * @param maxQueueing  la plus longue attente.
+     */
+    public record Stats(String execution, long listCalls, long showCalls, long skipped, long ticks, long timeouts,
+                        long errors, int inFlight, int maxInFlight, Duration meanLatency, Duration maxLatency,
+                        Duration meanQueueing, Duration maxQueueing) {
+    }
+
+    /**
+     * Builder class for constructing InstanceMonitor instances.
+     */
+    public static final class Builder {
+        private final InstanceService instances;
+        private final EventBus bus;
+        private long batchPeriodMillis;
+        private Supplier<TickExecutor> execution = TickExecutor::inline;
+        private long tickTimeoutMillis;
+        private final Map<InstanceField, Double> fields = new EnumMap<>(InstanceField.class);
+        private PollingPolicy awaitPolicy = AdaptivePollingPolicy.builder()
+                .fast(Duration.ofSeconds(1)).slow(Duration.ofSeconds(10)).build();
+
+        private Builder(VastAI vast, EventBus bus) {
+            this(Objects.requireNonNull(vast, "vast").instances(), bus);
+        }
+
+        private Builder(InstanceService instances, EventBus bus) {
+            this.instances = Objects.requireNonNull(instances, "instances");
+            this.bus = Objects.requireNonNull(bus, "bus");
+        }
+
+        /**
+         * Active le mode groupé: une seule liste par période pour toutes les instances ajoutées par
+         * {@link InstanceMonitor#watch(long)}.
+         * @param period la période (250 ms minimum)
+         * @param unit l’unité de la période
+         * @return the builder instance
+         */
+        public Builder batched(long period, TimeUnit unit) {
+            if (period <= 0) throw new IllegalArgumentException("period must be > 0");
+            this.batchPeriodMillis = Math.max(250, unit.toMillis(period));
+            return this;
+        }
+
+        /**
+         * Un thread virtuel par relevé (Java 21+); sur une JVM plus ancienne, pool borné de 64 threads.
+         * @return the builder instance
+         */
+        public Builder virtualThreads() {
+            this.execution = () -> TickExecutor.virtualThreads(64);
+            return this;
+        }
+
+        /**
+         * Relevés bloquants sur un pool borné de threads plateforme.
+         * @param threads le nombre de threads, au moins 1
+         * @return the builder instance
+         */
+        public Builder threadPool(int threads) {
+            if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+            this.execution = () -> TickExecutor.pool(threads);
+            return this;
+        }
+
+        /**
+         * Relevés par les appels HTTP asynchrones du client: aucun thread bloqué par relevé; la concurrence est
+         * alors réglée par le limiteur et le scheduler du client.
+         * @return the builder instance
+         */
+        public Builder asyncHttp() {
+            this.execution = TickExecutor::async;
+            return this;
+        }
+
+        /**
+         * Délai maximal d’un relevé (liste ou show): passé ce délai le relevé compte comme une erreur, l’appel
+         * bloquant est interrompu et le suivant est planifié. Aucun par défaut (timeout HTTP du client).
+         * @param timeout le délai, strictement positif
+         * @return the builder instance
+         */
+        public Builder tickTimeout(Duration timeout) {
+            Objects.requireNonNull(timeout, "timeout");
+            if (timeout.isNegative() || timeout.isZero()) throw new IllegalArgumentException("timeout must be positive");
+            this.tickTimeoutMillis = timeout.toMillis();
+            return this;
+        }
+
+        /**
+         * Suit un champ: un {@link fr.mrqsdf.vastai4j.event.instance.InstanceFieldChangeEvent} est émis à chaque
+         * changement de sa valeur. En mode groupé, un champ absent de la liste ({@link InstanceField#inSummary()}
+         * faux) fait demander le détail de chaque instance à chaque période.
+         * @param field le champ
+         * @return the builder instance
+         */
+        public Builder watchField(InstanceField field) {
+            fields.put(Objects.requireNonNull(field, "field"), 0.0);
+            return this;
+        }
+
+        /**
+         * Suit un champ numérique avec un seuil: l’event n’est émis que lorsque la valeur s’écarte d’au moins
+         * {@code threshold} de la dernière valeur signalée (ex. {@code watchField(InstanceField.GPU_UTIL, 0.1)}).
+         * Une valeur qui apparaît ou disparaît est toujours signalée.
+         * @param field le champ, numérique
+         * @param threshold l’écart absolu minimal, positif ou nul
+         * @return the builder instance
+         */
+        public Builder watchField(InstanceField field, double threshold) {
+            Objects.requireNonNull(field, "field");
+            if (!field.isNumeric()) throw new IllegalArgumentException(field + " is not numeric");
+            if (!(threshold >= 0)) throw new IllegalArgumentException("threshold must be >= 0");
+            fields.put(field, threshold);
+            return this;
+        }
+
+        /**
+         * Politique des instances suivies uniquement pour des {@link InstanceMonitor#await attentes}
+         * (adaptative, de 1 s à 10 s, par défaut).
+         * @param policy la politique
+         * @return the builder instance
+         */
+        public Builder awaitPolicy(PollingPolicy policy) {
+            this.awaitPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Builds the InstanceMonitor instance.
+         * @return the constructed InstanceMonitor
+         */
+        public InstanceMonitor build() {
+            return new InstanceMonitor(this);
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import fr.mrqsdf.vastai4j.VastAI;
+import fr.mrqsdf.vastai4j.event.EventBus;
+import fr.mrqsdf.vastai4j.event.offer.OfferAppearedEvent;
+import fr.mrqsdf.vastai4j.event.offer.OfferDisappearedEvent;
+import fr.mrqsdf.vastai4j.event.offer.OfferPriceChangeEvent;
+import fr.mrqsdf.vastai4j.event.offer.OfferReliabilityChangeEvent;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.query.OfferQuery;
+import fr.mrqsdf.vastai4j.service.OfferService;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Surveille le résultat d’une recherche d’offres ({@code PUT /search/asks/}) et n’émet que les différences
+ * entre deux relevés:
+ *  - une offre apparaît / disparaît
+ *  - son prix change (dph_total, min_bid)
+ *  - sa fiabilité change
+ * Le relevé précédent est gardé indexé par {@code Offer.id()}: le diff est linéaire en nombre d’offres.
+ * Les seuils se comparent à la dernière valeur émise, pas au relevé précédent: un prix qui dérive un peu à
+ * chaque relevé finit par être signalé, et un abonné qui ne suit que les événements garde une vue à jour.
+ * Au premier relevé, toutes les offres sont émises comme « apparues » pour que les abonnés partent d’un état complet.
+ */
+public final class OfferMarketWatcher implements AutoCloseable {
+
+    private final OfferService offers;
+    private final OfferQuery query;
+    private final EventBus bus;
+    private final ScheduledExecutorService ses;
+
+    private volatile double priceThreshold = 0;
+    private volatile double reliabilityThreshold = 0;
+
+    /** Dernier relevé, par id (remplacé en entier à chaque poll). */
+    private Map<Long, Seen> last;
+    private ScheduledFuture<?> task;
+
+    public OfferMarketWatcher(VastAI vast, OfferQuery query, EventBus bus) {
+        this.offers = vast.offers();
+        this.query = Objects.requireNonNull(query, "query");
+        this.bus = Objects.requireNonNull(bus, "bus");
+        this.ses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vast-offer-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Écart minimal (en $/h) sur dph_total ou min_bid pour émettre un {@link OfferPriceChangeEvent}; 0 = tout changement. */
+    public OfferMarketWatcher priceThreshold(double dollarsPerHour) {
+        this.priceThreshold = Math.max(0, dollarsPerHour);
+        return this;
+    }
+
+    /** Écart minimal de fiabilité pour émettre un {@link OfferReliabilityChangeEvent}; 0 = tout changement. */
+    public OfferMarketWatcher reliabilityThreshold(double delta) {
+        this.reliabilityThreshold = Math.max(0, delta);
+        return this;
+    }
+
+    /** Lance les relevés à intervalle fixe (le premier part tout de suite). */
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        task = ses.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (Throwable t) {
+                // on ne casse pas le scheduler
+                t.printStackTrace();
+            }
+        }, 0, Math.max(250, unit.toMillis(period)), TimeUnit.MILLISECONDS);
+    }
+
+    /** Arrête les relevés périodiques (le dernier relevé est conservé). */
+    public synchronized void stop() {
+        if (task != null) task.cancel(false);
+        task = null;
+    }
+
+    /** Arrête tout. */
+    @Override public void close() {
+        stop();
+        ses.shutdownNow();
+    }
+
+    /** Fait un relevé immédiat et émet les différences. */
+    public Delta poll() {
+        return update(offers.searchNew(query));
+    }
+
+    /**
+     * Compare un relevé obtenu ailleurs (ex: {@code searchNew} déjà fait par l’appelant) au précédent et émet les
+     * différences. Les offres sans id sont ignorées.
+     */
+    public synchronized Delta update(List<Offer> snapshot) {
+        Map<Long, Seen> previous = last == null ? new HashMap<>() : last;
+        boolean first = last == null;
+        Map<Long, Seen> current = new HashMap<>(Math.max(16, snapshot.size() * 4 / 3 + 1));
+        int appeared = 0, prices = 0, reliabilities = 0;
+
+        for (Offer now : snapshot) {
+            if (now == null || now.id() == null || current.containsKey(now.id())) continue;
+            // on retire au fur et à mesure: ce qui reste dans previous à la fin a disparu
+            Seen before = previous.remove(now.id());
+            if (before == null) {
+                current.put(now.id(), new Seen(now, now, now));
+                appeared++;
+                bus.call(new OfferAppearedEvent(now, this));
+                continue;
+            }
+            // référence = dernière valeur émise, reportée tant qu’aucun événement ne part
+            Offer price = before.price();
+            if (changed(price.dphTotal(), now.dphTotal(), priceThreshold)
+                    || changed(price.minBidUSD(), now.minBidUSD(), priceThreshold)) {
+                prices++;
+                bus.call(new OfferPriceChangeEvent(price, now, this));
+                price = now;
+            }
+            Offer reliability = before.reliability();
+            if (changed(reliability.reliability(), now.reliability(), reliabilityThreshold)) {
+                reliabilities++;
+                bus.call(new OfferReliabilityChangeEvent(reliability, now, this));
+                reliability = now;
+            }
+            current.put(now.id(), new Seen(now, price, reliability));
+        }
+        for (Seen gone : previous.values()) {
+            bus.call(new OfferDisappearedEvent(gone.latest(), this));
+        }
+        int disappeared = previous.size();
+        last = current;
+        return new Delta(first, current.size(), appeared, disappeared, prices, reliabilities);
+    }
+
+    /** Offres du dernier relevé (vue en lecture seule). */
+    public synchronized Collection<Offer> snapshot() {
+        if (last == null) return List.of();
+        List<Offer> out = new ArrayList<>(last.size());
+        for (Seen seen : last.values()) out.add(seen.latest());
+        return Collections.unmodifiableCollection(out);
+    }
+
+    /** Oublie le dernier relevé: le prochain sera traité comme le premier. */
+    public synchronized void reset() {
+        last = null;
+    }
+
+    private static boolean changed(Double before, Double now, double threshold) {
+        if (before == null || now == null) return before != now;
+        return Math.abs(now - before) > threshold;
+    }
+
+    /**
+     * Une offre suivie: sa dernière version, et les versions de référence des derniers événements de prix
+     * et de fiabilité émis.
+     */
+    private record Seen(Offer latest, Offer price, Offer reliability) {
+    }
+
+    /**
+     * Résumé d’un relevé.
+     *
+     * @param initial            true pour le premier relevé (toutes les offres sont « apparues »).
+     * @param size               nombre d’offres du relevé.
+     * @param appeared           offres apparues.
+     * @param disappeared        offres disparues.
+     * @param priceChanges       offres dont dph_total ou min_bid a changé.
+     * @param reliabilityChanges offres dont la fiabilité a changé.
+     */
+    public record Delta(boolean initial, int size, int appeared, int disappeared, int priceChanges, int reliabilityChanges) {
+        /** @return true si rien n’a changé depuis le relevé précédent. */
+        public boolean isEmpty() {
+            return appeared == 0 && disappeared == 0 && priceChanges == 0 && reliabilityChanges == 0;
+        }
+    }
+}
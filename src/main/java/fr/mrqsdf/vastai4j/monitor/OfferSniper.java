@@ -0,0 +1,513 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import fr.mrqsdf.vastai4j.VastAI;
+import fr.mrqsdf.vastai4j.event.EventBus;
+import fr.mrqsdf.vastai4j.event.offer.OfferRentedEvent;
+import fr.mrqsdf.vastai4j.http.RequestPriority;
+import fr.mrqsdf.vastai4j.http.VastAIHttpException;
+import fr.mrqsdf.vastai4j.model.Offer;
+import fr.mrqsdf.vastai4j.model.instance.CreateInstanceRequest;
+import fr.mrqsdf.vastai4j.model.instance.CreateInstanceResponse;
+import fr.mrqsdf.vastai4j.model.instance.InstanceSummary;
+import fr.mrqsdf.vastai4j.query.OfferQuery;
+import fr.mrqsdf.vastai4j.service.InstanceService;
+import fr.mrqsdf.vastai4j.service.OfferService;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Surveille une recherche d’offres et loue automatiquement les meilleures dès qu’elles apparaissent.
+ * <ul>
+ *  <li>Intervalle adaptatif: on repart à l’intervalle minimal dès qu’une nouvelle offre correspond, sinon on
+ *      double jusqu’au maximum.</li>
+ *  <li>Les offres sont classées par une fonction de score (la plus haute d’abord, par défaut la moins chère).</li>
+ *  <li>{@code createInstance} part immédiatement (en async) sur la meilleure; si elle est refusée (HTTP 4xx ou
+ *      {@code success=false}: déjà prise…), la suivante est tentée tout de suite, sans attendre le relevé suivant.
+ *      Plusieurs tentatives peuvent être en vol en parallèle tant que les plafonds le permettent.</li>
+ *  <li>Issue incertaine (timeout, erreur réseau, 5xx): l’instance a peut-être été créée côté serveur. La tentative
+ *      garde sa place et son budget jusqu’à réconciliation: passé {@link Builder#reconcileAfter}, la liste des
+ *      instances est relue, et une instance sur la machine de l’offre, créée après l’envoi de la tentative (même
+ *      label si la requête en a un), est adoptée comme location; sinon la tentative est abandonnée. Une machine
+ *      porte plusieurs offres: sans {@code start_date} dans la liste, seul un label distingue l’instance créée
+ *      d’une location antérieure, et rien n’est adopté sans label.</li>
+ *  <li>Plafonds stricts: nombre de locations détenues + tentatives en vol ou incertaines ≤ {@code maxRentals}, et
+ *      somme de leurs dph_total ≤ {@code maxSpendPerHour}. Une location compte jusqu’à {@link #release(long)}.</li>
+ *  <li>Métriques: latence détection → location (première apparition de l’offre → réponse de createInstance).</li>
+ * </ul>
+ * Chaque location réussie émet un {@link OfferRentedEvent} sur le bus (si fourni).
+ */
+public final class OfferSniper implements AutoCloseable {
+
+    /** Écart toléré entre l’horloge locale et celle de Vast.ai pour comparer {@code start_date} à l’envoi. */
+    private static final long CLOCK_SKEW_MILLIS = 5_000;
+
+    private final OfferService offers;
+    private final InstanceService instances;
+    private final OfferQuery query;
+    private final CreateInstanceRequest request;
+    private final ToDoubleFunction<Offer> score;
+    private final EventBus bus;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final int maxRentals;
+    private final double maxSpendPerHour;
+    private final int candidatesPerPoll;
+    private final long reconcileNanos;
+    private final ScheduledExecutorService ses;
+
+    // --- état (protégé par this) ---
+    /** Première apparition (nanoTime) des offres du dernier relevé. */
+    private Map<Long, Long> firstSeen = new HashMap<>();
+    /** Offres refusées (déjà prises…), oubliées dès qu’elles disparaissent des relevés. */
+    private final Set<Long> failed = new HashSet<>();
+    private final Set<Long> attempting = new HashSet<>();
+    /** Tentatives à l’issue incertaine (par id d’offre), encore dans {@code attempting}. */
+    private final Map<Long, Unresolved> unresolved = new LinkedHashMap<>();
+    private final Map<Long, Rental> rentals = new LinkedHashMap<>();
+    private final ArrayDeque<Offer> candidates = new ArrayDeque<>();
+    private double committedSpend;
+    private long intervalNanos;
+    private ScheduledFuture<?> task;
+    private boolean running;
+
+    // --- métriques ---
+    private long polls;
+    private long attempts;
+    private long failures;
+    private long rentedCount;
+    private long totalDetectToRentNanos;
+    private long maxDetectToRentNanos;
+    private long lastDetectToRentNanos;
+
+    private OfferSniper(Builder b) {
+        this.offers = b.vast.offers();
+        this.instances = b.vast.instances();
+        this.query = b.query;
+        this.request = b.request;
+        this.score = b.score;
+        this.bus = b.bus;
+        this.minIntervalNanos = b.minInterval.toNanos();
+        this.maxIntervalNanos = b.maxInterval.toNanos();
+        this.maxRentals = b.maxRentals;
+        this.maxSpendPerHour = b.maxSpendPerHour;
+        this.candidatesPerPoll = b.candidatesPerPoll;
+        this.reconcileNanos = b.reconcileAfter.toNanos();
+        this.intervalNanos = minIntervalNanos;
+        this.ses = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vast-offer-sniper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @param vast    le client.
+     * @param query   la recherche à surveiller ({@code PUT /search/asks/}).
+     * @param request la configuration de l’instance créée sur chaque offre louée.
+     */
+    public static Builder builder(VastAI vast, OfferQuery query, CreateInstanceRequest request) {
+        return new Builder(vast, query, request);
+    }
+
+    /** Lance la surveillance (premier relevé immédiat). */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        intervalNanos = minIntervalNanos;
+        task = ses.schedule(this::tick, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /** Arrête les relevés; les tentatives déjà en vol vont jusqu’au bout. */
+    public synchronized void stop() {
+        running = false;
+        if (task != null) task.cancel(false);
+        task = null;
+        candidates.clear();
+    }
+
+    /** Arrête tout. */
+    @Override public void close() {
+        stop();
+        ses.shutdownNow();
+    }
+
+    /**
+     * Libère la place (et le budget) d’une location, ex: après {@code destroy}.
+     * @return true si l’instance avait été louée par ce sniper.
+     */
+    public boolean release(long instanceId) {
+        synchronized (this) {
+            Rental r = rentals.remove(instanceId);
+            if (r == null) return false;
+            committedSpend -= spend(r.offer());
+        }
+        fill();
+        return true;
+    }
+
+    /** Locations détenues (non libérées), dans l’ordre d’obtention. */
+    public synchronized List<Rental> rentals() {
+        return List.copyOf(rentals.values());
+    }
+
+    /** Instantané des métriques. */
+    public synchronized Stats stats() {
+        return new Stats(polls, attempts, rentedCount, failures, rentals.size(), unresolved.size(), committedSpend,
+                Duration.ofNanos(lastDetectToRentNanos),
+                rentedCount == 0 ? Duration.ZERO : Duration.ofNanos(totalDetectToRentNanos / rentedCount),
+                Duration.ofNanos(maxDetectToRentNanos), Duration.ofNanos(intervalNanos));
+    }
+
+    // ---- boucle ----
+
+    private void tick() {
+        try {
+            reconcile();
+        } catch (Throwable t) {
+            // liste indisponible: les tentatives incertaines restent comptées, on réessaiera
+            t.printStackTrace();
+        }
+        try {
+            if (isFull()) {
+                // plafond atteint: inutile d’interroger le marché, on repasse plus tard
+                reschedule(maxIntervalNanos);
+                return;
+            }
+            List<Offer> result = offers.searchNew(query);
+            long now = System.nanoTime();
+            boolean fresh = onSnapshot(result, now);
+            fill();
+            synchronized (this) {
+                intervalNanos = fresh ? minIntervalNanos : Math.min(maxIntervalNanos, intervalNanos * 2);
+            }
+        } catch (Throwable t) {
+            // on ne casse pas le scheduler
+            t.printStackTrace();
+        }
+        reschedule(intervalNanosSnapshot());
+    }
+
+    private synchronized long intervalNanosSnapshot() {
+        return intervalNanos;
+    }
+
+    private synchronized void reschedule(long delayNanos) {
+        if (running && !ses.isShutdown()) task = ses.schedule(this::tick, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Met à jour les apparitions et reclasse les candidats; retourne true si une offre nouvelle correspond. */
+    private synchronized boolean onSnapshot(List<Offer> result, long now) {
+        polls++;
+        Map<Long, Long> seen = new HashMap<>(Math.max(16, result.size() * 4 / 3 + 1));
+        boolean fresh = false;
+        List<Ranked> ranked = new ArrayList<>();
+        for (Offer o : result) {
+            if (o == null || o.id() == null || seen.containsKey(o.id())) continue;
+            Long first = firstSeen.get(o.id());
+            if (first == null) {
+                first = now;
+                fresh = true;
+            }
+            seen.put(o.id(), first);
+            if (failed.contains(o.id()) || attempting.contains(o.id())) continue;
+            double s = score.applyAsDouble(o);
+            if (!Double.isNaN(s)) ranked.add(new Ranked(o, s));
+        }
+        firstSeen = seen;
+        failed.retainAll(seen.keySet());
+        ranked.sort(Comparator.comparingDouble(Ranked::score).reversed());
+        candidates.clear();
+        for (int i = 0; i < ranked.size() && i < candidatesPerPoll; i++) candidates.add(ranked.get(i).offer());
+        return fresh;
+    }
+
+    /** Lance autant de tentatives que les plafonds le permettent. */
+    private void fill() {
+        while (true) {
+            Offer next;
+            long detectedAt;
+            synchronized (this) {
+                next = nextAffordable();
+                if (next == null) return;
+                attempting.add(next.id());
+                committedSpend += spend(next);
+                attempts++;
+                detectedAt = firstSeen.getOrDefault(next.id(), System.nanoTime());
+            }
+            Offer offer = next;
+            long sentAt = System.nanoTime();
+            long sentAtMillis = System.currentTimeMillis();
+            CompletableFuture<CreateInstanceResponse> f;
+            try {
+                f = instances.createInstanceAsync(offer.id(), request);
+            } catch (Throwable t) {
+                onAttempt(offer, detectedAt, sentAt, sentAtMillis, Outcome.REJECTED, null); // rien n’est parti
+                continue;
+            }
+            f.whenComplete((resp, err) -> onAttempt(offer, detectedAt, sentAt, sentAtMillis, outcome(resp, err), resp));
+        }
+    }
+
+    /** Prochain candidat compatible avec les plafonds, ou null. Appelé sous le verrou. */
+    private Offer nextAffordable() {
+        if (!running || rentals.size() + attempting.size() >= maxRentals) return null;
+        for (Iterator<Offer> it = candidates.iterator(); it.hasNext(); ) {
+            Offer o = it.next();
+            if (Double.isNaN(price(o)) && maxSpendPerHour != Double.POSITIVE_INFINITY) {
+                it.remove(); // prix inconnu: impossible de garantir le plafond
+                continue;
+            }
+            if (committedSpend + spend(o) <= maxSpendPerHour) {
+                it.remove();
+                return o;
+            }
+        }
+        return null;
+    }
+
+    private void onAttempt(Offer offer, long detectedAt, long sentAt, long sentAtMillis, Outcome outcome,
+                           CreateInstanceResponse resp) {
+        long now = System.nanoTime();
+        OfferRentedEvent event = null;
+        synchronized (this) {
+            switch (outcome) {
+                case RENTED -> {
+                    attempting.remove(offer.id());
+                    event = rented(offer, resp.newContract(), detectedAt, sentAt, now);
+                }
+                case REJECTED -> {
+                    // déjà prise (ou refusée): on passe au candidat suivant sans attendre le prochain relevé
+                    attempting.remove(offer.id());
+                    committedSpend -= spend(offer);
+                    failures++;
+                    failed.add(offer.id());
+                }
+                case UNKNOWN -> unresolved.put(offer.id(), new Unresolved(offer, detectedAt, sentAt, sentAtMillis, now)); // place gardée
+            }
+        }
+        if (event != null) bus.call(event);
+        fill();
+    }
+
+    /** Enregistre une location; retourne l’événement à publier (hors verrou), ou null sans bus. Appelé sous le verrou. */
+    private OfferRentedEvent rented(Offer offer, long instanceId, long detectedAt, long sentAt, long now) {
+        Rental rental = new Rental(offer, instanceId, Duration.ofNanos(now - detectedAt), Duration.ofNanos(now - sentAt));
+        rentals.put(rental.instanceId(), rental);
+        rentedCount++;
+        long latency = now - detectedAt;
+        lastDetectToRentNanos = latency;
+        totalDetectToRentNanos += latency;
+        maxDetectToRentNanos = Math.max(maxDetectToRentNanos, latency);
+        return bus != null ? new OfferRentedEvent(offer, rental.instanceId(), rental.detectToRent(), this) : null;
+    }
+
+    /**
+     * Relit la liste des instances pour trancher les tentatives incertaines assez anciennes: une instance non encore
+     * suivie et créée par la tentative ({@link #createdBy}) est adoptée, sinon la place est rendue. Si la liste
+     * échoue, rien ne change.
+     */
+    private void reconcile() {
+        long now = System.nanoTime();
+        synchronized (this) {
+            boolean due = false;
+            for (Unresolved u : unresolved.values()) {
+                if (now - u.failedAt() >= reconcileNanos) {
+                    due = true;
+                    break;
+                }
+            }
+            if (!due) return;
+        }
+        List<InstanceSummary> owned = instances.list(RequestPriority.BACKGROUND);
+        String label = request.getLabel();
+        List<OfferRentedEvent> events = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Unresolved> it = unresolved.values().iterator(); it.hasNext(); ) {
+                Unresolved u = it.next();
+                if (now - u.failedAt() < reconcileNanos) continue;
+                it.remove();
+                attempting.remove(u.offer().id());
+                InstanceSummary match = null;
+                for (InstanceSummary i : owned) {
+                    if (i.id() != null && !rentals.containsKey(i.id()) && createdBy(i, u, label)) {
+                        match = i;
+                        break;
+                    }
+                }
+                if (match != null) {
+                    OfferRentedEvent event = rented(u.offer(), match.id(), u.detectedAt(), u.sentAt(), now);
+                    if (event != null) events.add(event);
+                } else {
+                    committedSpend -= spend(u.offer());
+                    failures++;
+                    failed.add(u.offer().id());
+                }
+            }
+        }
+        for (OfferRentedEvent event : events) bus.call(event);
+    }
+
+    /**
+     * Instance sur la machine de l’offre, au label de la requête s’il y en a un, et démarrée après l’envoi de la
+     * tentative: une location plus ancienne sur la même machine (autre offre, autre processus) n’est jamais adoptée.
+     * Sans {@code start_date}, seul le label permet de trancher.
+     */
+    private static boolean createdBy(InstanceSummary i, Unresolved u, String label) {
+        Long machineId = u.offer().machineId();
+        if (machineId == null || !machineId.equals(i.machineId())) return false;
+        if (label != null && !label.equals(i.label())) return false;
+        if (i.startDate() != null) return i.startDate() * 1000 >= u.sentAtMillis() - CLOCK_SKEW_MILLIS;
+        return label != null;
+    }
+
+    /** Refus net (rien n’a été créé) seulement sur un HTTP 4xx ou {@code success=false}; le reste est incertain. */
+    private static Outcome outcome(CreateInstanceResponse resp, Throwable err) {
+        if (err == null) {
+            if (resp != null && !resp.success()) return Outcome.REJECTED;
+            return resp != null && resp.newContract() != null ? Outcome.RENTED : Outcome.UNKNOWN;
+        }
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        if (cause instanceof VastAIHttpException http && http.getStatusCode() >= 400 && http.getStatusCode() < 500) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.UNKNOWN;
+    }
+
+    private boolean isFull() {
+        synchronized (this) {
+            return rentals.size() + attempting.size() >= maxRentals || committedSpend >= maxSpendPerHour;
+        }
+    }
+
+    private static double price(Offer o) {
+        Double dph = o.dphTotal() != null ? o.dphTotal() : o.pricePerHourUSD();
+        return dph == null ? Double.NaN : dph;
+    }
+
+    /** Part de l’offre dans {@code committedSpend}: 0 pour un prix inconnu, qui ne doit pas rendre la somme NaN. */
+    private static double spend(Offer o) {
+        double p = price(o);
+        return Double.isNaN(p) ? 0 : p;
+    }
+
+    private enum Outcome { RENTED, REJECTED, UNKNOWN }
+
+    private record Ranked(Offer offer, double score) {
+    }
+
+    private record Unresolved(Offer offer, long detectedAt, long sentAt, long sentAtMillis, long failedAt) {
+    }
+
+    /**
+     * Une location obtenue.
+     *
+     * @param offer          l’offre louée (telle que vue au relevé).
+     * @param instanceId     l’id du contrat créé.
+     * @param detectToRent   première apparition de l’offre → confirmation.
+     * @param requestLatency envoi de createInstance → confirmation.
+     */
+    public record Rental(Offer offer, long instanceId, Duration detectToRent, Duration requestLatency) {
+    }
+
+    /**
+     * Métriques du sniper.
+     *
+     * @param polls               relevés effectués.
+     * @param attempts            appels createInstance lancés.
+     * @param rented              locations réussies (libérées ou non).
+     * @param failures            tentatives échouées (offre déjà prise, ou issue incertaine sans instance trouvée).
+     * @param held                locations détenues actuellement.
+     * @param unresolved          tentatives à l’issue incertaine, en attente de réconciliation.
+     * @param committedSpend      dph_total cumulé des locations détenues et des tentatives en vol ou incertaines.
+     * @param lastDetectToRent    latence détection → location de la dernière location.
+     * @param averageDetectToRent latence moyenne.
+     * @param maxDetectToRent     latence maximale.
+     * @param currentInterval     intervalle courant entre deux relevés.
+     */
+    public record Stats(long polls, long attempts, long rented, long failures, int held, int unresolved, double committedSpend,
+                        Duration lastDetectToRent, Duration averageDetectToRent, Duration maxDetectToRent,
+                        Duration currentInterval) {
+    }
+
+    /** Configuration d’un {@link OfferSniper}. */
+    public static final class Builder {
+        private final VastAI vast;
+        private final OfferQuery query;
+        private final CreateInstanceRequest request;
+        private ToDoubleFunction<Offer> score = o -> -price(o);
+        private EventBus bus;
+        private Duration minInterval = Duration.ofSeconds(1);
+        private Duration maxInterval = Duration.ofSeconds(10);
+        private int maxRentals = 1;
+        private double maxSpendPerHour = Double.POSITIVE_INFINITY;
+        private int candidatesPerPoll = 5;
+        private Duration reconcileAfter = Duration.ofSeconds(15);
+
+        private Builder(VastAI vast, OfferQuery query, CreateInstanceRequest request) {
+            this.vast = Objects.requireNonNull(vast, "vast");
+            this.query = Objects.requireNonNull(query, "query");
+            this.request = Objects.requireNonNull(request, "request");
+        }
+
+        /** Score d’une offre, la plus haute est louée en premier; NaN = écartée. Défaut: la moins chère. */
+        public Builder score(ToDoubleFunction<Offer> score) {
+            this.score = Objects.requireNonNull(score, "score");
+            return this;
+        }
+
+        /** Bus sur lequel publier les {@link OfferRentedEvent}. */
+        public Builder bus(EventBus bus) {
+            this.bus = bus;
+            return this;
+        }
+
+        /** Bornes de l’intervalle adaptatif entre deux relevés (défaut: 1 s à 10 s). */
+        public Builder interval(Duration min, Duration max) {
+            if (min.isNegative() || min.isZero() || max.compareTo(min) < 0) {
+                throw new IllegalArgumentException("expected 0 < min <= max");
+            }
+            this.minInterval = min;
+            this.maxInterval = max;
+            return this;
+        }
+
+        /** Nombre maximal de locations détenues en même temps, tentatives en vol comprises (défaut: 1). */
+        public Builder maxRentals(int maxRentals) {
+            if (maxRentals < 1) throw new IllegalArgumentException("maxRentals must be >= 1");
+            this.maxRentals = maxRentals;
+            return this;
+        }
+
+        /** Plafond de dépense horaire cumulée (dph_total), tentatives en vol comprises (défaut: aucun). */
+        public Builder maxSpendPerHour(double dollarsPerHour) {
+            if (!(dollarsPerHour > 0)) throw new IllegalArgumentException("maxSpendPerHour must be > 0");
+            this.maxSpendPerHour = dollarsPerHour;
+            return this;
+        }
+
+        /** Nombre de candidats gardés par relevé pour le basculement (défaut: 5). */
+        public Builder candidatesPerPoll(int n) {
+            if (n < 1) throw new IllegalArgumentException("candidatesPerPoll must be >= 1");
+            this.candidatesPerPoll = n;
+            return this;
+        }
+
+        /**
+         * Délai avant de relire la liste des instances pour trancher une tentative à l’issue incertaine (défaut: 15 s).
+         * Jusque-là, elle garde sa place et son budget. Seule une instance de la machine créée après l’envoi est
+         * adoptée; donner un label à la requête rend l’adoption sûre même si la liste n’expose pas {@code start_date}.
+         */
+        public Builder reconcileAfter(Duration delay) {
+            if (delay.isNegative()) throw new IllegalArgumentException("reconcileAfter must not be negative");
+            this.reconcileAfter = delay;
+            return this;
+        }
+
+        public OfferSniper build() {
+            return new OfferSniper(this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+/**
+ * État d’une instance suivie, passé à {@link PollingPolicy#nextDelayMillis}.
+ *
+ * @param instanceId        l’instance.
+ * @param curState          le cur_state connu ("" si inconnu).
+ * @param actualStatus      l’actual_status connu ("" si inconnu).
+ * @param sshReady          SSH est disponible.
+ * @param portsMapped       le mapping de ports Docker est connu.
+ * @param changed           le dernier relevé a changé quelque chose (état, SSH, ports) ou était le premier.
+ * @param stableTicks       le nombre de relevés consécutifs sans changement.
+ * @param consecutiveErrors le nombre de relevés consécutifs en échec (0 si le dernier a réussi).
+ * @param previousDelayMillis le délai appliqué avant le dernier relevé (0 pour le premier).
+ */
+public record PollState(long instanceId, String curState, String actualStatus, boolean sshReady, boolean portsMapped,
+                        boolean changed, int stableTicks, int consecutiveErrors, long previousDelayMillis) {
+
+    /**
+     * @return true si l’instance démarre: loading/created/scheduling, ou running sans SSH ou ports encore connus.
+     */
+    public boolean isStarting() {
+        if ("running".equals(actualStatus)) return !(sshReady && portsMapped);
+        return "loading".equals(actualStatus) || "created".equals(actualStatus) || "scheduling".equals(actualStatus)
+                || actualStatus.isEmpty() && "running".equals(curState);
+    }
+}
@@ -0,0 +1,45 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choisit le délai avant le prochain relevé d’une instance suivie par {@link InstanceMonitor}.
+ * <p>
+ * Appelée après chaque relevé (réussi ou non) depuis le thread du moniteur; doit répondre vite.
+ * </p>
+ * <pre>{@code
+ * monitor.watch(id, PollingPolicy.adaptive());                    // rapide au démarrage, lent une fois stable
+ * monitor.watch(id, PollingPolicy.fixed(2, TimeUnit.SECONDS));   // comportement historique
+ * }</pre>
+ */
+@FunctionalInterface
+public interface PollingPolicy {
+
+    /** Délai minimal entre deux relevés d’une même instance, quelle que soit la politique. */
+    long MIN_DELAY_MILLIS = 250;
+
+    /**
+     * @param state l’état observé au dernier relevé.
+     * @return le délai avant le prochain relevé, en millisecondes (ramené à {@link #MIN_DELAY_MILLIS} au minimum).
+     */
+    long nextDelayMillis(PollState state);
+
+    /**
+     * Intervalle fixe, sans jitter.
+     * @param period la période
+     * @param unit l’unité de la période
+     * @return la politique
+     */
+    static PollingPolicy fixed(long period, TimeUnit unit) {
+        long millis = Math.max(MIN_DELAY_MILLIS, unit.toMillis(period));
+        return state -> millis;
+    }
+
+    /**
+     * Politique adaptative avec les réglages par défaut (voir {@link AdaptivePollingPolicy}).
+     * @return la politique
+     */
+    static PollingPolicy adaptive() {
+        return AdaptivePollingPolicy.builder().build();
+    }
+}
@@ -0,0 +1,107 @@
+package fr.mrqsdf.vastai4j.monitor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécution des relevés de {@link InstanceMonitor}: sur le thread du scheduler (historique), un thread
+ * virtuel par relevé, un pool borné de threads plateforme, ou les appels HTTP asynchrones du client.
+ * Chaque relevé peut recevoir son propre délai maximal: passé ce délai, le future échoue en
+ * {@link TimeoutException} et l’appel bloquant éventuel est interrompu.
+ */
+final class TickExecutor {
+
+    private final String name;
+    private final Executor executor;   // null: mode asynchrone
+    private final ExecutorService owned;
+
+    private TickExecutor(String name, Executor executor, ExecutorService owned) {
+        this.name = name;
+        this.executor = executor;
+        this.owned = owned;
+    }
+
+    /** Relevé bloquant exécuté sur le thread qui le déclenche (le scheduler). */
+    static TickExecutor inline() {
+        return new TickExecutor("scheduler", Runnable::run, null);
+    }
+
+    /** Pool borné de threads plateforme démons; la file est bornée de fait par un relevé en vol par instance. */
+    static TickExecutor pool(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "vast-instance-monitor-tick-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return new TickExecutor("pool(" + threads + ")", pool, pool);
+    }
+
+    /**
+     * Un thread virtuel par relevé si la JVM en dispose (Java 21+, résolu par réflexion pour rester
+     * compilable en 17), sinon un pool borné de {@code fallbackThreads} threads.
+     */
+    static TickExecutor virtualThreads(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService vt = (ExecutorService) factory.invoke(null);
+            return new TickExecutor("virtual", vt, vt);
+        } catch (ReflectiveOperationException | RuntimeException unavailable) {
+            return pool(fallbackThreads);
+        }
+    }
+
+    /** Appels HTTP asynchrones du client: aucun thread n’attend la réponse. */
+    static TickExecutor async() {
+        return new TickExecutor("async", null, null);
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Lance un relevé.
+     * @param blocking l’appel bloquant (modes à threads)
+     * @param async l’appel asynchrone (mode async)
+     * @param timeoutMillis le délai maximal, 0 pour aucun
+     */
+    <T> CompletableFuture<T> call(Supplier<T> blocking, Supplier<CompletableFuture<T>> async, long timeoutMillis) {
+        if (executor == null) {
+            CompletableFuture<T> result;
+            try {
+                result = async.get();
+            } catch (Throwable t) {
+                result = CompletableFuture.failedFuture(t);
+            }
+            return timeoutMillis > 0 ? result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : result;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                result.complete(blocking.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, null);
+        if (timeoutMillis > 0) {
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, error) -> {
+                if (error instanceof TimeoutException) task.cancel(true); // interrompt l’appel bloquant
+            });
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException closed) {
+            result.completeExceptionally(closed);
+        }
+        return result;
+    }
+
+    void shutdown() {
+        if (owned != null) owned.shutdownNow();
+    }
+}
@@ -7,8 +7,10 @@ package fr.mrqsdf.vastai4j.query;
 public enum OfferField {
     BW_NVLINK("bw_nvlink"),
     COMPUTE_CAP("compute_cap"),
+    CPU_ARCH("cpu_arch"),
     CPU_CORES("cpu_cores"),
     CPU_CORES_EFFECTIVE("cpu_cores_effective"),
+    CPU_GHZ("cpu_ghz"),
     CPU_RAM("cpu_ram"),
     CUDA_VERS("cuda_vers"),
     DATACENTER("datacenter"),
@@ -17,15 +19,20 @@ public enum OfferField {
     DISK_SPACE("disk_space"),
     DLPERF("dlperf"),
     DLPERF_USD("dlperf_usd"),
+    DLPERF_PER_DPHTOTAL("dlperf_per_dphtotal"),
     DPH("dph"),
+    DPH_BASE("dph_base"),
+    DPH_TOTAL("dph_total"),
     DRIVER_VERSION("driver_version"),
     DURATION("duration"),
     EXTERNAL("external"),
     FLOPS_USD("flops_usd"),
     GEOLOCATION("geolocation"),
+    GPU_ARCH("gpu_arch"),
     GPU_MEM_BW("gpu_mem_bw"),
     GPU_NAME("gpu_name"),
     GPU_RAM("gpu_ram"),
+    GPU_TOTAL_RAM("gpu_total_ram"),
     GPU_FRAC("gpu_frac"),
     GPU_DISPLAY_ACTIVE("gpu_display_active"),
     HAS_AVX("has_avx"),
@@ -46,7 +53,8 @@ public enum OfferField {
     STATIC_IP("static_ip"),
     TOTAL_FLOPS("total_flops"),
     UBUNTU_VERSION("ubuntu_version"),
-    VERIFIED("verified");
+    VERIFIED("verified"),
+    VMS_ENABLED("vms_enabled");
 
     private final String json;
 
@@ -6,6 +6,7 @@ import fr.mrqsdf.vastai4j.model.AccountBalance;
 import fr.mrqsdf.vastai4j.model.CurrentUser;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Account oriented helper for Vast.ai endpoints.
@@ -33,17 +34,39 @@ public class AccountService implements Service {
         return new AccountBalance(user.balance(), user.credit());
     }
 
+    /**
+     * Asynchronously retrieves the current account balance and credit information.
+     * @return a future completed with the balance and credit details
+     */
+    public CompletableFuture<AccountBalance> getBalanceAsync() {
+        return loadCurrentUserAsync().thenApply(user -> new AccountBalance(user.balance(), user.credit()));
+    }
+
     /**
      * Loads the current user information from the API.
      * @return a CurrentUser object representing the authenticated user
      */
     private CurrentUser loadCurrentUser() {
-        VastAIRequest request = client.requestBuilder()
+        currentUser = client.execute(currentUserRequest(), CurrentUser.class);
+        return currentUser;
+    }
+
+    /**
+     * Asynchronously loads the current user information from the API.
+     * @return a future completed with the authenticated user
+     */
+    private CompletableFuture<CurrentUser> loadCurrentUserAsync() {
+        return client.executeAsync(currentUserRequest(), CurrentUser.class).thenApply(user -> {
+            currentUser = user;
+            return user;
+        });
+    }
+
+    private VastAIRequest currentUserRequest() {
+        return client.requestBuilder()
                 .get()
                 .path("/users/current/")
                 .build();
-        currentUser = client.execute(request, CurrentUser.class);
-        return currentUser;
     }
 
     @Override
@@ -58,4 +81,12 @@ public class AccountService implements Service {
     public CurrentUser getClient() {
         return loadCurrentUser();
     }
+
+    /**
+     * Asynchronously retrieves the current user information.
+     * @return a future completed with the authenticated user
+     */
+    public CompletableFuture<CurrentUser> getClientAsync() {
+        return loadCurrentUserAsync();
+    }
 }
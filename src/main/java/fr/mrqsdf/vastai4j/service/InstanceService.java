@@ -1,12 +1,19 @@
 package fr.mrqsdf.vastai4j.service;
 
 import fr.mrqsdf.vastai4j.client.VastAIClient;
+import fr.mrqsdf.vastai4j.event.EventBus;
+import fr.mrqsdf.vastai4j.http.RequestPriority;
 import fr.mrqsdf.vastai4j.http.VastAIRequest;
 import fr.mrqsdf.vastai4j.model.instance.*;
+import fr.mrqsdf.vastai4j.monitor.InstanceMonitor;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -19,10 +26,18 @@ import java.util.stream.Collectors;
  *     <li>{@code DELETE /api/v0/instances/{id}/} to destroy an instance</li>
  *     <li>{@code GET /api/v0/instances/{id}/} to retrieve instance details</li>
  * </ul>
+ * <p>Every operation has an {@code *Async} mirror that returns a {@link CompletableFuture} instead of
+ * blocking the calling thread.</p>
+ * <p>Writes are sent with {@link RequestPriority#CRITICAL} so that, when the client's concurrency budget is
+ * exhausted, stopping or destroying an instance is not queued behind background polling.</p>
+ * <p>Writes also invalidate every cached {@code /instances/} response (see
+ * {@link fr.mrqsdf.vastai4j.client.ResponseCache}), so {@link #list()} and {@link #show(long)} never return
+ * data older than the last write made through this client.</p>
  */
-public final class InstanceService implements Service {
+public final class InstanceService implements Service, AutoCloseable {
 
     private final VastAIClient client;
+    private volatile InstanceMonitor awaitMonitor;
 
     public InstanceService(VastAIClient client) {
         this.client = Objects.requireNonNull(client, "client");
@@ -36,6 +51,251 @@ public final class InstanceService implements Service {
      * @return the response returned by Vast.ai after provisioning
      */
     public CreateInstanceResponse createInstance(long offerId, CreateInstanceRequest in) {
+        return client.execute(createInstanceRequest(offerId, in), CreateInstanceResponse.class);
+    }
+
+    /**
+     * Asynchronously accepts an ask and creates a new instance.
+     *
+     * @param offerId identifier of the ask to accept
+     * @param in      request payload describing the instance configuration
+     * @return a future completed with the response returned by Vast.ai after provisioning
+     */
+    public CompletableFuture<CreateInstanceResponse> createInstanceAsync(long offerId, CreateInstanceRequest in) {
+        return client.executeAsync(createInstanceRequest(offerId, in), CreateInstanceResponse.class);
+    }
+
+    /**
+     * Transitions an instance to the {@code running} target state.
+     */
+    public void start(long instanceId) {
+        client.execute(changeStateRequest(instanceId, "running"), String.class);
+    }
+
+    /**
+     * Asynchronously transitions an instance to the {@code running} target state.
+     */
+    public CompletableFuture<Void> startAsync(long instanceId) {
+        return client.executeAsync(changeStateRequest(instanceId, "running"), String.class).thenApply(ignored -> null);
+    }
+
+    /**
+     * Transitions an instance to the {@code stopped} target state.
+     */
+    public void stop(long instanceId) {
+        client.execute(changeStateRequest(instanceId, "stopped"), String.class);
+    }
+
+    /**
+     * Asynchronously transitions an instance to the {@code stopped} target state.
+     */
+    public CompletableFuture<Void> stopAsync(long instanceId) {
+        return client.executeAsync(changeStateRequest(instanceId, "stopped"), String.class).thenApply(ignored -> null);
+    }
+
+    /**
+     * Sets or replaces the server-side label associated with an instance.
+     */
+    public void label(long instanceId, String label) {
+        client.execute(labelRequest(instanceId, label), String.class);
+    }
+
+    /**
+     * Asynchronously sets or replaces the server-side label associated with an instance.
+     */
+    public CompletableFuture<Void> labelAsync(long instanceId, String label) {
+        return client.executeAsync(labelRequest(instanceId, label), String.class).thenApply(ignored -> null);
+    }
+
+    /**
+     * Performs an in-place reboot which maintains the GPU queue priority.
+     */
+    public void reboot(long instanceId) {
+        client.execute(rebootRequest(instanceId), String.class);
+    }
+
+    /**
+     * Asynchronously performs an in-place reboot which maintains the GPU queue priority.
+     */
+    public CompletableFuture<Void> rebootAsync(long instanceId) {
+        return client.executeAsync(rebootRequest(instanceId), String.class).thenApply(ignored -> null);
+    }
+
+    /**
+     * Permanently destroys an instance.
+     */
+    public void destroy(long instanceId) {
+        client.execute(destroyRequest(instanceId), String.class);
+    }
+
+    /**
+     * Asynchronously and permanently destroys an instance.
+     */
+    public CompletableFuture<Void> destroyAsync(long instanceId) {
+        return client.executeAsync(destroyRequest(instanceId), String.class).thenApply(ignored -> null);
+    }
+
+    /**
+     * Retrieves the details of an instance including SSH, runtype and template metadata.
+     */
+    public InstanceDetails show(long instanceId) {
+        return show(instanceId, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Retrieves the details of an instance in the given scheduling lane, e.g. {@link RequestPriority#BACKGROUND}
+     * for polling.
+     */
+    public InstanceDetails show(long instanceId, RequestPriority priority) {
+        return client.execute(showRequest(instanceId, priority), InstanceDetails.class);
+    }
+
+    /**
+     * Asynchronously retrieves the details of an instance including SSH, runtype and template metadata.
+     */
+    public CompletableFuture<InstanceDetails> showAsync(long instanceId) {
+        return showAsync(instanceId, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Asynchronously retrieves the details of an instance in the given scheduling lane.
+     */
+    public CompletableFuture<InstanceDetails> showAsync(long instanceId, RequestPriority priority) {
+        return client.executeAsync(showRequest(instanceId, priority), InstanceDetails.class);
+    }
+
+    /**
+     * Lists the instances owned by the authenticated user.
+     */
+    public List<InstanceSummary> list() {
+        return list(RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Lists the instances owned by the authenticated user in the given scheduling lane, e.g.
+     * {@link RequestPriority#BACKGROUND} for polling.
+     */
+    public List<InstanceSummary> list(RequestPriority priority) {
+        return instancesOf(client.execute(listRequest(priority), InstancesResponse.class));
+    }
+
+    /**
+     * Asynchronously lists the instances owned by the authenticated user.
+     */
+    public CompletableFuture<List<InstanceSummary>> listAsync() {
+        return listAsync(RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Asynchronously lists the instances owned by the authenticated user in the given scheduling lane.
+     */
+    public CompletableFuture<List<InstanceSummary>> listAsync(RequestPriority priority) {
+        return mapAsync(client.executeAsync(listRequest(priority), InstancesResponse.class), InstanceService::instancesOf);
+    }
+
+    /**
+     * Filters the locally retrieved instance list by current state.
+     */
+    public List<InstanceSummary> listByState(String stateLowercase) {
+        return filterByState(list(), stateLowercase);
+    }
+
+    /**
+     * Asynchronously filters the locally retrieved instance list by current state.
+     */
+    public CompletableFuture<List<InstanceSummary>> listByStateAsync(String stateLowercase) {
+        return mapAsync(listAsync(), all -> filterByState(all, stateLowercase));
+    }
+
+    /**
+     * Waits until the instance satisfies {@code condition}, without any polling loop on the caller side.
+     * <p>
+     * All the waits of this service share one lazily created {@link InstanceMonitor} polling through the
+     * asynchronous client in the {@link RequestPriority#BACKGROUND} lane: every awaited instance is polled on
+     * an adaptive schedule (fast while it boots, slower once stable) and released when nobody waits for it
+     * anymore. Waiters of the same instance share its polls, so thousands of waits cost one scheduler thread
+     * and one request per instance per interval, not one sleeping thread each.
+     * </p>
+     * <p>The future fails with a {@link java.util.concurrent.TimeoutException} when {@code timeout} elapses;
+     * cancelling it withdraws the wait. {@link #close()} stops the shared monitor.</p>
+     *
+     * @param instanceId identifier of the instance
+     * @param condition  condition tested on every poll; it runs on the polling thread and must return quickly
+     * @param timeout    maximum time to wait
+     * @return a future completed with the first details satisfying the condition
+     */
+    public CompletableFuture<InstanceDetails> awaitState(long instanceId, Predicate<? super InstanceDetails> condition,
+                                                        Duration timeout) {
+        return awaitMonitor().await(instanceId, condition, timeout);
+    }
+
+    /**
+     * Waits until the instance reports {@code actual_status = running}.
+     *
+     * @see #awaitState(long, Predicate, Duration)
+     */
+    public CompletableFuture<InstanceDetails> awaitRunning(long instanceId, Duration timeout) {
+        return awaitState(instanceId, d -> d.instances() != null && "running".equals(d.instances().actualStatus()), timeout);
+    }
+
+    /**
+     * Waits until {@code ssh_host} and {@code ssh_port} are available.
+     *
+     * @see #awaitState(long, Predicate, Duration)
+     */
+    public CompletableFuture<InstanceDetails> awaitSshReady(long instanceId, Duration timeout) {
+        return awaitState(instanceId, d -> {
+            InstanceDetails.InstancePayload p = d.instances();
+            return p != null && p.sshHost() != null && p.sshPort() != null && p.sshPort() > 0;
+        }, timeout);
+    }
+
+    /**
+     * Waits until the Docker port mapping ({@code ports}) is published.
+     *
+     * @see #awaitState(long, Predicate, Duration)
+     */
+    public CompletableFuture<InstanceDetails> awaitPortsMapped(long instanceId, Duration timeout) {
+        return awaitState(instanceId, d -> d.instances() != null && d.instances().ports() != null
+                && !d.instances().ports().isEmpty(), timeout);
+    }
+
+    private InstanceMonitor awaitMonitor() {
+        InstanceMonitor monitor = awaitMonitor;
+        if (monitor == null) {
+            synchronized (this) {
+                monitor = awaitMonitor;
+                if (monitor == null) {
+                    monitor = InstanceMonitor.builder(this, new EventBus()).asyncHttp().build();
+                    awaitMonitor = monitor;
+                }
+            }
+        }
+        return monitor;
+    }
+
+    /**
+     * Stops the monitor shared by the {@code await*} methods, if one was created, and cancels the pending waits.
+     * A later wait starts a new monitor; the service itself stays usable.
+     */
+    @Override
+    public void close() {
+        InstanceMonitor monitor;
+        synchronized (this) {
+            monitor = awaitMonitor;
+            awaitMonitor = null;
+        }
+        if (monitor != null) monitor.close();
+    }
+
+    @Override
+    public void update() {
+
+    }
+
+    // --- private helpers ---
+
+    private VastAIRequest createInstanceRequest(long offerId, CreateInstanceRequest in) {
         com.google.gson.JsonObject body = new com.google.gson.JsonObject();
 
         // Enforce a version tag when a custom image is provided.
@@ -93,101 +353,91 @@ public final class InstanceService implements Service {
             body.add("volume_info", v);
         }
 
-        VastAIRequest req = client.requestBuilder()
+        return client.requestBuilder()
                 .put()
                 .path("/asks/" + offerId + "/")
                 .body(body)
+                .idempotent(false) // a replayed rental could create a second instance
+                .priority(RequestPriority.CRITICAL)
+                .invalidates("/instances/")
                 .build();
-
-        return client.execute(req, CreateInstanceResponse.class);
-    }
-
-    /**
-     * Transitions an instance to the {@code running} target state.
-     */
-    public void start(long instanceId) {
-        changeState(instanceId, "running");
     }
 
-    /**
-     * Transitions an instance to the {@code stopped} target state.
-     */
-    public void stop(long instanceId) {
-        changeState(instanceId, "stopped");
+    private VastAIRequest changeStateRequest(long instanceId, String state) {
+        return client.requestBuilder()
+                .put()
+                .path("/instances/" + instanceId + "/")
+                .body(new StateOrLabel(state, null))
+                // idempotent: replaying a target state after a lost response leaves the instance in that state
+                .priority(RequestPriority.CRITICAL)
+                .invalidates("/instances/")
+                .build();
     }
 
-    /**
-     * Sets or replaces the server-side label associated with an instance.
-     */
-    public void label(long instanceId, String label) {
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest labelRequest(long instanceId, String label) {
+        return client.requestBuilder()
                 .put()
                 .path("/instances/" + instanceId + "/")
                 .body(new StateOrLabel(null, label))
+                .priority(RequestPriority.CRITICAL)
+                .invalidates("/instances/")
                 .build();
-        client.execute(req, String.class);
     }
 
-    /**
-     * Performs an in-place reboot which maintains the GPU queue priority.
-     */
-    public void reboot(long instanceId) {
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest rebootRequest(long instanceId) {
+        return client.requestBuilder()
                 .put()
                 .path("/instances/reboot/" + instanceId + "/")
+                .idempotent(false) // a replayed reboot would restart the workload twice
+                .priority(RequestPriority.CRITICAL)
+                .invalidates("/instances/")
                 .build();
-        client.execute(req, String.class);
     }
 
-    /**
-     * Permanently destroys an instance.
-     */
-    public void destroy(long instanceId) {
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest destroyRequest(long instanceId) {
+        return client.requestBuilder()
                 .delete()
                 .path("/instances/" + instanceId + "/")
+                .priority(RequestPriority.CRITICAL)
+                .invalidates("/instances/")
                 .build();
-        client.execute(req, String.class);
     }
 
-    /**
-     * Retrieves the details of an instance including SSH, runtype and template metadata.
-     */
-    public InstanceDetails show(long instanceId) {
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest showRequest(long instanceId, RequestPriority priority) {
+        return client.requestBuilder()
                 .get()
                 .path("/instances/" + instanceId + "/")
+                .priority(priority)
                 .build();
-        return client.execute(req, InstanceDetails.class);
     }
 
-    // --- private helpers ---
-
-    private void changeState(long instanceId, String state) {
-        VastAIRequest req = client.requestBuilder()
-                .put()
-                .path("/instances/" + instanceId + "/")
-                .body(new StateOrLabel(state, null))
-                .build();
-        client.execute(req, String.class);
-    }
-
-    public List<InstanceSummary> list() {
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest listRequest(RequestPriority priority) {
+        return client.requestBuilder()
                 .get()
                 .path("/instances/")
+                .priority(priority)
                 .build();
-        InstancesResponse resp = client.execute(req, InstancesResponse.class);
+    }
+
+    /**
+     * {@code thenApply} that passes an early completion of the result (cancellation, {@code orTimeout}) back to
+     * the request, so that an abandoned poll gives its scheduler slot back instead of running to completion.
+     */
+    private static <S, T> CompletableFuture<T> mapAsync(CompletableFuture<S> source, Function<? super S, ? extends T> fn) {
+        CompletableFuture<T> mapped = source.thenApply(fn);
+        mapped.whenComplete((value, error) -> {
+            if (!source.isDone()) source.cancel(false);
+        });
+        return mapped;
+    }
+
+    private static List<InstanceSummary> instancesOf(InstancesResponse resp) {
         return (resp == null || resp.instances() == null)
                 ? Collections.emptyList()
                 : resp.instances();
     }
 
-    /**
-     * Filters the locally retrieved instance list by current state.
-     */
-    public List<InstanceSummary> listByState(String stateLowercase) {
-        List<InstanceSummary> all = list();
+    private static List<InstanceSummary> filterByState(List<InstanceSummary> all, String stateLowercase) {
         if (stateLowercase == null || stateLowercase.isBlank()) return all;
         String s = stateLowercase.trim().toLowerCase();
         return all.stream()
@@ -195,11 +445,6 @@ public final class InstanceService implements Service {
                 .collect(Collectors.toList());
     }
 
-    @Override
-    public void update() {
-
-    }
-
     /**
      * Simple DTO used when toggling the state or label of an instance.
      */
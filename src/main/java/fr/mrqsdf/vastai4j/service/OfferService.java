@@ -1,16 +1,27 @@
 package fr.mrqsdf.vastai4j.service;
 
 import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.TypeAdapter;
+import fr.mrqsdf.vastai4j.client.ResponseReader;
 import fr.mrqsdf.vastai4j.client.VastAIClient;
+import fr.mrqsdf.vastai4j.gson.JsonArrayIterator;
+import fr.mrqsdf.vastai4j.gson.JsonEnvelopes;
+import fr.mrqsdf.vastai4j.http.VastAIException;
 import fr.mrqsdf.vastai4j.http.VastAIRequest;
+import fr.mrqsdf.vastai4j.market.TopOffers;
 import fr.mrqsdf.vastai4j.model.Offer;
 import fr.mrqsdf.vastai4j.model.OfferListResponse;
 import fr.mrqsdf.vastai4j.query.OfferQuery;
 
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service that exposes the offer search endpoints described in the Vast.ai API documentation.
@@ -33,17 +44,26 @@ public final class OfferService implements Service {
      * contains {@code /api/v0}, so the trailing segment must be {@code /bundles/}).
      */
     public List<Offer> search(OfferQuery query) {
-        JsonObject body = query.toQueryJson();
-
-        VastAIRequest req = client.requestBuilder()
-                .post()
-                .path("/bundles/")
-                .body(body)
-                .build();
+        return offersOf(client.execute(searchRequest(query), OfferListResponse.class));
+    }
 
+    /**
+     * Asynchronous mirror of {@link #search(OfferQuery)}.
+     */
+    public CompletableFuture<List<Offer>> searchAsync(OfferQuery query) {
+        return client.executeAsync(searchRequest(query), OfferListResponse.class).thenApply(OfferService::offersOf);
+    }
 
-        OfferListResponse resp = client.execute(req, OfferListResponse.class);
-        return resp != null && resp.offers() != null ? resp.offers() : List.of();
+    /**
+     * Lazily executes the {@code POST /bundles/} search: offers are decoded one at a time while the
+     * returned stream is consumed, straight from the HTTP body, so callers can stop early (e.g. with
+     * {@code filter(...).findFirst()} or {@code limit(n)}) without ever holding the full result.
+     * <p>The stream keeps the connection open until it is exhausted: use it in a try-with-resources
+     * block so an early exit releases the connection.</p>
+     */
+    public Stream<Offer> stream(OfferQuery query) {
+        return JsonArrayIterator.ofField(client.openJsonReader(searchRequest(query)), "offers",
+                client.getGson().getAdapter(Offer.class)).stream();
     }
 
     /**
@@ -52,21 +72,119 @@ public final class OfferService implements Service {
      * {@code select_cols} entry containing {@code "*"}.
      */
     public List<Offer> searchNew(OfferQuery query) {
-        JsonObject body = query.toSearchAsksPayload();
+        // Some deployments reply with a wrapper, others return the raw array: sniff the shape in one read.
+        List<Offer> offers = client.execute(searchNewRequest(query), offerListAdapter());
+        return offers != null ? offers : List.of();
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchNew(OfferQuery)}.
+     */
+    public CompletableFuture<List<Offer>> searchNewAsync(OfferQuery query) {
+        return client.executeAsync(searchNewRequest(query), offerListAdapter())
+                .thenApply(offers -> offers != null ? offers : List.<Offer>of());
+    }
+
+    /**
+     * Lazy mirror of {@link #searchNew(OfferQuery)}: like {@link #stream(OfferQuery)}, offers are decoded one
+     * at a time from the {@code PUT /search/asks/} body, whichever envelope shape the deployment uses.
+     * Use it in a try-with-resources block so an early exit releases the connection.
+     */
+    public Stream<Offer> streamNew(OfferQuery query) {
+        return JsonArrayIterator.ofField(client.openJsonReader(searchNewRequest(query)), "offers",
+                client.getGson().getAdapter(Offer.class)).stream();
+    }
+
+    /**
+     * Runs several {@code POST /bundles/} searches concurrently and merges their results.
+     * <p>
+     * The queries are sent at once through the client, so they share its rate limiter, scheduler and
+     * retry policy. Each response is streamed straight into a bounded top-K merge: offers are
+     * deduplicated by id (the best-ranked version wins) and only the best {@code limit} are ever held,
+     * without building one list per query.
+     * </p>
+     * @param queries the queries, e.g. one per GPU family, region or rental type.
+     * @param order the global ranking, best first; null keeps arrival order.
+     * @param limit the maximum number of offers returned, or a negative value for no limit.
+     * @return the merged offers, best first.
+     */
+    public List<Offer> searchAll(Collection<OfferQuery> queries, Comparator<? super Offer> order, int limit) {
+        return join(searchAllAsync(queries, order, limit));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchAll(Collection, Comparator, int)}; fails if any query fails.
+     */
+    public CompletableFuture<List<Offer>> searchAllAsync(Collection<OfferQuery> queries,
+                                                         Comparator<? super Offer> order, int limit) {
+        return fanOut(queries, this::searchRequest, order, limit);
+    }
+
+    /**
+     * Same as {@link #searchAll(Collection, Comparator, int)} on the {@code PUT /search/asks/} endpoint.
+     */
+    public List<Offer> searchNewAll(Collection<OfferQuery> queries, Comparator<? super Offer> order, int limit) {
+        return join(searchNewAllAsync(queries, order, limit));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchNewAll(Collection, Comparator, int)}; fails if any query fails.
+     */
+    public CompletableFuture<List<Offer>> searchNewAllAsync(Collection<OfferQuery> queries,
+                                                            Comparator<? super Offer> order, int limit) {
+        return fanOut(queries, this::searchNewRequest, order, limit);
+    }
+
+    private CompletableFuture<List<Offer>> fanOut(Collection<OfferQuery> queries,
+                                                  Function<OfferQuery, VastAIRequest> toRequest,
+                                                  Comparator<? super Offer> order, int limit) {
+        TopOffers merge = TopOffers.of(order, limit);
+        ResponseReader<Integer> sink = offerSink(merge);
+        List<CompletableFuture<Integer>> calls = new ArrayList<>(queries.size());
+        for (OfferQuery query : queries) calls.add(client.executeAsync(toRequest.apply(query), sink));
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> merge.toList());
+    }
+
+    /** Decodes an offer list (raw or wrapped under "offers") into the merge, one offer at a time. */
+    private ResponseReader<Integer> offerSink(TopOffers merge) {
+        TypeAdapter<Offer> element = client.getGson().getAdapter(Offer.class);
+        return in -> JsonEnvelopes.forEach(in, "offers", element, merge::offer);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new VastAIException("Offer search failed", e.getCause());
+        }
+    }
+
+    private VastAIRequest searchRequest(OfferQuery query) {
+        JsonObject body = query.toQueryJson();
+        return client.requestBuilder()
+                .post()
+                .path("/bundles/")
+                .body(body)
+                .idempotent(true) // read-only search, safe to replay
+                .build();
+    }
 
-        VastAIRequest req = client.requestBuilder()
+    private VastAIRequest searchNewRequest(OfferQuery query) {
+        JsonObject body = query.toSearchAsksPayload();
+        return client.requestBuilder()
                 .put()
                 .path("/search/asks/")
                 .body(body)
                 .build();
+    }
 
-        // Some deployments reply with a wrapper, others return the raw array.
-        OfferListResponse wrapped = client.execute(req, OfferListResponse.class);
-        if (wrapped != null && wrapped.offers() != null) return wrapped.offers();
+    private TypeAdapter<List<Offer>> offerListAdapter() {
+        return JsonEnvelopes.listAdapter("offers", client.getGson().getAdapter(Offer.class));
+    }
 
-        Type listType = new TypeToken<List<Offer>>(){}.getType();
-        List<Offer> direct = client.execute(req, listType);
-        return direct != null ? direct : List.of();
+    private static List<Offer> offersOf(OfferListResponse resp) {
+        return resp != null && resp.offers() != null ? resp.offers() : List.of();
     }
 
     @Override public void update() { /* no-op */ }
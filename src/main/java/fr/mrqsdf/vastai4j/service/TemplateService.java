@@ -11,6 +11,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service that wraps the template discovery endpoints from the Vast.ai API reference.
@@ -30,6 +31,17 @@ public final class TemplateService implements Service {
      * {@code query}, {@code order_by} and {@code select_filters} parameters.
      */
     public List<Template> search(TemplateSearchQuery q) {
+        return templatesOf(client.execute(searchRequest(q), TemplateSearchResponse.class));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #search(TemplateSearchQuery)}.
+     */
+    public CompletableFuture<List<Template>> searchAsync(TemplateSearchQuery q) {
+        return client.executeAsync(searchRequest(q), TemplateSearchResponse.class).thenApply(TemplateService::templatesOf);
+    }
+
+    private VastAIRequest searchRequest(TemplateSearchQuery q) {
         var gson = client.getGson();
         var b = client.requestBuilder().get().path("/template/");
 
@@ -42,9 +54,7 @@ public final class TemplateService implements Service {
         // Select filters are pre-serialized once so the client can URL-encode the JSON payload.
         String sf = q.selectFiltersAsRawJson(gson);
         if (sf != null) b.addQueryParam("select_filters", sf);
-
-        var resp = client.execute(b.build(), TemplateSearchResponse.class);
-        return (resp == null || resp.templates() == null) ? List.of() : new ArrayList<>(resp.templates());
+        return b.build();
     }
 
     /**
@@ -54,6 +64,17 @@ public final class TemplateService implements Service {
      * @return the list of templates matching the search criteria, or an empty list if none found.
      */
     public List<Template> searchAll(String qStr, String orderBy) {
+        return templatesOf(client.execute(searchAllRequest(qStr, orderBy), TemplateSearchResponse.class));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchAll(String, String)}.
+     */
+    public CompletableFuture<List<Template>> searchAllAsync(String qStr, String orderBy) {
+        return client.executeAsync(searchAllRequest(qStr, orderBy), TemplateSearchResponse.class).thenApply(TemplateService::templatesOf);
+    }
+
+    private VastAIRequest searchAllRequest(String qStr, String orderBy) {
         VastAIRequest.Builder b = client.requestBuilder()
                 .get()
                 .path("/template/");
@@ -61,8 +82,10 @@ public final class TemplateService implements Service {
         if (qStr != null && !qStr.isBlank()) b.addQueryParam("query", qStr);
         if (orderBy != null && !orderBy.isBlank()) b.addQueryParam("order_by", orderBy);
 
-        VastAIRequest req = b.build();
-        TemplateSearchResponse resp = client.execute(req, TemplateSearchResponse.class);
+        return b.build();
+    }
+
+    private static List<Template> templatesOf(TemplateSearchResponse resp) {
         return (resp == null || resp.templates() == null) ? List.of() : new ArrayList<>(resp.templates());
     }
 
@@ -77,10 +100,14 @@ public final class TemplateService implements Service {
      * @return the list of templates owned by the authenticated user, or an empty list if none found.
      */
     public List<Template> searchMyTemplates(String optionalQuery, String orderBy) {
-        TemplateSearchQuery q = new TemplateSearchQuery().personalOnly();
-        if (optionalQuery != null && !optionalQuery.isBlank()) q.query(optionalQuery);
-        if (orderBy != null && !orderBy.isBlank()) q.orderBy(orderBy);
-        return search(q);
+        return search(myTemplatesQuery(optionalQuery, orderBy));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchMyTemplates(String, String)}.
+     */
+    public CompletableFuture<List<Template>> searchMyTemplatesAsync(String optionalQuery, String orderBy) {
+        return searchAsync(myTemplatesQuery(optionalQuery, orderBy));
     }
 
     /**
@@ -91,10 +118,28 @@ public final class TemplateService implements Service {
      * @return the list of templates owned by the specified user, or an empty list if none found.
      */
     public List<Template> searchMyTemplates(long myUserId, String optionalQuery, String orderBy) {
+        return search(userTemplatesQuery(myUserId, optionalQuery, orderBy));
+    }
+
+    /**
+     * Asynchronous mirror of {@link #searchMyTemplates(long, String, String)}.
+     */
+    public CompletableFuture<List<Template>> searchMyTemplatesAsync(long myUserId, String optionalQuery, String orderBy) {
+        return searchAsync(userTemplatesQuery(myUserId, optionalQuery, orderBy));
+    }
+
+    private static TemplateSearchQuery myTemplatesQuery(String optionalQuery, String orderBy) {
+        TemplateSearchQuery q = new TemplateSearchQuery().personalOnly();
+        if (optionalQuery != null && !optionalQuery.isBlank()) q.query(optionalQuery);
+        if (orderBy != null && !orderBy.isBlank()) q.orderBy(orderBy);
+        return q;
+    }
+
+    private static TemplateSearchQuery userTemplatesQuery(long myUserId, String optionalQuery, String orderBy) {
         TemplateSearchQuery q = new TemplateSearchQuery().addFilter("owner_id", myUserId);
         if (optionalQuery != null && !optionalQuery.isBlank()) q.query(optionalQuery);
         if (orderBy != null && !orderBy.isBlank()) q.orderBy(orderBy);
-        return search(q);
+        return q;
     }
 
     @Override